@@ -0,0 +1,98 @@
+package dao.product;
+
+import dao.page.Page;
+import dao.page.PageCursor;
+import database.connection_provider;
+import model.product.Product;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductDAO end to end (pool, statement cache, SQL, mapping) against an
+ * in-memory H2 database in MySQL mode. Only the uncached read paths are
+ * measured; the read-through cache would otherwise hide the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {
+    "-Dpetshop.db.url=jdbc:h2:mem:petshop_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+    "-Dpetshop.db.user=sa",
+    "-Dpetshop.db.password="
+})
+public class ProductDaoBenchmark {
+    private static final int PRODUCTS = 10_000;
+
+    private final ProductDAO dao = new ProductDAO();
+    private PageCursor middle;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getProperty("petshop.db.url");
+        try (Connection conn = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement st = conn.createStatement()) {
+                st.execute("CREATE TABLE products (" +
+                           "id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(255) NOT NULL, price DECIMAL(10,2) NOT NULL, " +
+                           "stock_quantity INT NOT NULL DEFAULT 0, type VARCHAR(16) NOT NULL, material VARCHAR(255), " +
+                           "expiration_date DATE, nutritional_info TEXT, manufacture_date DATE, dosage VARCHAR(255), " +
+                           "status TINYINT DEFAULT 1)");
+                st.execute("CREATE INDEX idx_products_status_price ON products (status, price)");
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO products (name, price, stock_quantity, type, material) VALUES (?, ?, ?, 'TOY', 'Rubber')")) {
+                for (int i = 1; i <= PRODUCTS; i++) {
+                    ps.setString(1, "Toy " + i);
+                    ps.setBigDecimal(2, java.math.BigDecimal.valueOf(100 + i % 9000, 2));
+                    ps.setInt(3, i % 50);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+
+        Page<Product> first = dao.getPage(null, "ASC", null, PRODUCTS / 2);
+        middle = first.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connection_provider.shutdown();
+    }
+
+    @Benchmark
+    public Page<Product> firstPage() throws SQLException {
+        return dao.getPage(null, "ASC", null, 50);
+    }
+
+    @Benchmark
+    public Page<Product> keysetPageMidway() throws SQLException {
+        return dao.getPage(null, "ASC", middle, 50);
+    }
+
+    @Benchmark
+    public int count() throws SQLException {
+        return dao.count(null);
+    }
+}
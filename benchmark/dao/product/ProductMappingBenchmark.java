@@ -0,0 +1,121 @@
+package dao.product;
+
+import model.product.Food;
+import model.product.Medicine;
+import model.product.Product;
+import model.product.Toy;
+import support.InMemoryResultSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ProductDAO row mappers over in-memory result sets shaped like the list and detail projections,
+// against the old by-name mapping of SELECT * as a baseline
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductMappingBenchmark {
+    private static final String[] ALL_COLUMNS = {
+        "id", "name", "price", "stock_quantity", "type", "material",
+        "expiration_date", "nutritional_info", "manufacture_date", "dosage", "status"
+    };
+    private static final String[] LIST_COLUMNS = {
+        "id", "name", "price", "stock_quantity", "type", "material",
+        "expiration_date", "manufacture_date", "dosage"
+    };
+    private static final String[] DETAIL_COLUMNS = {
+        "id", "name", "price", "stock_quantity", "type", "material",
+        "expiration_date", "manufacture_date", "dosage", "nutritional_info"
+    };
+
+    @Param({"500000"})
+    public int rows;
+
+    private List<Object[]> allRows;
+    private List<Object[]> listRows;
+    private List<Object[]> detailRows;
+
+    @Setup
+    public void setUp() {
+        Date expires = Date.valueOf(LocalDate.now().plusYears(1));
+        Date made = Date.valueOf(LocalDate.now().minusMonths(1));
+        allRows = new ArrayList<>(rows);
+        listRows = new ArrayList<>(rows);
+        detailRows = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            BigDecimal price = BigDecimal.valueOf(500 + i % 5000, 2);
+            Object[] row = switch (i % 3) {
+                case 0 -> new Object[] {i, "Toy " + i, price, i % 40, "TOY", "Rubber", null, null, null, null, 1};
+                case 1 -> new Object[] {i, "Food " + i, price, i % 40, "FOOD", null, expires,
+                                        "Protein 26%, Fat 14%, Fibre 4%", null, null, 1};
+                default -> new Object[] {i, "Medicine " + i, price, i % 40, "MEDICINE", null, expires,
+                                         null, made, "1 tablet daily", 1};
+            };
+            allRows.add(row);
+            listRows.add(new Object[] {row[0], row[1], row[2], row[3], row[4], row[5], row[6], row[8], row[9]});
+            detailRows.add(new Object[] {row[0], row[1], row[2], row[3], row[4], row[5], row[6], row[8], row[9], row[7]});
+        }
+    }
+
+    @Benchmark
+    public void mapByName(Blackhole bh) throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(ALL_COLUMNS, allRows);
+        while (rs.next()) {
+            bh.consume(mapByName(rs));
+        }
+    }
+
+    @Benchmark
+    public void mapList(Blackhole bh) throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(LIST_COLUMNS, listRows);
+        while (rs.next()) {
+            bh.consume(ProductDAO.LIST_MAPPER.map(rs));
+        }
+    }
+
+    @Benchmark
+    public void mapDetail(Blackhole bh) throws SQLException {
+        ResultSet rs = InMemoryResultSet.of(DETAIL_COLUMNS, detailRows);
+        while (rs.next()) {
+            bh.consume(ProductDAO.DETAIL_MAPPER.map(rs));
+        }
+    }
+
+    // The mapping ProductDAO used before the projections, kept here as the baseline
+    private static Product mapByName(ResultSet rs) throws SQLException {
+        Product product = switch (rs.getString("type").toUpperCase()) {
+            case "TOY" -> new Toy(rs.getString("name"), rs.getBigDecimal("price"), rs.getInt("stock_quantity"),
+                                  rs.getString("material"));
+            case "FOOD" -> new Food(rs.getString("name"), rs.getBigDecimal("price"), rs.getInt("stock_quantity"),
+                                    rs.getDate("expiration_date").toLocalDate(), rs.getString("nutritional_info"));
+            case "MEDICINE" -> new Medicine(rs.getString("name"), rs.getBigDecimal("price"), rs.getInt("stock_quantity"),
+                                            rs.getString("dosage"), rs.getDate("manufacture_date").toLocalDate(),
+                                            rs.getDate("expiration_date").toLocalDate());
+            default -> throw new SQLException("Unknown product type");
+        };
+        product.setId(rs.getInt("id"));
+        return product;
+    }
+}
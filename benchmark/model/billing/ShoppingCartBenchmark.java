@@ -0,0 +1,74 @@
+package model.billing;
+
+import model.pet.Dog;
+import model.pet.Pet;
+import model.product.Product;
+import model.product.Toy;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cart math on carts of realistic and oversized lengths
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShoppingCartBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int items;
+
+    private ShoppingCart cart;
+    private Product extraProduct;
+
+    @Setup
+    public void setUp() {
+        cart = new ShoppingCart();
+        for (int i = 1; i <= items; i++) {
+            if (i % 5 == 0) {
+                Pet pet = new Dog("Dog " + i, "Mixed", 2, new BigDecimal("250.00"));
+                pet.setId(i);
+                cart.addPet(pet);
+            } else {
+                Product product = new Toy("Toy " + i, new BigDecimal("9.99"), 100, "Rubber");
+                product.setId(i);
+                cart.addProduct(product, 1 + i % 3);
+            }
+        }
+        extraProduct = new Toy("Extra toy", new BigDecimal("4.50"), 100, "Rope");
+        extraProduct.setId(items + 1);
+    }
+
+    @Benchmark
+    public BigDecimal getTotal() {
+        return cart.getTotal();
+    }
+
+    @Benchmark
+    public List<BillItem> getAllItems() {
+        return cart.getAllItems();
+    }
+
+    // What BillingPanel does on every quantity edit: change one line, re-read the total
+    @Benchmark
+    public BigDecimal updateThenTotal() {
+        cart.addProduct(extraProduct, 1);
+        cart.removeProduct(extraProduct.getId());
+        return cart.getTotal();
+    }
+}
@@ -0,0 +1,317 @@
+package perf;
+
+import dao.bill.BillDAO;
+import dao.dashboard.DashboardStatsDAO;
+import dao.product.ProductDAO;
+import database.DatabaseConfig;
+import database.QueryStats;
+import database.connection_provider;
+import model.billing.Bill;
+import model.billing.BillItem;
+import support.H2Schema;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * DAO latency check against an embedded database: loads database/petshop.sql
+ * into H2 (MySQL mode), seeds it, then times BillDAO.createBill,
+ * ProductDAO.updateStock and the report queries call by call through the
+ * real pool and statement cache.
+ *
+ *   mvn -P perf test
+ *
+ * Each scenario runs perf.rounds rounds of perf.iterations timed calls, and
+ * the median of the rounds' p95s is compared with the stored baseline. The
+ * check exits with status 1 when one is more than perf.tolerance (default
+ * 0.25, i.e. 25%) slower, when the baseline file is missing, or when any
+ * statement failed (the report DAOs only print their errors).
+ * --update-baseline (or -Dperf.updateBaseline=true) records the results as
+ * the new baseline instead. BillDAO.getWeeklyRevenue is not measured: H2 has
+ * no WEEK(date, mode). Other properties (defaults in brackets): perf.warmup
+ * [2000], perf.iterations [2000], perf.rounds [5],
+ * perf.baseline [benchmark/perf/latency-baseline.properties].
+ * The database comes from -Dpetshop.db.url/user/password like the application.
+ */
+public final class DaoLatencyCheck {
+    private static final int STAFF = 20;
+    private static final int CUSTOMERS = 2_000;
+    private static final int PRODUCTS = 5_000;
+    private static final int PETS = 2_000;
+
+    @FunctionalInterface
+    interface Operation {
+        void run(int i) throws Exception;
+    }
+
+    static final class Result {
+        final String name;
+        final int calls;
+        final double opsPerSecond;
+        final double p50;
+        final double p95;
+        final double p99;
+
+        // p95 is the median of the per-round p95s, which keeps one noisy round from deciding the check
+        Result(String name, long[][] rounds, long elapsedNanos) {
+            this.name = name;
+            double[] roundP95 = new double[rounds.length];
+            int total = 0;
+            for (int r = 0; r < rounds.length; r++) {
+                Arrays.sort(rounds[r]);
+                roundP95[r] = percentileMicros(rounds[r], 0.95);
+                total += rounds[r].length;
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (long[] round : rounds) {
+                System.arraycopy(round, 0, all, offset, round.length);
+                offset += round.length;
+            }
+            Arrays.sort(all);
+            Arrays.sort(roundP95);
+
+            this.calls = total;
+            this.opsPerSecond = total * 1e9 / elapsedNanos;
+            this.p50 = percentileMicros(all, 0.50);
+            this.p95 = roundP95[roundP95.length / 2];
+            this.p99 = percentileMicros(all, 0.99);
+        }
+
+        // Nearest-rank percentile
+        private static double percentileMicros(long[] sorted, double p) {
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(rank, 1) - 1] / 1_000.0;
+        }
+    }
+
+    private final int warmup = Integer.getInteger("perf.warmup", 2000);
+    private final int iterations = Integer.getInteger("perf.iterations", 2000);
+    private final int rounds = Integer.getInteger("perf.rounds", 5);
+    private final double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.25"));
+    private final Path baselineFile = Paths.get(System.getProperty("perf.baseline", "benchmark/perf/latency-baseline.properties"));
+    private final boolean updateBaseline;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private DaoLatencyCheck(boolean updateBaseline) {
+        this.updateBaseline = updateBaseline;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean update = Boolean.getBoolean("perf.updateBaseline") || Arrays.asList(args).contains("--update-baseline");
+        int status;
+        try {
+            status = new DaoLatencyCheck(update).run();
+        } finally {
+            connection_provider.shutdown();
+        }
+        System.exit(status);
+    }
+
+    private int run() throws Exception {
+        try (Connection conn = DriverManager.getConnection(DatabaseConfig.URL, DatabaseConfig.USER, DatabaseConfig.PASSWORD)) {
+            H2Schema.load(conn, Paths.get("database", "petshop.sql"));
+            seed(conn);
+        }
+
+        BillDAO billDao = new BillDAO();
+        ProductDAO productDao = new ProductDAO();
+        DashboardStatsDAO statsDao = new DashboardStatsDAO();
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+
+        // createBill first, so the report queries run over the bills it leaves behind
+        List<Result> results = new ArrayList<>();
+        results.add(measure("BillDAO.createBill", i -> {
+            Bill bill = randomBill();
+            if (!BillDAO.createBill(bill, bill.getItems())) {
+                throw new IllegalStateException("createBill returned false");
+            }
+        }));
+        results.add(measure("ProductDAO.updateStock", i -> {
+            // Alternate +1/-1 on the same product so stock never runs out
+            productDao.updateStock(1 + (i / 2) % PRODUCTS, i % 2 == 0 ? 1 : -1);
+        }));
+        results.add(measure("DashboardStatsDAO.getStats", i -> statsDao.getStats()));
+        results.add(measure("BillDAO.getStaffLeaderboard", i -> billDao.getStaffLeaderboard(monthStart, monthStart.plusMonths(1))));
+        results.add(measure("BillDAO.getMonthlySales", i -> billDao.getMonthlySales()));
+        results.add(measure("BillDAO.getActiveCustomersCount", i -> billDao.getActiveCustomersCount()));
+
+        System.out.printf("%-34s %8s %12s %10s %10s %10s%n", "Scenario", "Calls", "ops/s", "p50 us", "p95 us", "p99 us");
+        for (Result r : results) {
+            System.out.printf("%-34s %8d %12.0f %10.1f %10.1f %10.1f%n", r.name, r.calls, r.opsPerSecond, r.p50, r.p95, r.p99);
+        }
+
+        long failed = connection_provider.getQueryStats().top(Integer.MAX_VALUE).stream()
+                .mapToLong(QueryStats.StatementStats::getErrors).sum();
+        if (failed > 0) {
+            System.err.println(failed + " statements failed during the run; timings are not comparable");
+            return 1;
+        }
+
+        if (updateBaseline) {
+            writeBaseline(results);
+            System.out.println("Baseline written to " + baselineFile);
+            return 0;
+        }
+        if (!Files.exists(baselineFile)) {
+            System.err.println("No baseline at " + baselineFile + "; record one with --update-baseline");
+            return 1;
+        }
+        return compareWithBaseline(results);
+    }
+
+    private Result measure(String name, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run(i);
+        }
+        // Don't charge the previous scenario's garbage to this one
+        System.gc();
+        long[][] nanos = new long[rounds][iterations];
+        int call = warmup;
+        long start = System.nanoTime();
+        for (long[] round : nanos) {
+            for (int i = 0; i < iterations; i++) {
+                long t0 = System.nanoTime();
+                operation.run(call++);
+                round[i] = System.nanoTime() - t0;
+            }
+        }
+        return new Result(name, nanos, System.nanoTime() - start);
+    }
+
+    private int compareWithBaseline(List<Result> results) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader in = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            baseline.load(in);
+        }
+
+        List<String> regressions = new ArrayList<>();
+        for (Result r : results) {
+            String stored = baseline.getProperty(r.name + ".p95");
+            if (stored == null) {
+                System.out.println("No baseline for " + r.name + "; not checked");
+                continue;
+            }
+            double limit = Double.parseDouble(stored) * (1 + tolerance);
+            if (r.p95 > limit) {
+                regressions.add(String.format("%s: p95 %.1f us, baseline %s us (limit %.1f us)", r.name, r.p95, stored, limit));
+            }
+        }
+
+        if (regressions.isEmpty()) {
+            System.out.printf("All p95 latencies within %.0f%% of %s%n", tolerance * 100, baselineFile);
+            return 0;
+        }
+        System.err.println("p95 latency regressions:");
+        for (String regression : regressions) {
+            System.err.println("  " + regression);
+        }
+        return 1;
+    }
+
+    private void writeBaseline(List<Result> results) throws IOException {
+        // Properties.store would shuffle the keys; keep them in scenario order
+        Map<String, String> lines = new LinkedHashMap<>();
+        for (Result r : results) {
+            lines.put(r.name + ".p95", String.format(Locale.ROOT, "%.1f", r.p95));
+        }
+        if (baselineFile.getParent() != null) {
+            Files.createDirectories(baselineFile.getParent());
+        }
+        try (Writer out = Files.newBufferedWriter(baselineFile, StandardCharsets.UTF_8)) {
+            out.write("# p95 latency in microseconds per scenario, written by perf.DaoLatencyCheck\n");
+            out.write("# Record on the reference machine: mvn -P perf test -Dperf.updateBaseline=true\n");
+            for (Map.Entry<String, String> line : lines.entrySet()) {
+                out.write(line.getKey() + "=" + line.getValue() + "\n");
+            }
+        }
+    }
+
+    private void seed(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO staff (id, name, email, phone, username, password_hash, role) VALUES (?, ?, ?, ?, ?, 'x', ?)")) {
+            for (int i = 1; i <= STAFF; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "Staff " + i);
+                ps.setString(3, "staff" + i + "@perf.test");
+                ps.setString(4, String.format("09%08d", i));
+                ps.setString(5, "perf_staff_" + i);
+                ps.setString(6, i == 1 ? "MANAGER" : "STAFF");
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO customers (id, name, email, phone) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= CUSTOMERS; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "Customer " + i);
+                ps.setString(3, "customer" + i + "@perf.test");
+                ps.setString(4, String.format("08%08d", i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO products (id, name, price, stock_quantity, type, material) VALUES (?, ?, ?, ?, 'TOY', 'Rubber')")) {
+            for (int i = 1; i <= PRODUCTS; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "Toy " + i);
+                ps.setBigDecimal(3, BigDecimal.valueOf(100 + i % 9000, 2));
+                ps.setInt(4, 1_000_000);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO pets (id, name, type, breed, age, price) VALUES (?, ?, 'DOG', 'Mixed', ?, ?)")) {
+            for (int i = 1; i <= PETS; i++) {
+                ps.setInt(1, i);
+                ps.setString(2, "Pet " + i);
+                ps.setInt(3, 1 + i % 10);
+                ps.setBigDecimal(4, BigDecimal.valueOf(20_000 + i % 50_000, 2));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    // One to four product lines, and a pet on every tenth bill
+    private Bill randomBill() {
+        Bill bill = new Bill(1 + random.nextInt(CUSTOMERS), 1 + random.nextInt(STAFF), random.nextBoolean() ? "CASH" : "CARD");
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            int productId = 1 + random.nextInt(PRODUCTS);
+            bill.addItem(new BillItem(productId, "Toy " + productId, BigDecimal.valueOf(100 + productId % 9000, 2),
+                                   1 + random.nextInt(3), "TOY"));
+        }
+        if (random.nextInt(10) == 0) {
+            int petId = 1 + random.nextInt(PETS);
+            bill.addItem(new BillItem(petId, "Pet " + petId, BigDecimal.valueOf(20_000 + petId % 50_000, 2), "DOG"));
+        }
+        return bill;
+    }
+}
@@ -0,0 +1,500 @@
+package support;
+
+import database.DatabaseConfig;
+import util.hash.BCrypt;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills petshop_db (created from database/petshop.sql) with a production-sized
+ * dataset, so the DAOs and the report/home screens can be tried at volume.
+ *
+ *   mvn -P benchmark compile exec:java@generate-dataset -Dexec.args="--bills 5000000 --seed 7"
+ *
+ * Options (defaults in brackets): --customers [200000] --products [20000]
+ * --pets [10000] --staff [25] --bills [2000000] --years [3] --seed [42]
+ * --end-date [today] (yyyy-MM-dd, last day with bills) --batch [5000]
+ * --truncate (empty the data tables first). The database is taken from
+ * -Dpetshop.db.url/user/password like the application.
+ *
+ * The same options on the same empty schema always produce the same rows
+ * (password salts aside): every table draws from its own seeded generator,
+ * ids are assigned here rather than by AUTO_INCREMENT, and every date (bill
+ * times, expiry and manufacture dates) is derived from the end date. The end
+ * date defaults to today and is printed, so pass it back with --end-date to
+ * reproduce a dataset on another day. Bills are
+ * generated day by day, oldest first,
+ * with monthly and weekday seasonality, opening-hours peaks and year-on-year
+ * growth. Customers join over the whole period and a minority of regulars
+ * make most purchases; a few staff members make most sales. Rows are written
+ * with batched inserts (rewritten into multi-row statements by Connector/J),
+ * one transaction per batch, and the reporting rollups are rebuilt at the end.
+ * Generated staff can log in as gen_staff_N, N being their id, with the
+ * password "password". Unique columns (emails, usernames) are derived from
+ * the ids, which is what makes skipping unique_checks safe.
+ */
+public final class DatasetGenerator {
+    // Relative bill volume by month (January first) and by weekday (Monday first)
+    private static final double[] MONTH_WEIGHT = { 0.80, 0.75, 0.90, 0.95, 1.00, 1.10, 1.15, 1.10, 0.95, 1.00, 1.30, 1.65 };
+    private static final double[] WEEKDAY_WEIGHT = { 0.80, 0.80, 0.85, 0.90, 1.10, 1.45, 1.30 };
+    // Share of a day's bills per opening hour, 08:00 to 20:59
+    private static final double[] HOUR_WEIGHT = { 0.03, 0.05, 0.07, 0.09, 0.10, 0.08, 0.07, 0.07, 0.08, 0.10, 0.11, 0.09, 0.06 };
+    private static final int OPENING_HOUR = 8;
+    private static final double YEARLY_GROWTH = 0.20;
+
+    private static final String[] FIRST_NAMES = {
+        "Anna", "Binh", "Chloe", "David", "Emily", "Felix", "Giang", "Hannah", "Ivan", "Julia", "Khanh", "Liam",
+        "Mai", "Noah", "Olivia", "Phuong", "Quang", "Rosa", "Sarah", "Tuan", "Uyen", "Victor", "William", "Yen"
+    };
+    private static final String[] LAST_NAMES = {
+        "Nguyen", "Tran", "Le", "Pham", "Hoang", "Smith", "Johnson", "Brown", "Garcia", "Miller", "Davis", "Wilson",
+        "Vo", "Dang", "Bui", "Do", "Ho", "Ngo", "Duong", "Ly", "Anderson", "Taylor", "Thomas", "Moore"
+    };
+    private static final String[] TOYS = { "Chew Rope", "Squeaky Ball", "Feather Wand", "Tunnel", "Frisbee", "Puzzle Feeder", "Scratching Post" };
+    private static final String[] FOODS = { "Dry Kibble", "Wet Food", "Puppy Formula", "Senior Diet", "Grain-Free Mix", "Treats", "Dental Sticks" };
+    private static final String[] MEDICINES = { "Flea Drops", "Dewormer", "Joint Support", "Ear Cleaner", "Probiotic", "Vitamin Paste" };
+    private static final String[] MATERIALS = { "Rubber", "Cotton", "Nylon", "Plush", "Sisal", "Plastic" };
+    private static final String[] DOG_BREEDS = { "Poodle", "Corgi", "Shiba Inu", "Golden Retriever", "Husky", "Pug", "Beagle" };
+    private static final String[] CAT_BREEDS = { "Persian", "Siamese", "British Shorthair", "Maine Coon", "Bengal", "Ragdoll" };
+
+    private final Map<String, String> options;
+    private final long seed;
+    private final int batchSize;
+    private final LocalDate endDate;
+
+    private DatasetGenerator(Map<String, String> options) {
+        this.options = options;
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.batchSize = option("batch", 5000);
+        this.endDate = options.containsKey("end-date") ? LocalDate.parse(options.get("end-date")) : LocalDate.now();
+    }
+
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String key = args[i].substring(2);
+            boolean flag = i + 1 == args.length || args[i + 1].startsWith("--");
+            options.put(key, flag ? "true" : args[++i]);
+        }
+        new DatasetGenerator(options).run();
+    }
+
+    private void run() throws SQLException {
+        int customers = option("customers", 200_000);
+        int products = option("products", 20_000);
+        int pets = option("pets", 10_000);
+        int staff = option("staff", 25);
+        long bills = option("bills", 2_000_000);
+        int years = option("years", 3);
+        System.out.println("Seed " + seed + ", dates up to --end-date " + endDate);
+
+        try (Connection conn = DriverManager.getConnection(DatabaseConfig.URL, DatabaseConfig.USER, DatabaseConfig.PASSWORD)) {
+            try (Statement st = conn.createStatement()) {
+                // Checked by construction here; skipping them roughly halves the load time
+                st.execute("SET SESSION foreign_key_checks = 0");
+                st.execute("SET SESSION unique_checks = 0");
+            }
+            if (Boolean.parseBoolean(options.getOrDefault("truncate", "false"))) {
+                truncate(conn);
+            }
+            conn.setAutoCommit(false);
+
+            int firstStaff = nextId(conn, "staff");
+            int firstCustomer = nextId(conn, "customers");
+            int firstProduct = nextId(conn, "products");
+            int firstPet = nextId(conn, "pets");
+
+            loadStaff(conn, firstStaff, staff);
+            loadCustomers(conn, firstCustomer, customers);
+            long[] productPrices = loadProducts(conn, firstProduct, products);
+            long[] petPrices = loadPets(conn, firstPet, pets);
+            int petsSold = loadBills(conn, bills, years, firstStaff, staff, firstCustomer, customers,
+                                     firstProduct, productPrices, firstPet, petPrices);
+
+            timed("pets sold", petsSold, () -> {
+                try (PreparedStatement ps = conn.prepareStatement("UPDATE pets SET status = 0 WHERE id >= ? AND id < ?")) {
+                    ps.setInt(1, firstPet);
+                    ps.setInt(2, firstPet + petsSold);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+            });
+            rebuildRollups(conn);
+        }
+    }
+
+    private void truncate(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : new String[] { "bill_items", "bills", "daily_sales_rollup", "customer_monthly_activity",
+                                               "customers", "products", "pets" }) {
+                st.execute("TRUNCATE TABLE " + table);
+            }
+            st.execute("DELETE FROM staff WHERE username LIKE 'gen\\_staff\\_%'");
+        }
+        System.out.println("Emptied the data tables");
+    }
+
+    private void loadStaff(Connection conn, int firstId, int count) throws SQLException {
+        SplittableRandom random = random("staff");
+        String hash = BCrypt.hashpw("password", BCrypt.gensalt(10));
+        String sql = "INSERT INTO staff (id, name, email, phone, username, password_hash, role, salary) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        load(conn, "staff", sql, count, (ps, i) -> {
+            int id = firstId + i;   // unique columns come from the id, so reruns without --truncate cannot collide
+            ps.setInt(1, id);
+            ps.setString(2, name(random) + " (Staff " + id + ")");
+            ps.setString(3, "gen.staff" + id + "@petshop.example.com");
+            ps.setString(4, String.format("08%08d", id));
+            ps.setString(5, "gen_staff_" + id);
+            ps.setString(6, hash);
+            ps.setString(7, i < Math.max(1, count / 10) ? "MANAGER" : "STAFF");   // loadBills relies on managers coming first
+            ps.setBigDecimal(8, BigDecimal.valueOf(800_000 + random.nextInt(1_200_000), 2));
+        });
+    }
+
+    private void loadCustomers(Connection conn, int firstId, int count) throws SQLException {
+        SplittableRandom random = random("customers");
+        String sql = "INSERT INTO customers (id, name, email, phone, loyalty_points) VALUES (?, ?, ?, ?, ?)";
+        load(conn, "customers", sql, count, (ps, i) -> {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            int id = firstId + i;
+            ps.setInt(1, id);
+            ps.setString(2, first + " " + last);
+            ps.setString(3, (first + "." + last + "." + id).toLowerCase() + "@example.com");
+            ps.setString(4, String.format("09%08d", id));
+            ps.setInt(5, (int) (Math.pow(random.nextDouble(), 3) * 2000));
+        });
+    }
+
+    // Returns every product's price in cents, indexed from the first generated id
+    private long[] loadProducts(Connection conn, int firstId, int count) throws SQLException {
+        SplittableRandom random = random("products");
+        long[] prices = new long[count];
+        LocalDate end = endDate;   // expiry dates lie after the last bill
+        String sql = "INSERT INTO products (id, name, price, stock_quantity, type, material, expiration_date, " +
+                     "nutritional_info, manufacture_date, dosage) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        load(conn, "products", sql, count, (ps, i) -> {
+            int kind = random.nextInt(10);   // 40% food, 35% toys, 25% medicine
+            // A small share sits at or near zero stock so the low-stock views have something to show
+            int stock = random.nextInt(20) == 0 ? random.nextInt(11) : 10 + random.nextInt(300);
+            ps.setInt(1, firstId + i);
+            ps.setInt(4, stock);
+            ps.setNull(6, Types.VARCHAR);
+            ps.setNull(7, Types.DATE);
+            ps.setNull(8, Types.VARCHAR);
+            ps.setNull(9, Types.DATE);
+            ps.setNull(10, Types.VARCHAR);
+            if (kind < 4) {
+                prices[i] = 300 + random.nextInt(6000);
+                ps.setString(2, FOODS[random.nextInt(FOODS.length)] + " " + (i + 1));
+                ps.setString(5, "FOOD");
+                ps.setDate(7, Date.valueOf(end.plusDays(60 + random.nextInt(900))));
+                ps.setString(8, "Protein " + (18 + random.nextInt(15)) + "%, Fat " + (8 + random.nextInt(12)) + "%");
+            } else if (kind < 8) {
+                prices[i] = 200 + random.nextInt(4000);
+                ps.setString(2, TOYS[random.nextInt(TOYS.length)] + " " + (i + 1));
+                ps.setString(5, "TOY");
+                ps.setString(6, MATERIALS[random.nextInt(MATERIALS.length)]);
+            } else {
+                prices[i] = 500 + random.nextInt(8000);
+                ps.setString(2, MEDICINES[random.nextInt(MEDICINES.length)] + " " + (i + 1));
+                ps.setString(5, "MEDICINE");
+                ps.setDate(7, Date.valueOf(end.plusDays(90 + random.nextInt(1000))));
+                ps.setDate(9, Date.valueOf(end.minusDays(random.nextInt(365))));
+                ps.setString(10, (1 + random.nextInt(3)) + " dose(s) daily");
+            }
+            ps.setBigDecimal(3, BigDecimal.valueOf(prices[i], 2));
+        });
+        return prices;
+    }
+
+    // Returns every pet's price in cents, indexed from the first generated id
+    private long[] loadPets(Connection conn, int firstId, int count) throws SQLException {
+        SplittableRandom random = random("pets");
+        long[] prices = new long[count];
+        String sql = "INSERT INTO pets (id, name, type, breed, age, price) VALUES (?, ?, ?, ?, ?, ?)";
+        load(conn, "pets", sql, count, (ps, i) -> {
+            boolean dog = random.nextInt(5) < 3;
+            prices[i] = (dog ? 20_000 : 15_000) + random.nextInt(150_000);
+            ps.setInt(1, firstId + i);
+            ps.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+            ps.setString(3, dog ? "DOG" : "CAT");
+            ps.setString(4, dog ? DOG_BREEDS[random.nextInt(DOG_BREEDS.length)] : CAT_BREEDS[random.nextInt(CAT_BREEDS.length)]);
+            ps.setInt(5, 1 + random.nextInt(36));
+            ps.setBigDecimal(6, BigDecimal.valueOf(prices[i], 2));
+        });
+        return prices;
+    }
+
+    // Bills and their items, oldest first; returns how many pets were sold (the first ones generated)
+    private int loadBills(Connection conn, long bills, int years, int firstStaff, int staff,
+                          int firstCustomer, int customers, int firstProduct, long[] productPrices,
+                          int firstPet, long[] petPrices) throws SQLException {
+        SplittableRandom random = random("bills");
+        LocalDate end = endDate;
+        LocalDate start = end.minusYears(years);
+        int days = (int) ChronoUnit.DAYS.between(start, end) + 1;
+
+        // Expected bills per day, scaled so the whole period adds up to the requested total
+        double[] dayWeight = new double[days];
+        double weightSum = 0;
+        for (int d = 0; d < days; d++) {
+            LocalDate date = start.plusDays(d);
+            dayWeight[d] = MONTH_WEIGHT[date.getMonthValue() - 1]
+                         * WEEKDAY_WEIGHT[date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()]
+                         * Math.pow(1 + YEARLY_GROWTH, d / 365.0);
+            weightSum += dayWeight[d];
+        }
+        // Sales skew towards the first few regular staff; managers (the first tenth) sell least
+        int managers = Math.max(1, staff / 10);
+        double[] staffShare = cumulative(zipf(staff, 1.1));
+        double[] productShare = cumulative(zipf(productPrices.length, 0.9));
+        double[] hourShare = cumulative(HOUR_WEIGHT);
+        int petsForSale = petPrices.length * 7 / 10;
+        // One bill in this many includes a pet, so roughly 70% of the pets are sold over the period
+        long petEvery = Math.max(1, bills / Math.max(1, petsForSale));
+
+        int billId = nextId(conn, "bills");
+        long written = 0;
+        long items = 0;
+        int petsSold = 0;
+        long startNanos = System.nanoTime();
+
+        String billSql = "INSERT INTO bills (id, customer_id, staff_id, total_amount, payment_method, transaction_time) VALUES (?, ?, ?, ?, ?, ?)";
+        String itemSql = "INSERT INTO bill_items (bill_id, item_type, pet_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement billPs = conn.prepareStatement(billSql);
+             PreparedStatement itemPs = conn.prepareStatement(itemSql)) {
+
+            int pendingBills = 0;
+            double carry = 0;
+            for (int d = 0; d < days && written < bills; d++) {
+                double expected = bills * dayWeight[d] / weightSum + carry;
+                int today = (int) expected;
+                carry = expected - today;
+                today = (int) Math.min(today, bills - written);
+                if (d == days - 1) today = (int) (bills - written);   // rounding leftovers land on the last day
+
+                LocalDate date = start.plusDays(d);
+                // Customers join evenly over the period, on top of the 30% already there at the start
+                int joined = Math.max(1, (int) (customers * (0.3 + 0.7 * d / (double) days)));
+                double cardShare = 0.4 + 0.3 * d / days;
+
+                int[] seconds = new int[today];
+                for (int b = 0; b < today; b++) {
+                    seconds[b] = (OPENING_HOUR + pick(hourShare, random)) * 3600 + random.nextInt(3600);
+                }
+                Arrays.sort(seconds);
+
+                for (int b = 0; b < today; b++) {
+                    int id = billId++;
+                    long totalCents = 0;
+
+                    int lines = 1 + (int) Math.min(6, -Math.log(1 - random.nextDouble()) * 1.2);
+                    for (int l = 0; l < lines; l++) {
+                        int product = pick(productShare, random);
+                        int quantity = random.nextInt(4) == 0 ? 2 + random.nextInt(3) : 1;
+                        totalCents += productPrices[product] * quantity;
+                        addItem(itemPs, id, "PRODUCT", null, firstProduct + product, quantity, productPrices[product]);
+                        items++;
+                    }
+                    if (petsSold < petsForSale && random.nextLong(petEvery) == 0) {
+                        totalCents += petPrices[petsSold];
+                        addItem(itemPs, id, "PET", firstPet + petsSold, null, 1, petPrices[petsSold]);
+                        petsSold++;
+                        items++;
+                    }
+
+                    billPs.setInt(1, id);
+                    billPs.setInt(2, firstCustomer + customer(random, joined));
+                    billPs.setInt(3, firstStaff + (pick(staffShare, random) + managers) % staff);
+                    billPs.setBigDecimal(4, BigDecimal.valueOf(totalCents, 2));
+                    billPs.setString(5, random.nextDouble() < cardShare ? "CARD" : "CASH");
+                    billPs.setTimestamp(6, Timestamp.valueOf(LocalDateTime.of(date, LocalTime.ofSecondOfDay(seconds[b]))));
+                    billPs.addBatch();
+                    written++;
+
+                    if (++pendingBills == batchSize) {
+                        flush(conn, billPs, itemPs);
+                        pendingBills = 0;
+                        if (written % (batchSize * 100L) == 0) {
+                            progress("bills", written, bills, startNanos);
+                        }
+                    }
+                }
+            }
+            flush(conn, billPs, itemPs);
+        }
+        report("bills", written, startNanos);
+        System.out.println("  with " + items + " items, " + petsSold + " of them pets");
+        return petsSold;
+    }
+
+    private static void addItem(PreparedStatement ps, int billId, String type, Integer petId, Integer productId,
+                                int quantity, long unitCents) throws SQLException {
+        ps.setInt(1, billId);
+        ps.setString(2, type);
+        if (petId != null) ps.setInt(3, petId); else ps.setNull(3, Types.INTEGER);
+        if (productId != null) ps.setInt(4, productId); else ps.setNull(4, Types.INTEGER);
+        ps.setInt(5, quantity);
+        ps.setBigDecimal(6, BigDecimal.valueOf(unitCents, 2));
+        ps.addBatch();
+    }
+
+    private static void flush(Connection conn, PreparedStatement bills, PreparedStatement items) throws SQLException {
+        bills.executeBatch();
+        items.executeBatch();
+        conn.commit();
+    }
+
+    // Offset of a customer among the first `joined`: a power law favours the early, regular customers,
+    // and one bill in six comes from someone who joined recently
+    private static int customer(SplittableRandom random, int joined) {
+        if (random.nextInt(6) == 0) {
+            int recent = Math.max(1, joined / 20);
+            return joined - 1 - random.nextInt(recent);
+        }
+        return (int) (joined * Math.pow(random.nextDouble(), 2.5));
+    }
+
+    // Same SQL the sales-rollup migration used for its backfill
+    private void rebuildRollups(Connection conn) throws SQLException {
+        timed("rollups", 0, () -> {
+            try (Statement st = conn.createStatement()) {
+                st.execute("DELETE FROM daily_sales_rollup");
+                st.execute("DELETE FROM customer_monthly_activity");
+                st.execute(
+                    "INSERT INTO daily_sales_rollup (sales_date, staff_id, revenue, order_count, product_items, pet_items) " +
+                    "SELECT DATE(b.transaction_time), b.staff_id, SUM(b.total_amount), COUNT(*), " +
+                    "       COALESCE(SUM(i.product_items), 0), COALESCE(SUM(i.pet_items), 0) " +
+                    "FROM bills b LEFT JOIN (" +
+                    "    SELECT bill_id, SUM(CASE WHEN item_type = 'PRODUCT' THEN quantity ELSE 0 END) AS product_items, " +
+                    "           SUM(CASE WHEN item_type = 'PET' THEN quantity ELSE 0 END) AS pet_items " +
+                    "    FROM bill_items GROUP BY bill_id) i ON i.bill_id = b.id " +
+                    "GROUP BY DATE(b.transaction_time), b.staff_id");
+                st.execute(
+                    "INSERT INTO customer_monthly_activity (activity_month, customer_id) " +
+                    "SELECT DISTINCT DATE_FORMAT(transaction_time, '%Y-%m-01'), customer_id FROM bills");
+                for (String table : new String[] { "customers", "products", "pets", "staff", "bills", "bill_items",
+                                                   "daily_sales_rollup", "customer_monthly_activity" }) {
+                    st.execute("ANALYZE TABLE " + table);
+                }
+            }
+            conn.commit();
+        });
+    }
+
+    private interface RowBinder {
+        void bind(PreparedStatement ps, int row) throws SQLException;
+    }
+
+    private interface Step {
+        void run() throws SQLException;
+    }
+
+    private void load(Connection conn, String table, String sql, int rows, RowBinder binder) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < rows; i++) {
+                binder.bind(ps, i);
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+        report(table, rows, start);
+    }
+
+    private static void timed(String what, long rows, Step step) throws SQLException {
+        long start = System.nanoTime();
+        step.run();
+        report(what, rows, start);
+    }
+
+    private static void progress(String table, long done, long total, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("  %s: %d / %d (%.0f rows/s)%n", table, done, total, done / Math.max(seconds, 1e-3));
+    }
+
+    private static void report(String what, long rows, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        if (rows > 0) {
+            System.out.printf("%-10s %,12d rows in %6.1f s (%,.0f rows/s)%n", what, rows, seconds, rows / Math.max(seconds, 1e-3));
+        } else {
+            System.out.printf("%-10s done in %6.1f s%n", what, seconds);
+        }
+    }
+
+    private static int nextId(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // Weight of rank i proportional to 1 / (i + 1)^s
+    private static double[] zipf(int n, double s) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1 / Math.pow(i + 1, s);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < cumulative.length; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    // Index drawn with the probabilities behind a cumulative distribution
+    private static int pick(double[] cumulative, SplittableRandom random) {
+        int i = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(i >= 0 ? i : -i - 1, cumulative.length - 1);
+    }
+
+    private static String name(SplittableRandom random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    // Independent stream per table, so changing one table's size leaves the others' rows unchanged
+    private SplittableRandom random(String table) {
+        return new SplittableRandom(seed * 31 + table.hashCode());
+    }
+
+    private int option(String name, int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,84 @@
+package support;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Forward-only ResultSet over rows held in memory, so row mappers can be
+ * benchmarked without a database or driver in the measurement.
+ * Only the getters the DAOs use are implemented.
+ */
+public final class InMemoryResultSet {
+    private InMemoryResultSet() {}
+
+    // rows[i][j] is the value of columns[j] in row i; each call returns a fresh cursor
+    public static ResultSet of(String[] columns, List<Object[]> rows) {
+        Map<String, Integer> indexByLabel = new HashMap<>();
+        for (int i = 0; i < columns.length; i++) {
+            indexByLabel.put(columns[i].toLowerCase(), i);
+        }
+
+        int[] cursor = {-1};
+        boolean[] wasNull = {false};
+
+        return (ResultSet) Proxy.newProxyInstance(
+            InMemoryResultSet.class.getClassLoader(),
+            new Class<?>[] { ResultSet.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++cursor[0] < rows.size();
+                    case "close":
+                        cursor[0] = rows.size();
+                        return null;
+                    case "isClosed":
+                        return cursor[0] >= rows.size();
+                    case "wasNull":
+                        return wasNull[0];
+                    case "findColumn":
+                        return column(indexByLabel, args[0]) + 1;
+                    case "getObject":
+                    case "getString":
+                    case "getBigDecimal":
+                    case "getInt":
+                    case "getDate":
+                        break;
+                    default:
+                        throw new SQLFeatureNotSupportedException(method.getName());
+                }
+
+                Object value = rows.get(cursor[0])[column(indexByLabel, args[0])];
+                wasNull[0] = value == null;
+                switch (method.getName()) {
+                    case "getString":
+                        return value == null ? null : value.toString();
+                    case "getBigDecimal":
+                        return (BigDecimal) value;
+                    case "getInt":
+                        return value == null ? 0 : ((Number) value).intValue();
+                    case "getDate":
+                        return (Date) value;
+                    default:
+                        return value;
+                }
+            });
+    }
+
+    private static int column(Map<String, Integer> indexByLabel, Object key) throws SQLException {
+        if (key instanceof Integer index) {
+            return index - 1;
+        }
+        Integer index = indexByLabel.get(key.toString().toLowerCase());
+        if (index == null) {
+            throw new SQLException("Unknown column: " + key);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,47 @@
+package util.hash;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Login/signup cost per work factor; a slowdown here is felt directly at the login screen
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    @Param({"10", "12"})
+    public int logRounds;
+
+    private String salt;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        salt = BCrypt.gensalt(logRounds);
+        hash = BCrypt.hashpw("correct horse battery staple", salt);
+    }
+
+    @Benchmark
+    public String hashpw() {
+        return BCrypt.hashpw("correct horse battery staple", salt);
+    }
+
+    @Benchmark
+    public boolean checkpw() {
+        return BCrypt.checkpw("correct horse battery staple", hash);
+    }
+}
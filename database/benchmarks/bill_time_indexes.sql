@@ -0,0 +1,64 @@
+-- Index-use check for the BillDAO date-range queries on a 5M-bill dataset.
+-- Run against a scratch copy of petshop_db after migrations 002 and 003:
+--   mysql -u root -p petshop_db < database/benchmarks/bill_time_indexes.sql
+-- Every EXPLAIN below should show a range/ref access on one of the
+-- idx_bills_* keys, never type=ALL over bills.
+
+SET SESSION cte_max_recursion_depth = 5000000;
+
+-- Seed customers/staff so the foreign keys hold, then 5M bills spread over five years
+INSERT IGNORE INTO customers (id, name, email, phone, loyalty_points)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 10000)
+SELECT 100000 + n, CONCAT('Bench Customer ', n), CONCAT('bench', n, '@example.com'), '0000000000', 0 FROM seq;
+
+INSERT IGNORE INTO staff (id, name, email, phone, username, password_hash, role, salary)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 20)
+SELECT 100000 + n, CONCAT('Bench Staff ', n), CONCAT('bench.staff', n, '@example.com'), '0000000000',
+       CONCAT('bench_staff_', n), REPEAT('x', 60), 'STAFF', 0 FROM seq;
+
+INSERT INTO bills (customer_id, staff_id, total_amount, payment_method, transaction_time)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 5000000)
+SELECT 100001 + (n * 7919) % 10000,
+       100001 + n % 20,
+       ROUND(5 + (n * 104729 % 50000) / 100, 2),
+       IF(n % 3 = 0, 'CARD', 'CASH'),
+       CURRENT_DATE - INTERVAL (n % (5 * 365)) DAY + INTERVAL (n % 86400) SECOND
+FROM seq;
+
+ANALYZE TABLE bills;
+
+SET @month_start = DATE_FORMAT(CURRENT_DATE, '%Y-%m-01');
+SET @next_month = @month_start + INTERVAL 1 MONTH;
+
+-- getActiveCustomersCount
+EXPLAIN ANALYZE
+SELECT COUNT(DISTINCT customer_id) FROM bills
+WHERE transaction_time >= @month_start AND transaction_time < @next_month;
+
+-- getNewCustomersThisMonth
+EXPLAIN ANALYZE
+SELECT COUNT(DISTINCT b.customer_id) FROM bills b
+WHERE b.transaction_time >= @month_start AND b.transaction_time < @next_month
+AND NOT EXISTS (SELECT 1 FROM bills earlier
+                WHERE earlier.customer_id = b.customer_id AND earlier.transaction_time < @month_start);
+
+-- getCustomerActivityByWeek
+EXPLAIN ANALYZE
+SELECT DATE(transaction_time), COUNT(DISTINCT customer_id) FROM bills
+WHERE transaction_time >= CURRENT_DATE - INTERVAL 6 DAY AND transaction_time < CURRENT_DATE + INTERVAL 1 DAY
+GROUP BY DATE(transaction_time);
+
+-- getRecentBills
+EXPLAIN ANALYZE
+SELECT id, customer_id, staff_id, total_amount, payment_method, transaction_time
+FROM bills ORDER BY transaction_time DESC LIMIT 5;
+
+-- Staff activity over a period
+EXPLAIN ANALYZE
+SELECT COUNT(*), SUM(total_amount) FROM bills
+WHERE staff_id = 100001 AND transaction_time >= @month_start AND transaction_time < @next_month;
+
+-- For comparison: the old non-sargable form of getActiveCustomersCount (full scan)
+EXPLAIN ANALYZE
+SELECT COUNT(DISTINCT customer_id) FROM bills
+WHERE MONTH(transaction_time) = MONTH(CURRENT_DATE) AND YEAR(transaction_time) = YEAR(CURRENT_DATE);
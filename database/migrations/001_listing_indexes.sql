@@ -0,0 +1,14 @@
+USE petshop_db;
+
+-- Indexes backing the keyset-paginated listings (ProductDAO/PetDAO/CustomerDAO.getPage).
+-- InnoDB secondary indexes carry the primary key, so (status, price) also orders by id.
+ALTER TABLE `products`
+	ADD KEY `idx_products_status_price` (`status`, `price`),
+	ADD KEY `idx_products_status_type_price` (`status`, `type`, `price`);
+
+ALTER TABLE `pets`
+	ADD KEY `idx_pets_status_price` (`status`, `price`),
+	ADD KEY `idx_pets_status_type_price` (`status`, `type`, `price`);
+
+ALTER TABLE `customers`
+	ADD KEY `idx_customers_loyalty` (`loyalty_points`);
@@ -0,0 +1,38 @@
+USE petshop_db;
+
+-- Pre-aggregated sales for the reports (BillDAO.getMonthlySales, getWeeklyRevenue, getBestMonth,
+-- getCustomerActivityByMonth). BillDAO keeps both tables current inside the checkout transaction.
+CREATE TABLE `daily_sales_rollup` (
+	`sales_date` date NOT NULL,
+	`staff_id` int NOT NULL,
+	`revenue` decimal(14,2) NOT NULL DEFAULT '0.00',
+	`order_count` int NOT NULL DEFAULT '0',
+	`product_items` int NOT NULL DEFAULT '0',
+	`pet_items` int NOT NULL DEFAULT '0',
+	PRIMARY KEY (`sales_date`, `staff_id`),
+	KEY `idx_rollup_staff_date` (`staff_id`, `sales_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+CREATE TABLE `customer_monthly_activity` (
+	`activity_month` date NOT NULL,
+	`customer_id` int NOT NULL,
+	PRIMARY KEY (`activity_month`, `customer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Backfill from the existing bill history
+INSERT INTO `daily_sales_rollup` (`sales_date`, `staff_id`, `revenue`, `order_count`, `product_items`, `pet_items`)
+SELECT DATE(b.transaction_time), b.staff_id, SUM(b.total_amount), COUNT(*),
+	COALESCE(SUM(i.product_items), 0), COALESCE(SUM(i.pet_items), 0)
+FROM bills b
+LEFT JOIN (
+	SELECT bill_id,
+		SUM(CASE WHEN item_type = 'PRODUCT' THEN quantity ELSE 0 END) AS product_items,
+		SUM(CASE WHEN item_type = 'PET' THEN quantity ELSE 0 END) AS pet_items
+	FROM bill_items
+	GROUP BY bill_id
+) i ON i.bill_id = b.id
+GROUP BY DATE(b.transaction_time), b.staff_id;
+
+INSERT INTO `customer_monthly_activity` (`activity_month`, `customer_id`)
+SELECT DISTINCT DATE_FORMAT(transaction_time, '%Y-%m-01'), customer_id
+FROM bills;
@@ -0,0 +1,12 @@
+USE petshop_db;
+
+-- Range scans for the BillDAO analytics, which now filter with half-open
+-- [start, end) predicates on transaction_time instead of MONTH()/YEAR().
+-- The composite keys lead with the foreign key columns, so they replace the
+-- single-column customer_id/staff_id keys the foreign keys were using.
+ALTER TABLE `bills`
+	ADD KEY `idx_bills_time` (`transaction_time`),
+	ADD KEY `idx_bills_staff_time` (`staff_id`, `transaction_time`),
+	ADD KEY `idx_bills_customer_time` (`customer_id`, `transaction_time`),
+	DROP KEY `staff_id`,
+	DROP KEY `customer_id`;
@@ -0,0 +1,6 @@
+USE petshop_db;
+
+-- Duplicate-phone check on customer create/edit (CustomerDAO.existsByPhoneExcludingId).
+-- Not unique: existing data may already hold shared numbers.
+ALTER TABLE `customers`
+	ADD KEY `idx_customers_phone` (`phone`);
@@ -28,7 +28,9 @@ CREATE TABLE `customers` (
 	`loyalty_points` int NOT NULL DEFAULT '0',
 	PRIMARY KEY (`id`),
 	UNIQUE KEY `email` (`email`),
-	KEY `idx_customer_email` (`email`)
+	KEY `idx_customer_email` (`email`),
+	KEY `idx_customers_loyalty` (`loyalty_points`),
+	KEY `idx_customers_phone` (`phone`)
 ) ENGINE=InnoDB AUTO_INCREMENT=31 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 
@@ -41,7 +43,9 @@ CREATE TABLE `pets` (
 	`age` int NOT NULL,
 	`price` decimal(10,2) NOT NULL,
 	`status` tinyint DEFAULT '1',
-	PRIMARY KEY (`id`)
+	PRIMARY KEY (`id`),
+	KEY `idx_pets_status_price` (`status`, `price`),
+	KEY `idx_pets_status_type_price` (`status`, `type`, `price`)
 ) ENGINE=InnoDB AUTO_INCREMENT=12 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 
@@ -58,7 +62,9 @@ CREATE TABLE `products` (
 	`manufacture_date` date DEFAULT NULL,
 	`dosage` varchar(255) DEFAULT NULL,
 	`status` tinyint DEFAULT '1',
-	PRIMARY KEY (`id`)
+	PRIMARY KEY (`id`),
+	KEY `idx_products_status_price` (`status`, `price`),
+	KEY `idx_products_status_type_price` (`status`, `type`, `price`)
 ) ENGINE=InnoDB AUTO_INCREMENT=11 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
 
 
@@ -71,8 +77,9 @@ CREATE TABLE `bills` (
 	`payment_method` enum('CASH','CARD') NOT NULL,
 	`transaction_time` datetime DEFAULT CURRENT_TIMESTAMP,
 	PRIMARY KEY (`id`),
-	KEY `customer_id` (`customer_id`),
-	KEY `staff_id` (`staff_id`),
+	KEY `idx_bills_time` (`transaction_time`),
+	KEY `idx_bills_staff_time` (`staff_id`, `transaction_time`),
+	KEY `idx_bills_customer_time` (`customer_id`, `transaction_time`),
 	CONSTRAINT `bills_ibfk_1` FOREIGN KEY (`customer_id`) REFERENCES `customers` (`id`),
 	CONSTRAINT `bills_ibfk_2` FOREIGN KEY (`staff_id`) REFERENCES `staff` (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=17 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -93,4 +100,25 @@ CREATE TABLE `bill_items` (
 	CONSTRAINT `bill_items_ibfk_1` FOREIGN KEY (`bill_id`) REFERENCES `bills` (`id`),
 	CONSTRAINT `bill_items_ibfk_2` FOREIGN KEY (`pet_id`) REFERENCES `pets` (`id`),
 	CONSTRAINT `bill_items_ibfk_3` FOREIGN KEY (`product_id`) REFERENCES `products` (`id`)
-) ENGINE=InnoDB AUTO_INCREMENT=20 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
\ No newline at end of file
+) ENGINE=InnoDB AUTO_INCREMENT=20 DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+
+-- === REPORTING ROLLUPS ===
+-- Maintained by BillDAO inside the checkout transaction; reports read these instead of scanning bills
+CREATE TABLE `daily_sales_rollup` (
+	`sales_date` date NOT NULL,
+	`staff_id` int NOT NULL,
+	`revenue` decimal(14,2) NOT NULL DEFAULT '0.00',
+	`order_count` int NOT NULL DEFAULT '0',
+	`product_items` int NOT NULL DEFAULT '0',
+	`pet_items` int NOT NULL DEFAULT '0',
+	PRIMARY KEY (`sales_date`, `staff_id`),
+	KEY `idx_rollup_staff_date` (`staff_id`, `sales_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- One row per customer per month with at least one purchase; COUNT(*) per month = distinct active customers
+CREATE TABLE `customer_monthly_activity` (
+	`activity_month` date NOT NULL,
+	`customer_id` int NOT NULL,
+	PRIMARY KEY (`activity_month`, `customer_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
\ No newline at end of file
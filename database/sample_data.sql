@@ -7,6 +7,9 @@ SET FOREIGN_KEY_CHECKS = 0;
 -- XÓA HẾT DỮ LIỆU
 TRUNCATE TABLE bill_items;
 TRUNCATE TABLE bills;
+-- Rollups of the bills above; the reports read these
+TRUNCATE TABLE daily_sales_rollup;
+TRUNCATE TABLE customer_monthly_activity;
 TRUNCATE TABLE products;
 TRUNCATE TABLE pets;
 TRUNCATE TABLE customers;
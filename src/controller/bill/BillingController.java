@@ -12,13 +12,18 @@ import model.billing.Bill;
 import model.billing.BillItem;
 import model.pet.Pet;
 
-import service.billing.PdfGenerator;
+import service.billing.InvoiceBatchExporter;
+import service.billing.PdfRenderQueue;
 import service.billing.BillingService;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 public class BillingController {
     private final ShoppingCart cart = new ShoppingCart();
@@ -29,6 +34,10 @@ public class BillingController {
     private final PetDAO petDao;
     private final ProductDAO productDao;
 
+    // Failure listeners by the filtering wrapper registered on the shared render queue
+    private final Map<Consumer<PdfRenderQueue.Job>, Consumer<PdfRenderQueue.Job>> invoiceFailureListeners =
+        new ConcurrentHashMap<>();
+
     public BillingController() {
         this.customerDao = new CustomerDAO();
         this.billDao = new BillDAO();
@@ -46,12 +55,7 @@ public class BillingController {
 
     public void addProductToCart(Product product, int quantity) {
         // Kiểm tra xem sản phẩm đã có trong cart chưa
-        BillItem existingItem = cart.getAllItems().stream()
-            .filter(i -> i.getItemType() == BillItem.ItemType.PRODUCT && i.getProductId() == product.getId())
-            .findFirst()
-            .orElse(null);
-
-        int currentInCart = existingItem != null ? existingItem.getQuantity() : 0;
+        int currentInCart = cart.getProductQuantity(product.getId());
         int remainingStock = product.getStockQuantity() - currentInCart;
 
         if (quantity > remainingStock) {
@@ -63,10 +67,7 @@ public class BillingController {
 
     public void addPetToCart(Pet pet) {
         // Chỉ thêm thú cưng nếu chưa có trong cart
-        boolean petInCart = cart.getAllItems().stream()
-            .anyMatch(i -> i.getItemType() == BillItem.ItemType.PET && i.getPetId() == pet.getId());
-
-        if (!petInCart) {
+        if (!cart.containsPet(pet.getId())) {
             cart.addPet(pet);
         }
     }
@@ -102,50 +103,63 @@ public class BillingController {
         }
     }
 
+    // Product and pet ids can overlap; prefer removeCartItem(type, id)
     public void removeCartItem(int itemId) {
-        // Cần kiểm tra itemId thuộc loại nào: Product hay Pet
-        BillItem item = cart.getAllItems().stream()
-            .filter(i -> i.getItemId() == itemId)
-            .findFirst()
-            .orElse(null);
-
-        if (item == null) return;
-
-        if (item.getItemType() == BillItem.ItemType.PRODUCT) {
+        if (cart.getProductItem(itemId) != null) {
             cart.removeProduct(itemId);
-        } else if (item.getItemType() == BillItem.ItemType.PET) {
+        } else {
             cart.removePet(itemId);
         }
     }
 
-    public Bill finalizeBill(int customerId, int staffId, String paymentMethod) {
-        Bill bill = new Bill(customerId, staffId, paymentMethod);
-        getCartItemsAsList().forEach(bill::addItem);
-        return bill;
+    public void removeCartItem(BillItem.ItemType type, int itemId) {
+        if (type == BillItem.ItemType.PRODUCT) {
+            cart.removeProduct(itemId);
+        } else {
+            cart.removePet(itemId);
+        }
     }
 
-    public boolean processBill(Bill bill) throws SQLException {
-        List<BillItem> items = bill.getItems();
+    // Re-check every cart line against current stock with one query for products and one for pets
+    public void validateCart() throws SQLException {
+        List<BillItem> items = cart.getAllItems();
+        List<Integer> productIds = new ArrayList<>();
+        List<Integer> petIds = new ArrayList<>();
+        for (BillItem item : items) {
+            if (item.getItemType() == BillItem.ItemType.PRODUCT) productIds.add(item.getProductId());
+            else petIds.add(item.getPetId());
+        }
+
+        Map<Integer, Product> products = productDao.getByIds(productIds);
+        Map<Integer, Pet> pets = petDao.getByIds(petIds);
 
+        List<String> problems = new ArrayList<>();
         for (BillItem item : items) {
             if (item.getItemType() == BillItem.ItemType.PRODUCT) {
-                Product product = productDao.getById(item.getProductId());
-                if (product == null || product.getStockQuantity() < item.getQuantity()) {
-                    throw new IllegalStateException("Not enough stock for " + (product != null ? product.getName() : "Unknown product") +
-                            ". Required: " + item.getQuantity() + ", Available: " + (product != null ? product.getStockQuantity() : 0));
+                Product product = products.get(item.getProductId());
+                int available = product != null ? product.getStockQuantity() : 0;
+                if (available < item.getQuantity()) {
+                    problems.add("Not enough stock for " + item.getItemName() +
+                            ". Required: " + item.getQuantity() + ", Available: " + available);
                 }
+            } else if (!pets.containsKey(item.getPetId())) {
+                problems.add(item.getItemName() + " is no longer available");
             }
         }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException(String.join("\n", problems));
+        }
+    }
 
-        boolean success = billingService.processPayment(bill, items);
-        if (!success) return false;
+    public Bill finalizeBill(int customerId, int staffId, String paymentMethod) {
+        Bill bill = new Bill(customerId, staffId, paymentMethod);
+        getCartItemsAsList().forEach(bill::addItem);
+        return bill;
+    }
 
-        for (BillItem item : items) {
-            if (item.getItemType() == BillItem.ItemType.PET) {
-                petDao.deletePet(item.getPetId());
-            }
-        }
-        return true;
+    public boolean processBill(Bill bill) throws SQLException {
+        // Throws IllegalStateException when an item sold out in the meantime; nothing is saved in that case
+        return billingService.processPayment(bill, bill.getItems());
     }
 
     public void applyLoyaltyPoints(Customer customer, BigDecimal total) throws SQLException {
@@ -156,27 +170,55 @@ public class BillingController {
         }
     }
 
+    // Queues the invoice for rendering and returns straight away; see PdfRenderQueue for status
     public void exportBillAsPdf(Bill bill) {
-        PdfGenerator.generateBillPdf(bill);
+        PdfRenderQueue.shared().submit(bill);
         cart.clear();
     }
 
+    public PdfRenderQueue.Job getInvoiceStatus(int billId) {
+        return PdfRenderQueue.shared().getJob(billId);
+    }
+
+    // Called on a render thread once an invoice has used up its retries. The render queue outlives
+    // this controller, so every listener added must be removed again.
+    public void addInvoiceFailureListener(Consumer<PdfRenderQueue.Job> listener) {
+        Consumer<PdfRenderQueue.Job> failedOnly = job -> {
+            if (job.getStatus() == PdfRenderQueue.Status.FAILED) {
+                listener.accept(job);
+            }
+        };
+        if (invoiceFailureListeners.putIfAbsent(listener, failedOnly) == null) {
+            PdfRenderQueue.shared().addListener(failedOnly);
+        }
+    }
+
+    public void removeInvoiceFailureListener(Consumer<PdfRenderQueue.Job> listener) {
+        Consumer<PdfRenderQueue.Job> failedOnly = invoiceFailureListeners.remove(listener);
+        if (failedOnly != null) {
+            PdfRenderQueue.shared().removeListener(failedOnly);
+        }
+    }
+
+    // Every invoice in [from, to) into one file; a .zip target gets one PDF per bill
+    public InvoiceBatchExporter.Result exportInvoices(java.time.LocalDate from, java.time.LocalDate to, java.nio.file.Path target)
+            throws java.io.IOException, SQLException {
+        return new InvoiceBatchExporter(billDao).export(from, to, target);
+    }
+
     public void clearCart() {
         cart.clear();
     }
     
     // Staff performance methods
-    public int getOrdersByStaff(int staffId) {
-        return billDao.getOrdersByStaff(staffId);
-    }
-    
-    public BigDecimal getRevenueByStaff(int staffId) {
-        return billDao.getRevenueByStaff(staffId);
-    }
-    
     public BigDecimal getTotalStaffRevenue() {
         return billDao.getTotalStaffRevenue();
     }
+
+    // Orders, revenue, average basket and items sold per staff member for [from, to), best first
+    public List<BillDAO.StaffPerformance> getStaffLeaderboard(java.time.LocalDate from, java.time.LocalDate to) throws SQLException {
+        return billDao.getStaffLeaderboard(from, to);
+    }
     
     // Customer activity methods
     public java.util.Map<String, Integer> getCustomerActivityByMonth() {
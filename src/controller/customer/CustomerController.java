@@ -1,6 +1,8 @@
 package controller.customer;
 
 import dao.customer.CustomerDAO;
+import dao.page.Page;
+import dao.page.PageCursor;
 import model.user.Customer;
 import service.human.CustomerService;
 
@@ -19,20 +21,8 @@ public class CustomerController {
         }
         
         try {
-            // Validate data and check for duplicates
-            customerService.validateCustomerForCreate(
-                customer.getName(), 
-                customer.getEmail(), 
-                customer.getPhone(), 
-                customer.getLoyaltyPoints()
-            );
-            
-            // Trim data before saving
-            customer.setName(customer.getName().trim());
-            customer.setEmail(customer.getEmail().trim());
-            customer.setPhone(customer.getPhone().trim());
-            
-            customerDao.saveCustomer(customer);
+            // Validates, rejects duplicates and saves
+            customerService.createCustomer(customer);
             return null; // Success - no error message
             
         } catch (IllegalArgumentException e) {
@@ -76,6 +66,25 @@ public class CustomerController {
         }
     }
 
+    // Get one page of customers; loyaltyOrder is ASC, DESC or null for id order
+    public static Page<Customer> getCustomersPage(String loyaltyOrder, PageCursor after, int offset, int pageSize) {
+        try {
+            return customerDao.getPage(loyaltyOrder, after, offset, pageSize);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return Page.empty();
+        }
+    }
+
+    public static int countCustomers() {
+        try {
+            return customerDao.count();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
     // Update customer with full validation
     public static String updateCustomer(Customer customer) {
         if (customer == null || customer.getId() <= 0) {
@@ -83,21 +92,8 @@ public class CustomerController {
         }
         
         try {
-            // Validate data and check for duplicates
-            customerService.validateCustomerForUpdate(
-                customer,
-                customer.getName(), 
-                customer.getEmail(), 
-                customer.getPhone(), 
-                customer.getLoyaltyPoints()
-            );
-            
-            // Trim data before saving
-            customer.setName(customer.getName().trim());
-            customer.setEmail(customer.getEmail().trim());
-            customer.setPhone(customer.getPhone().trim());
-            
-            boolean success = customerDao.updateCustomer(customer);
+            // Validates, rejects duplicates and saves
+            boolean success = customerService.updateCustomer(customer);
             if (success) {
                 return null; // Success - no error message
             } else {
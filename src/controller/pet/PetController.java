@@ -1,7 +1,10 @@
 package controller.pet;
 
+import dao.page.Page;
+import dao.page.PageCursor;
 import dao.pet.PetDAO;
 import model.pet.Pet;
+import service.catalog.CatalogImporter;
 
 import java.util.List;
 import java.util.logging.Level;
@@ -24,6 +27,11 @@ public class PetController {
         }
     }
 
+    // Bulk add/update from a CSV file; see CatalogImporter for the columns
+    public CatalogImporter.Result importPets(java.nio.file.Path file) throws java.io.IOException, java.sql.SQLException {
+        return new CatalogImporter().importPets(file);
+    }
+
     public List<Pet> getAllPets() {
         try {
             return petDao.getAllPets();
@@ -33,6 +41,15 @@ public class PetController {
         }
     }
 
+    public Pet getPetById(int petId) {
+        try {
+            return petDao.getById(petId);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving pet " + petId, e);
+            return null;
+        }
+    }
+
     public List<Pet> getPetsByFilter(String type, String priceOrder) {
         try {
             return petDao.getByCondition(type, priceOrder);
@@ -42,6 +59,25 @@ public class PetController {
         }
     }
 
+    // Pass the previous page's next cursor, or null plus an offset to start anywhere
+    public Page<Pet> getPetsPage(String type, String priceOrder, PageCursor after, int offset, int pageSize) {
+        try {
+            return petDao.getPage(type, priceOrder, after, offset, pageSize);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error loading pet page", e);
+            return Page.empty();
+        }
+    }
+
+    public int countPets(String type) {
+        try {
+            return petDao.count(type);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error counting pets", e);
+            return 0;
+        }
+    }
+
     public boolean updatePet(Pet pet) {
         try {
             return petDao.updatePet(pet);
@@ -1,7 +1,10 @@
 package controller.product;
 
+import dao.page.Page;
+import dao.page.PageCursor;
 import dao.product.ProductDAO;
 import model.product.Product;
+import service.catalog.CatalogImporter;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -35,6 +38,11 @@ public class ProductController {
 }
 
     
+    // Bulk add/update from a CSV file; see CatalogImporter for the columns
+    public CatalogImporter.Result importProducts(java.nio.file.Path file) throws java.io.IOException, SQLException {
+        return new CatalogImporter().importProducts(file);
+    }
+
     public List<Product> getAllProducts() {
         try {
             return ProductDAO.getAll();
@@ -44,6 +52,15 @@ public class ProductController {
         }
     }
 
+    public Product getProductById(int productId) {
+        try {
+            return productDao.getById(productId);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error getting product " + productId, e);
+            return null;
+        }
+    }
+
     public List<Product> getProductsByFilter(String category, String priceOrder) {
         try {
             return productDao.getByCondition(category, priceOrder);
@@ -53,6 +70,25 @@ public class ProductController {
         }
     }
 
+    // Pass the previous page's next cursor, or null plus an offset to start anywhere
+    public Page<Product> getProductsPage(String category, String priceOrder, PageCursor after, int offset, int pageSize) {
+        try {
+            return productDao.getPage(category, priceOrder, after, offset, pageSize);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error loading product page", e);
+            return Page.empty();
+        }
+    }
+
+    public int countProducts(String category) {
+        try {
+            return productDao.count(category);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error counting products", e);
+            return 0;
+        }
+    }
+
     public List<Product> getAvailableProducts(String type) {
         try {
             return ProductDAO.getAll().stream()
@@ -0,0 +1,125 @@
+package dao.bill;
+
+import model.billing.Bill;
+import model.billing.BillItem;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only walk over bills and their items, read from one streaming
+ * query as the caller advances, so memory use does not grow with the number
+ * of bills. The cursor holds its own pooled connection until it is closed
+ * (or runs off the end); that connection must not be used for anything else
+ * meanwhile. Not thread-safe.
+ */
+public class BillCursor implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(BillCursor.class.getName());
+
+    private final Connection conn;
+    private final PreparedStatement ps;
+    private final ResultSet rs;
+
+    private boolean started;
+    private boolean onRow;   // rs is positioned on a row that belongs to the next bill
+    private boolean closed;
+
+    // Takes ownership of conn and ps, which must already be bound; both are closed if the query fails
+    BillCursor(Connection conn, PreparedStatement ps) throws SQLException {
+        this.conn = conn;
+        this.ps = ps;
+        try {
+            this.rs = ps.executeQuery();
+        } catch (SQLException e) {
+            try {
+                ps.close();
+            } finally {
+                conn.close();
+            }
+            throw e;
+        }
+    }
+
+    // The next bill with all of its items, or null once every bill has been read (the cursor is then closed)
+    public Bill next() throws SQLException {
+        if (closed) return null;
+        if (!started) {
+            started = true;
+            onRow = rs.next();
+        }
+        if (!onRow) {
+            close();
+            return null;
+        }
+
+        int billId = rs.getInt("id");
+        Bill bill = new Bill(rs.getInt("customer_id"), rs.getInt("staff_id"), rs.getString("payment_method"));
+        bill.setId(billId);
+        bill.setTransactionTime(rs.getTimestamp("transaction_time").toLocalDateTime());
+        do {
+            BillItem item = BillDAO.readItem(rs);
+            if (item != null) {
+                bill.addItem(item);
+            }
+        } while ((onRow = rs.next()) && rs.getInt("id") == billId);
+        return bill;
+    }
+
+    // Sequential stream over the remaining bills; close it (try-with-resources) to release the connection.
+    // Read failures surface as a RuntimeException whose cause is the SQLException.
+    public Stream<Bill> stream() {
+        Spliterator<Bill> bills = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Bill> action) {
+                Bill bill;
+                try {
+                    bill = next();
+                } catch (SQLException e) {
+                    throw new RuntimeException("Error reading bills", e);
+                }
+                if (bill == null) return false;
+                action.accept(bill);
+                return true;
+            }
+        };
+        return StreamSupport.stream(bills, false).onClose(this::closeQuietly);
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    // Closing before the end lets the driver discard the rows not read yet
+    @Override
+    public void close() throws SQLException {
+        if (closed) return;
+        closed = true;
+        try {
+            rs.close();
+        } finally {
+            try {
+                ps.close();
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Error closing bill cursor", e);
+        }
+    }
+}
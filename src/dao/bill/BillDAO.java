@@ -3,6 +3,9 @@ package dao.bill;
 import model.billing.Bill;
 import model.billing.BillItem;
 
+import dao.pet.PetDAO;
+import dao.product.ProductDAO;
+
 import database.connection_provider;
 
 import java.math.BigDecimal;
@@ -16,8 +19,34 @@ import java.sql.Types;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 public class BillDAO {
+    private static final String INSERT_BILL = "INSERT INTO bills (customer_id, staff_id, total_amount, payment_method, transaction_time) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM = "INSERT INTO bill_items (bill_id, item_type, pet_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // Report rollups, written in the same transaction as the bill they summarise
+    private static final String ADD_TO_DAILY_ROLLUP =
+        "INSERT INTO daily_sales_rollup (sales_date, staff_id, revenue, order_count, product_items, pet_items) " +
+        "VALUES (?, ?, ?, 1, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE revenue = revenue + VALUES(revenue), order_count = order_count + 1, " +
+        "product_items = product_items + VALUES(product_items), pet_items = pet_items + VALUES(pet_items)";
+    private static final String SUBTRACT_FROM_DAILY_ROLLUP =
+        "UPDATE daily_sales_rollup SET revenue = revenue - ?, order_count = order_count - 1, " +
+        "product_items = product_items - ?, pet_items = pet_items - ? WHERE sales_date = ? AND staff_id = ?";
+    private static final String ADD_CUSTOMER_ACTIVITY =
+        "INSERT IGNORE INTO customer_monthly_activity (activity_month, customer_id) VALUES (?, ?)";
+    // Only forget the customer for that month if no other bill of theirs is left in it
+    private static final String REMOVE_CUSTOMER_ACTIVITY =
+        "DELETE FROM customer_monthly_activity WHERE activity_month = ? AND customer_id = ? " +
+        "AND NOT EXISTS (SELECT 1 FROM bills WHERE customer_id = ? AND transaction_time >= ? AND transaction_time < ?)";
+
+    private static final String[] MONTH_NAMES = {"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+                                                 "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
+
     public static boolean createBill(Bill bill, List<BillItem> items) {
         if (bill == null || items == null || items.isEmpty()) {
             throw new IllegalArgumentException("Bill and items must not be null or empty");
@@ -28,72 +57,105 @@ public class BillDAO {
             conn = connection_provider.getCon();
             conn.setAutoCommit(false);
 
-            String insertBill = "INSERT INTO bills (customer_id, staff_id, total_amount, payment_method, transaction_time) VALUES (?, ?, ?, ?, ?)";
+            insertBill(conn, bill);
+            insertItems(conn, bill, items);
+            addToRollups(conn, bill, items);
 
-            try (PreparedStatement ps = conn.prepareStatement(insertBill, Statement.RETURN_GENERATED_KEYS)) {
-                ps.setInt(1, bill.getCustomerId());
-                ps.setInt(2, bill.getStaffId());
-                ps.setBigDecimal(3, bill.getTotalAmount());
-                ps.setString(4, bill.getPaymentMethod());
-                ps.setTimestamp(5, Timestamp.valueOf(bill.getTransactionTime()));
+            conn.commit();
+            conn.setAutoCommit(true);
 
-                int affectedRows = ps.executeUpdate();
-                if (affectedRows == 0) {
-                    throw new SQLException("Creating bill failed, no rows affected.");
-                }
+            return true;
 
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        bill.setId(rs.getInt(1));
-                    } else {
-                        throw new SQLException("Creating bill failed, no ID obtained.");
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
+            e.printStackTrace();
+            return false;
+        } finally {
+            if (conn != null) {
+                try {
+                    if (!conn.getAutoCommit()) {
+                        conn.setAutoCommit(true);
                     }
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
                 }
             }
+        }
+    }
 
-            String insertItem = "INSERT INTO bill_items (bill_id, item_type, pet_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?, ?, ?)";
+    // Full checkout in one transaction: lock and validate stock and pets, insert the bill and
+    // its items, take the stock and retire the sold pets. Nothing is written unless everything is.
+    // Throws IllegalStateException (after rolling back) when an item is no longer available.
+    public static void checkout(Bill bill, List<BillItem> items) throws SQLException {
+        if (bill == null || items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Bill and items must not be null or empty");
+        }
 
-            try (PreparedStatement ps = conn.prepareStatement(insertItem)) {
-                for (BillItem item : items) {
-                    ps.setInt(1, bill.getId());
-                    ps.setString(2, item.getItemType().name());
+        Map<Integer, Integer> productQuantities = new LinkedHashMap<>();
+        Map<Integer, String> itemNames = new HashMap<>();
+        List<Integer> petIds = new ArrayList<>();
+        for (BillItem item : items) {
+            if (item.getItemType() == BillItem.ItemType.PRODUCT) {
+                productQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                itemNames.put(item.getProductId(), item.getItemName());
+            } else {
+                petIds.add(item.getPetId());
+            }
+        }
 
-                    if (item.getItemType() == BillItem.ItemType.PRODUCT) {
-                        ps.setNull(3, Types.INTEGER);
-                        ps.setInt(4, item.getProductId());
-                    } else {
-                        ps.setInt(3, item.getPetId());
-                        ps.setNull(4, Types.INTEGER);
-                    }
-                    ps.setInt(5, item.getQuantity());
-                    ps.setBigDecimal(6, item.getUnitPrice());
+        Connection conn = null;
+        try {
+            conn = connection_provider.getCon();
+            conn.setAutoCommit(false);
 
-                    ps.addBatch();
+            Map<Integer, Integer> stock = ProductDAO.lockStock(conn, productQuantities.keySet());
+            for (Map.Entry<Integer, Integer> entry : productQuantities.entrySet()) {
+                int available = stock.getOrDefault(entry.getKey(), 0);
+                if (available < entry.getValue()) {
+                    throw new IllegalStateException("Not enough stock for " + itemNames.get(entry.getKey()) +
+                            ". Required: " + entry.getValue() + ", Available: " + available);
                 }
-                ps.executeBatch();
             }
 
+            Set<Integer> availablePets = PetDAO.lockAvailable(conn, petIds);
+            for (BillItem item : items) {
+                if (item.getItemType() == BillItem.ItemType.PET && !availablePets.contains(item.getPetId())) {
+                    throw new IllegalStateException(item.getItemName() + " is no longer available");
+                }
+            }
+
+            insertBill(conn, bill);
+            insertItems(conn, bill, items);
+            addToRollups(conn, bill, items);
+            ProductDAO.decrementStock(conn, productQuantities);
+            PetDAO.retirePets(conn, petIds);
+
             conn.commit();
-            conn.setAutoCommit(true);
 
-            return true;
+            // Only after commit, so a concurrent read can't re-cache the pre-checkout rows
+            ProductDAO.invalidate(productQuantities.keySet());
+            PetDAO.invalidate(petIds);
 
-        } catch (SQLException e) {
+        } catch (SQLException | RuntimeException e) {
             if (conn != null) {
                 try {
                     conn.rollback();
                 } catch (SQLException ex) {
-                    ex.printStackTrace();
+                    e.addSuppressed(ex);
                 }
             }
-            e.printStackTrace();
-            return false;
+            throw e;
         } finally {
             if (conn != null) {
                 try {
-                    if (!conn.getAutoCommit()) {
-                        conn.setAutoCommit(true);
-                    }
+                    conn.setAutoCommit(true);
                     conn.close();
                 } catch (SQLException e) {
                     e.printStackTrace();
@@ -102,6 +164,78 @@ public class BillDAO {
         }
     }
 
+    private static void insertBill(Connection conn, Bill bill) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_BILL, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, bill.getCustomerId());
+            ps.setInt(2, bill.getStaffId());
+            ps.setBigDecimal(3, bill.getTotalAmount());
+            ps.setString(4, bill.getPaymentMethod());
+            ps.setTimestamp(5, Timestamp.valueOf(bill.getTransactionTime()));
+
+            int affectedRows = ps.executeUpdate();
+            if (affectedRows == 0) {
+                throw new SQLException("Creating bill failed, no rows affected.");
+            }
+
+            try (ResultSet rs = ps.getGeneratedKeys()) {
+                if (rs.next()) {
+                    bill.setId(rs.getInt(1));
+                } else {
+                    throw new SQLException("Creating bill failed, no ID obtained.");
+                }
+            }
+        }
+    }
+
+    private static void insertItems(Connection conn, Bill bill, List<BillItem> items) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_ITEM)) {
+            for (BillItem item : items) {
+                ps.setInt(1, bill.getId());
+                ps.setString(2, item.getItemType().name());
+
+                if (item.getItemType() == BillItem.ItemType.PRODUCT) {
+                    ps.setNull(3, Types.INTEGER);
+                    ps.setInt(4, item.getProductId());
+                } else {
+                    ps.setInt(3, item.getPetId());
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setInt(5, item.getQuantity());
+                ps.setBigDecimal(6, item.getUnitPrice());
+
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void addToRollups(Connection conn, Bill bill, List<BillItem> items) throws SQLException {
+        int productItems = 0;
+        int petItems = 0;
+        for (BillItem item : items) {
+            if (item.getItemType() == BillItem.ItemType.PRODUCT) {
+                productItems += item.getQuantity();
+            } else {
+                petItems += item.getQuantity();
+            }
+        }
+
+        java.time.LocalDate salesDate = bill.getTransactionTime().toLocalDate();
+        try (PreparedStatement ps = conn.prepareStatement(ADD_TO_DAILY_ROLLUP)) {
+            ps.setDate(1, java.sql.Date.valueOf(salesDate));
+            ps.setInt(2, bill.getStaffId());
+            ps.setBigDecimal(3, bill.getTotalAmount());
+            ps.setInt(4, productItems);
+            ps.setInt(5, petItems);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(ADD_CUSTOMER_ACTIVITY)) {
+            ps.setDate(1, java.sql.Date.valueOf(salesDate.withDayOfMonth(1)));
+            ps.setInt(2, bill.getCustomerId());
+            ps.executeUpdate();
+        }
+    }
+
     // Home panel - tổng doanh thu
     public BigDecimal getTotalRevenue() {
         String sql = "SELECT SUM(total_amount) FROM bills";
@@ -134,70 +268,174 @@ public class BillDAO {
         }
     }
     
-    // Delete bill (hard delete since no status column)
+    // Delete bill (hard delete since no status column); the report rollups are adjusted in the same transaction
     public boolean deleteBill(int billId) {
         if (billId <= 0) return false;
 
-        String sql = "DELETE FROM bills WHERE id = ?";
+        Connection conn = null;
+        try {
+            conn = connection_provider.getCon();
+            conn.setAutoCommit(false);
 
-        try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int customerId;
+            int staffId;
+            BigDecimal total;
+            java.time.LocalDateTime time;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT customer_id, staff_id, total_amount, transaction_time FROM bills WHERE id = ? FOR UPDATE")) {
+                ps.setInt(1, billId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                    customerId = rs.getInt("customer_id");
+                    staffId = rs.getInt("staff_id");
+                    total = rs.getBigDecimal("total_amount");
+                    time = rs.getTimestamp("transaction_time").toLocalDateTime();
+                }
+            }
 
-            ps.setInt(1, billId);
-            return ps.executeUpdate() > 0;
+            int productItems = 0;
+            int petItems = 0;
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "SELECT item_type, SUM(quantity) FROM bill_items WHERE bill_id = ? GROUP BY item_type")) {
+                ps.setInt(1, billId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if ("PET".equals(rs.getString(1))) {
+                            petItems = rs.getInt(2);
+                        } else {
+                            productItems = rs.getInt(2);
+                        }
+                    }
+                }
+            }
 
-        } catch (SQLException e)
-        {
-            e.printStackTrace();
-            return false;
-        }
-    }
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM bills WHERE id = ?")) {
+                ps.setInt(1, billId);
+                if (ps.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+            }
 
-    // Get staff performance metrics
-    public int getOrdersByStaff(int staffId) {
-        String sql = "SELECT COUNT(*) FROM bills WHERE staff_id = ?";
-        try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, staffId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? rs.getInt(1) : 0;
+            try (PreparedStatement ps = conn.prepareStatement(SUBTRACT_FROM_DAILY_ROLLUP)) {
+                ps.setBigDecimal(1, total);
+                ps.setInt(2, productItems);
+                ps.setInt(3, petItems);
+                ps.setDate(4, java.sql.Date.valueOf(time.toLocalDate()));
+                ps.setInt(5, staffId);
+                ps.executeUpdate();
+            }
+
+            java.time.LocalDate month = time.toLocalDate().withDayOfMonth(1);
+            try (PreparedStatement ps = conn.prepareStatement(REMOVE_CUSTOMER_ACTIVITY)) {
+                ps.setDate(1, java.sql.Date.valueOf(month));
+                ps.setInt(2, customerId);
+                ps.setInt(3, customerId);
+                ps.setTimestamp(4, Timestamp.valueOf(month.atStartOfDay()));
+                ps.setTimestamp(5, Timestamp.valueOf(month.plusMonths(1).atStartOfDay()));
+                ps.executeUpdate();
             }
+
+            conn.commit();
+            return true;
+
         } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    ex.printStackTrace();
+                }
+            }
             e.printStackTrace();
-            return 0;
+            return false;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
-    
-    public BigDecimal getRevenueByStaff(int staffId) {
-        String sql = "SELECT SUM(total_amount) FROM bills WHERE staff_id = ?";
+
+    // Revenue of all bills that have a staff member, i.e. all bills
+    public BigDecimal getTotalStaffRevenue() {
+        String sql = "SELECT COALESCE(SUM(total_amount), 0) FROM bills";
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, staffId);
-            try (ResultSet rs = ps.executeQuery()) {
-                return rs.next() ? (rs.getBigDecimal(1) != null ? rs.getBigDecimal(1) : BigDecimal.ZERO) : BigDecimal.ZERO;
-            }
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getBigDecimal(1) : BigDecimal.ZERO;
         } catch (SQLException e) {
             e.printStackTrace();
             return BigDecimal.ZERO;
         }
     }
-    
-    public BigDecimal getTotalStaffRevenue() {
-        String sql = "SELECT staff_id, SUM(total_amount) as revenue FROM bills GROUP BY staff_id";
-        BigDecimal total = BigDecimal.ZERO;
+
+    // One leaderboard row per staff member
+    public static final class StaffPerformance {
+        private final int staffId;
+        private final String staffName;
+        private final int orders;
+        private final BigDecimal revenue;
+        private final int itemsSold;
+
+        StaffPerformance(int staffId, String staffName, int orders, BigDecimal revenue, int itemsSold) {
+            this.staffId = staffId;
+            this.staffName = staffName;
+            this.orders = orders;
+            this.revenue = revenue;
+            this.itemsSold = itemsSold;
+        }
+
+        public int getStaffId() { return staffId; }
+        public String getStaffName() { return staffName; }
+        public int getOrders() { return orders; }
+        public BigDecimal getRevenue() { return revenue; }
+        public int getItemsSold() { return itemsSold; }
+
+        public BigDecimal getAverageBasket() {
+            if (orders == 0) return BigDecimal.ZERO;
+            return revenue.divide(BigDecimal.valueOf(orders), 2, java.math.RoundingMode.HALF_UP);
+        }
+    }
+
+    // Grouped over daily_sales_rollup, so the cost depends on days x staff rather than on the number of bills
+    private static final String STAFF_LEADERBOARD =
+        "SELECT s.id, s.name, COALESCE(SUM(r.order_count), 0) AS orders, COALESCE(SUM(r.revenue), 0) AS revenue, " +
+        "       COALESCE(SUM(r.product_items + r.pet_items), 0) AS items_sold " +
+        "FROM staff s " +
+        "LEFT JOIN daily_sales_rollup r ON r.staff_id = s.id AND r.sales_date >= ? AND r.sales_date < ? " +
+        "GROUP BY s.id, s.name " +
+        "ORDER BY revenue DESC, orders DESC, s.id";
+
+    // Every staff member, best revenue in [from, to) first; staff without sales are listed with zeros
+    public List<StaffPerformance> getStaffLeaderboard(java.time.LocalDate from, java.time.LocalDate to) throws SQLException {
+        List<StaffPerformance> leaderboard = new ArrayList<>();
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                BigDecimal revenue = rs.getBigDecimal("revenue");
-                if (revenue != null) {
-                    total = total.add(revenue);
+             PreparedStatement ps = conn.prepareStatement(STAFF_LEADERBOARD)) {
+
+            ps.setDate(1, java.sql.Date.valueOf(from));
+            ps.setDate(2, java.sql.Date.valueOf(to));
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    leaderboard.add(new StaffPerformance(
+                        rs.getInt("id"),
+                        rs.getString("name"),
+                        rs.getInt("orders"),
+                        rs.getBigDecimal("revenue"),
+                        rs.getInt("items_sold")
+                    ));
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
-        return total;
+        return leaderboard;
     }
 
     // Get recent bills for activity panel
@@ -228,33 +466,127 @@ public class BillDAO {
         return bills;
     }
 
+    // Receives bills from forEachBill one at a time, each with all of its items
+    public interface BillHandler {
+        void handle(Bill bill) throws java.io.IOException;
+    }
+
+    private static final String BILLS_WITH_ITEMS =
+        "SELECT b.id, b.customer_id, b.staff_id, b.payment_method, b.transaction_time, " +
+        "       bi.item_type, bi.product_id, bi.pet_id, bi.quantity, bi.unit_price, " +
+        "       COALESCE(p.name, pt.name) AS item_name, COALESCE(p.type, pt.type) AS item_kind " +
+        "FROM bills b " +
+        "LEFT JOIN bill_items bi ON bi.bill_id = b.id " +
+        "LEFT JOIN products p ON p.id = bi.product_id " +
+        "LEFT JOIN pets pt ON pt.id = bi.pet_id ";
+    // idx_bills_time order (InnoDB appends the primary key to it), so the range streams without a filesort
+    private static final String BILLS_IN_RANGE_WITH_ITEMS = BILLS_WITH_ITEMS +
+        "WHERE b.transaction_time >= ? AND b.transaction_time < ? " +
+        "ORDER BY b.transaction_time, b.id";
+    // Primary key order, so the whole history is walked without sorting it first. Ordering by bi.id as
+    // well would force a filesort of the whole join; the cursor only needs each bill's rows together.
+    private static final String ALL_BILLS_WITH_ITEMS = BILLS_WITH_ITEMS +
+        "ORDER BY b.id";
+
+    // Bills in [from, to) oldest first, streamed row by row so memory stays flat however large
+    // the range. Returns the number of bills handled. The handler must not use this connection.
+    public int forEachBill(java.time.LocalDate from, java.time.LocalDate to, BillHandler handler)
+            throws SQLException, java.io.IOException {
+        int count = 0;
+        try (BillCursor cursor = openCursor(from, to)) {
+            for (Bill bill = cursor.next(); bill != null; bill = cursor.next()) {
+                handler.handle(bill);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Bills in [from, to) oldest first; the caller must close the cursor
+    public BillCursor openCursor(java.time.LocalDate from, java.time.LocalDate to) throws SQLException {
+        return openCursor(BILLS_IN_RANGE_WITH_ITEMS, from, to);
+    }
+
+    // Every bill ever recorded, in id order; the caller must close the cursor
+    public BillCursor openCursor() throws SQLException {
+        return openCursor(ALL_BILLS_WITH_ITEMS, null, null);
+    }
+
+    // Stream versions of the cursors above, for use in try-with-resources
+    public java.util.stream.Stream<Bill> streamBills(java.time.LocalDate from, java.time.LocalDate to) throws SQLException {
+        return openCursor(from, to).stream();
+    }
+
+    public java.util.stream.Stream<Bill> streamAllBills() throws SQLException {
+        return openCursor().stream();
+    }
+
+    private BillCursor openCursor(String sql, java.time.LocalDate from, java.time.LocalDate to) throws SQLException {
+        Connection conn = connection_provider.getCon();
+        PreparedStatement ps = null;
+        try {
+            ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);   // MySQL Connector/J: stream rows instead of buffering the result
+            if (from != null) {
+                ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+                ps.setTimestamp(2, Timestamp.valueOf(to.atStartOfDay()));
+            }
+        } catch (SQLException e) {
+            try {
+                if (ps != null) ps.close();
+            } finally {
+                conn.close();
+            }
+            throw e;
+        }
+        return new BillCursor(conn, ps);
+    }
+
+    // Null for the all-NULL item columns of a bill without items
+    static BillItem readItem(ResultSet rs) throws SQLException {
+        String itemType = rs.getString("item_type");
+        if (itemType == null) return null;
+
+        String kind = rs.getString("item_kind");
+        BigDecimal unitPrice = rs.getBigDecimal("unit_price");
+        if ("PET".equals(itemType)) {
+            int petId = rs.getInt("pet_id");
+            String name = rs.getString("item_name");
+            return new BillItem(petId, name != null ? name : "Pet #" + petId, unitPrice, kind != null ? kind : "PET");
+        }
+        int productId = rs.getInt("product_id");
+        String name = rs.getString("item_name");
+        return new BillItem(productId, name != null ? name : "Product #" + productId, unitPrice,
+                            rs.getInt("quantity"), kind != null ? kind : "PRODUCT");
+    }
+
     // Customer activity tracking methods
     public java.util.Map<String, Integer> getCustomerActivityByMonth() {
         java.util.Map<String, Integer> monthlyActivity = new java.util.LinkedHashMap<>();
         String sql = "SELECT " +
-                    "MONTH(transaction_time) as month, " +
-                    "COUNT(DISTINCT customer_id) as active_customers " +
-                    "FROM bills " +
-                    "WHERE YEAR(transaction_time) = YEAR(CURRENT_DATE) " +
-                    "GROUP BY MONTH(transaction_time) " +
-                    "ORDER BY MONTH(transaction_time)";
+                    "MONTH(activity_month) as month, " +
+                    "COUNT(*) as active_customers " +
+                    "FROM customer_monthly_activity " +
+                    "WHERE activity_month >= ? AND activity_month < ? " +
+                    "GROUP BY activity_month " +
+                    "ORDER BY activity_month";
         
         // Initialize all months with 0
-        String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", 
-                              "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        for (String month : monthNames) {
+        for (String month : MONTH_NAMES) {
             monthlyActivity.put(month, 0);
         }
         
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            while (rs.next()) {
-                int month = rs.getInt("month");
-                int activeCustomers = rs.getInt("active_customers");
-                if (month >= 1 && month <= 12) {
-                    monthlyActivity.put(monthNames[month - 1], activeCustomers);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindCurrentYear(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int month = rs.getInt("month");
+                    int activeCustomers = rs.getInt("active_customers");
+                    if (month >= 1 && month <= 12) {
+                        monthlyActivity.put(MONTH_NAMES[month - 1], activeCustomers);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -269,7 +601,7 @@ public class BillDAO {
                     "DATE(transaction_time) as activity_date, " +
                     "COUNT(DISTINCT customer_id) as active_customers " +
                     "FROM bills " +
-                    "WHERE transaction_time >= DATE_SUB(CURRENT_DATE, INTERVAL 7 DAY) " +
+                    "WHERE transaction_time >= ? AND transaction_time < ? " +
                     "GROUP BY DATE(transaction_time) " +
                     "ORDER BY DATE(transaction_time)";
         
@@ -283,17 +615,21 @@ public class BillDAO {
         }
         
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            while (rs.next()) {
-                java.sql.Date activityDate = rs.getDate("activity_date");
-                int activeCustomers = rs.getInt("active_customers");
-                
-                if (activityDate != null) {
-                    java.time.LocalDate localDate = activityDate.toLocalDate();
-                    String dayLabel = dayNames[localDate.getDayOfWeek().getValue() - 1];
-                    weeklyActivity.put(dayLabel, activeCustomers);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            // Exactly the seven labelled days: [today - 6, tomorrow)
+            ps.setTimestamp(1, Timestamp.valueOf(currentDate.minusDays(6).atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(currentDate.plusDays(1).atStartOfDay()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    java.sql.Date activityDate = rs.getDate("activity_date");
+                    int activeCustomers = rs.getInt("active_customers");
+                    
+                    if (activityDate != null) {
+                        java.time.LocalDate localDate = activityDate.toLocalDate();
+                        String dayLabel = dayNames[localDate.getDayOfWeek().getValue() - 1];
+                        weeklyActivity.put(dayLabel, activeCustomers);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -304,12 +640,13 @@ public class BillDAO {
     
     public int getActiveCustomersCount() {
         String sql = "SELECT COUNT(DISTINCT customer_id) FROM bills " +
-                    "WHERE MONTH(transaction_time) = MONTH(CURRENT_DATE) " +
-                    "AND YEAR(transaction_time) = YEAR(CURRENT_DATE)";
+                    "WHERE transaction_time >= ? AND transaction_time < ?";
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getInt(1) : 0;
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindCurrentMonth(ps, 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return 0;
@@ -317,18 +654,19 @@ public class BillDAO {
     }
     
     public int getNewCustomersThisMonth() {
-        // Count customers who made their first purchase this month
-        String sql = "SELECT COUNT(*) FROM ( " +
-                    "SELECT customer_id, MIN(transaction_time) as first_purchase " +
-                    "FROM bills " +
-                    "GROUP BY customer_id " +
-                    "HAVING MONTH(first_purchase) = MONTH(CURRENT_DATE) " +
-                    "AND YEAR(first_purchase) = YEAR(CURRENT_DATE) " +
-                    ") as new_customers";
+        // Count customers who made their first purchase this month: a bill this month and none before it.
+        // Only this month's bills are read; the anti-join is a probe on (customer_id, transaction_time).
+        String sql = "SELECT COUNT(DISTINCT b.customer_id) FROM bills b " +
+                    "WHERE b.transaction_time >= ? AND b.transaction_time < ? " +
+                    "AND NOT EXISTS (SELECT 1 FROM bills earlier " +
+                    "WHERE earlier.customer_id = b.customer_id AND earlier.transaction_time < ?)";
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            return rs.next() ? rs.getInt(1) : 0;
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindCurrentMonth(ps, 1);
+            ps.setTimestamp(3, Timestamp.valueOf(java.time.LocalDate.now().withDayOfMonth(1).atStartOfDay()));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return 0;
@@ -377,33 +715,33 @@ public class BillDAO {
         return soldByType;
     }
     
-    // Monthly sales tracking methods
+    // Monthly sales tracking methods (read from daily_sales_rollup)
     public java.util.Map<String, BigDecimal> getMonthlySales() {
         java.util.Map<String, BigDecimal> monthlySales = new java.util.LinkedHashMap<>();
         String sql = "SELECT " +
-                    "MONTH(transaction_time) as month, " +
-                    "SUM(total_amount) as monthly_revenue " +
-                    "FROM bills " +
-                    "WHERE YEAR(transaction_time) = YEAR(CURRENT_DATE) " +
-                    "GROUP BY MONTH(transaction_time) " +
-                    "ORDER BY MONTH(transaction_time)";
+                    "MONTH(sales_date) as month, " +
+                    "SUM(revenue) as monthly_revenue " +
+                    "FROM daily_sales_rollup " +
+                    "WHERE sales_date >= ? AND sales_date < ? " +
+                    "GROUP BY MONTH(sales_date) " +
+                    "ORDER BY MONTH(sales_date)";
         
         // Initialize all months with 0
-        String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", 
-                              "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        for (String month : monthNames) {
+        for (String month : MONTH_NAMES) {
             monthlySales.put(month, BigDecimal.ZERO);
         }
         
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            while (rs.next()) {
-                int month = rs.getInt("month");
-                BigDecimal revenue = rs.getBigDecimal("monthly_revenue");
-                if (month >= 1 && month <= 12 && revenue != null) {
-                    monthlySales.put(monthNames[month - 1], revenue);
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindCurrentYear(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int month = rs.getInt("month");
+                    BigDecimal revenue = rs.getBigDecimal("monthly_revenue");
+                    if (month >= 1 && month <= 12 && revenue != null) {
+                        monthlySales.put(MONTH_NAMES[month - 1], revenue);
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -414,26 +752,25 @@ public class BillDAO {
     
     public String getBestMonth() {
         String sql = "SELECT " +
-                    "MONTH(transaction_time) as month, " +
-                    "SUM(total_amount) as monthly_revenue " +
-                    "FROM bills " +
-                    "WHERE YEAR(transaction_time) = YEAR(CURRENT_DATE) " +
-                    "GROUP BY MONTH(transaction_time) " +
+                    "MONTH(sales_date) as month, " +
+                    "SUM(revenue) as monthly_revenue " +
+                    "FROM daily_sales_rollup " +
+                    "WHERE sales_date >= ? AND sales_date < ? " +
+                    "GROUP BY MONTH(sales_date) " +
                     "ORDER BY monthly_revenue DESC " +
                     "LIMIT 1";
         
-        String[] monthNames = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", 
-                              "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
-        
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            if (rs.next()) {
-                int month = rs.getInt("month");
-                BigDecimal revenue = rs.getBigDecimal("monthly_revenue");
-                if (month >= 1 && month <= 12 && revenue != null && revenue.compareTo(BigDecimal.ZERO) > 0) {
-                    return monthNames[month - 1] + " ($" + revenue + ")";
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            bindCurrentYear(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    int month = rs.getInt("month");
+                    BigDecimal revenue = rs.getBigDecimal("monthly_revenue");
+                    if (month >= 1 && month <= 12 && revenue != null && revenue.compareTo(BigDecimal.ZERO) > 0) {
+                        return MONTH_NAMES[month - 1] + " ($" + revenue + ")";
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -445,33 +782,32 @@ public class BillDAO {
     public java.util.Map<String, BigDecimal> getWeeklyRevenue() {
         java.util.Map<String, BigDecimal> weeklyRevenue = new java.util.LinkedHashMap<>();
         String sql = "SELECT " +
-                    "WEEK(transaction_time, 1) as week_number, " +
-                    "SUM(total_amount) as weekly_revenue " +
-                    "FROM bills " +
-                    "WHERE MONTH(transaction_time) = MONTH(CURRENT_DATE) " +
-                    "AND YEAR(transaction_time) = YEAR(CURRENT_DATE) " +
-                    "GROUP BY WEEK(transaction_time, 1) " +
-                    "ORDER BY WEEK(transaction_time, 1)";
+                    "WEEK(sales_date, 1) as week_number, " +
+                    "SUM(revenue) as weekly_revenue " +
+                    "FROM daily_sales_rollup " +
+                    "WHERE sales_date >= ? AND sales_date < ? " +
+                    "GROUP BY WEEK(sales_date, 1) " +
+                    "ORDER BY WEEK(sales_date, 1)";
         
         // Initialize weeks
         for (int i = 1; i <= 4; i++) {
             weeklyRevenue.put("Week " + i, BigDecimal.ZERO);
         }
         
+        java.time.LocalDate firstDayOfMonth = java.time.LocalDate.now().withDayOfMonth(1);
         try (Connection conn = connection_provider.getCon();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
-            
-            // Get current month's first week number for calculation
-            java.time.LocalDate firstDayOfMonth = java.time.LocalDate.now().withDayOfMonth(1);
-            java.sql.Date firstDay = java.sql.Date.valueOf(firstDayOfMonth);
-            
-            int weekCounter = 1;
-            while (rs.next()) {
-                BigDecimal revenue = rs.getBigDecimal("weekly_revenue");
-                if (revenue != null && weekCounter <= 4) {
-                    weeklyRevenue.put("Week " + weekCounter, revenue);
-                    weekCounter++;
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setDate(1, java.sql.Date.valueOf(firstDayOfMonth));
+            ps.setDate(2, java.sql.Date.valueOf(firstDayOfMonth.plusMonths(1)));
+            try (ResultSet rs = ps.executeQuery()) {
+                int weekCounter = 1;
+                while (rs.next()) {
+                    BigDecimal revenue = rs.getBigDecimal("weekly_revenue");
+                    if (revenue != null && weekCounter <= 4) {
+                        weeklyRevenue.put("Week " + weekCounter, revenue);
+                        weekCounter++;
+                    }
                 }
             }
         } catch (SQLException e) {
@@ -480,4 +816,18 @@ public class BillDAO {
         return weeklyRevenue;
     }
 
+    // Binds [first of this month, first of next month) as timestamps starting at parameter index
+    private static void bindCurrentMonth(PreparedStatement ps, int index) throws SQLException {
+        java.time.LocalDate startOfMonth = java.time.LocalDate.now().withDayOfMonth(1);
+        ps.setTimestamp(index, Timestamp.valueOf(startOfMonth.atStartOfDay()));
+        ps.setTimestamp(index + 1, Timestamp.valueOf(startOfMonth.plusMonths(1).atStartOfDay()));
+    }
+
+    // Binds [1 Jan this year, 1 Jan next year) to the first two parameters
+    private static void bindCurrentYear(PreparedStatement ps) throws SQLException {
+        java.time.LocalDate startOfYear = java.time.LocalDate.now().withDayOfYear(1);
+        ps.setDate(1, java.sql.Date.valueOf(startOfYear));
+        ps.setDate(2, java.sql.Date.valueOf(startOfYear.plusYears(1)));
+    }
+
 }
@@ -0,0 +1,159 @@
+package dao.cache;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded in-process cache in front of a DAO. Entries expire after a fixed
+ * time-to-live and the least recently used entry is dropped once maxSize is
+ * reached. DAOs invalidate on every write; a value loaded while an
+ * invalidation was happening is returned but not cached, so a slow read can
+ * never put back data that a concurrent write has just replaced.
+ */
+public class ReadThroughCache<K, V> {
+
+    public interface Loader<K, V> {
+        V load(K key) throws SQLException;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    // Bumped by every invalidation; loads that started before the bump are not cached
+    private long version;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReadThroughCache(String name, int maxSize, long ttlMillis) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() <= ReadThroughCache.this.maxSize) return false;
+                evictions.incrementAndGet();
+                return true;
+            }
+        };
+    }
+
+    // Cached value, or the loader's result (cached unless null or invalidated meanwhile)
+    public V get(K key, Loader<K, V> loader) throws SQLException {
+        long loadVersion;
+        synchronized (this) {
+            V cached = getIfPresent(key);
+            if (cached != null) return cached;
+            loadVersion = version;
+        }
+        V loaded = loader.load(key);
+        if (loaded != null) {
+            put(key, loaded, loadVersion);
+        }
+        return loaded;
+    }
+
+    // Counts a hit or a miss; expired entries are removed and count as misses
+    public synchronized V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    // Take before reading from the database, pass to put() afterwards
+    public synchronized long version() {
+        return version;
+    }
+
+    public synchronized void put(K key, V value, long loadVersion) {
+        if (maxSize <= 0 || loadVersion != version) return;
+        entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void invalidate(K key) {
+        version++;
+        if (entries.remove(key) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, entries.size(), maxSize, hits.get(), misses.get(),
+                evictions.get(), expirations.get(), invalidations.get());
+    }
+
+    public static final class Stats {
+        private final String name;
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final long invalidations;
+
+        Stats(String name, int size, int maxSize, long hits, long misses,
+              long evictions, long expirations, long invalidations) {
+            this.name = name;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.invalidations = invalidations;
+        }
+
+        public String getName() { return name; }
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public long getInvalidations() { return invalidations; }
+
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s cache: size=%d/%d, hits=%d, misses=%d (hit ratio %.1f%%), evictions=%d, expirations=%d, invalidations=%d",
+                    name, size, maxSize, hits, misses, getHitRatio() * 100, evictions, expirations, invalidations);
+        }
+    }
+}
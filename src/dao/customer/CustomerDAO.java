@@ -2,8 +2,12 @@ package dao.customer;
 
 import model.user.Customer;
 
+import dao.page.Page;
+import dao.page.PageCursor;
 import database.connection_provider;
 
+import java.math.BigDecimal;
+
 import java.sql.Statement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -68,6 +72,25 @@ public class CustomerDAO {
         return customers;
     }
 
+    // Newest first, assuming higher ids are more recent; walks the primary key backwards
+    public List<Customer> getRecentCustomers(int limit) throws SQLException {
+        List<Customer> customers = new ArrayList<>();
+        String sql = "SELECT * FROM " + TABLE + " ORDER BY id DESC LIMIT ?";
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    customers.add(mapResultSetToCustomer(rs));
+                }
+            }
+        }
+
+        return customers;
+    }
+
     public Optional<Customer> getCustomerById(int id) throws SQLException {
         if (id <= 0) return Optional.empty();
 
@@ -104,6 +127,89 @@ public class CustomerDAO {
         return customers;
     }
 
+    // Keyset pagination on id, or on (loyalty_points, id) when a loyalty order is given
+    public Page<Customer> getPage(String loyaltyOrder, PageCursor after, int pageSize) throws SQLException {
+        return getPage(loyaltyOrder, after, 0, pageSize);
+    }
+
+    // offset is only used when there is no cursor, to jump straight to a row far down the list
+    public Page<Customer> getPage(String loyaltyOrder, PageCursor after, int offset, int pageSize) throws SQLException {
+        boolean useOffset = after == null && offset > 0;
+        boolean byLoyalty = loyaltyOrder != null;
+        boolean desc = "DESC".equalsIgnoreCase(loyaltyOrder);
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM " + TABLE);
+        if (after != null) {
+            if (byLoyalty) {
+                sql.append(desc ? " WHERE (loyalty_points < ? OR (loyalty_points = ? AND id < ?))"
+                                : " WHERE (loyalty_points > ? OR (loyalty_points = ? AND id > ?))");
+            } else {
+                sql.append(" WHERE id > ?");
+            }
+        }
+        if (byLoyalty) {
+            sql.append(desc ? " ORDER BY loyalty_points DESC, id DESC" : " ORDER BY loyalty_points ASC, id ASC");
+        } else {
+            sql.append(" ORDER BY id");
+        }
+        sql.append(useOffset ? " LIMIT ? OFFSET ?" : " LIMIT ?");
+
+        List<Customer> rows = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int paramIndex = 1;
+            if (after != null) {
+                if (byLoyalty) {
+                    int points = after.getSortValue().intValue();
+                    ps.setInt(paramIndex++, points);
+                    ps.setInt(paramIndex++, points);
+                }
+                ps.setInt(paramIndex++, after.getLastId());
+            }
+            ps.setInt(paramIndex++, pageSize + 1);
+            if (useOffset) {
+                ps.setInt(paramIndex, offset);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapResultSetToCustomer(rs));
+                }
+            }
+        }
+        return Page.fromLookahead(rows, pageSize, c -> byLoyalty
+                ? PageCursor.after(BigDecimal.valueOf(c.getLoyaltyPoints()), c.getId())
+                : PageCursor.afterId(c.getId()));
+    }
+
+    public int count() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM " + TABLE;
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // Probes idx_customers_phone; ids start at 1, so excludedId 0 checks every customer
+    public boolean existsByPhoneExcludingId(String phone, int excludedId) throws SQLException {
+        String sql = "SELECT 1 FROM " + TABLE + " WHERE phone = ? AND id <> ? LIMIT 1";
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(1, phone);
+            ps.setInt(2, excludedId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
     public boolean updateCustomer(Customer customer) throws SQLException {
         if (customer.getId() <= 0) return false;
 
@@ -0,0 +1,96 @@
+package dao.dashboard;
+
+import database.connection_provider;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Every number shown on the HomePanel stat cards, computed by the database
+ * in a single round trip instead of loading whole tables and counting rows.
+ */
+public class DashboardStatsDAO {
+    // Each derived table returns exactly one row, so the cross joins yield one row in total
+    private static final String STATS_SQL =
+        "SELECT p.total_products, p.low_stock, p.food_count, p.toy_count, p.medicine_count, " +
+        "pt.total_pets, c.total_customers, s.total_staff, b.total_orders, b.total_revenue " +
+        "FROM (SELECT COUNT(*) AS total_products, " +
+        "             COALESCE(SUM(stock_quantity <= ?), 0) AS low_stock, " +
+        "             COALESCE(SUM(type = 'FOOD'), 0) AS food_count, " +
+        "             COALESCE(SUM(type = 'TOY'), 0) AS toy_count, " +
+        "             COALESCE(SUM(type = 'MEDICINE'), 0) AS medicine_count " +
+        "      FROM products WHERE status = 1) p " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_pets FROM pets WHERE status = 1) pt " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_customers FROM customers) c " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_staff FROM staff WHERE role = 'STAFF') s " +
+        "CROSS JOIN (SELECT COUNT(*) AS total_orders, COALESCE(SUM(total_amount), 0) AS total_revenue FROM bills) b";
+
+    public static final int DEFAULT_LOW_STOCK_THRESHOLD = 5;
+
+    public static final class Stats {
+        private final int totalProducts;
+        private final int lowStockProducts;
+        private final int foodCount;
+        private final int toyCount;
+        private final int medicineCount;
+        private final int totalPets;
+        private final int totalCustomers;
+        private final int totalStaff;
+        private final int totalOrders;
+        private final BigDecimal totalRevenue;
+
+        private Stats(ResultSet rs) throws SQLException {
+            this.totalProducts = rs.getInt("total_products");
+            this.lowStockProducts = rs.getInt("low_stock");
+            this.foodCount = rs.getInt("food_count");
+            this.toyCount = rs.getInt("toy_count");
+            this.medicineCount = rs.getInt("medicine_count");
+            this.totalPets = rs.getInt("total_pets");
+            this.totalCustomers = rs.getInt("total_customers");
+            this.totalStaff = rs.getInt("total_staff");
+            this.totalOrders = rs.getInt("total_orders");
+            BigDecimal revenue = rs.getBigDecimal("total_revenue");
+            this.totalRevenue = revenue != null ? revenue : BigDecimal.ZERO;
+        }
+
+        public int getTotalProducts() { return totalProducts; }
+        public int getLowStockProducts() { return lowStockProducts; }
+        public int getFoodCount() { return foodCount; }
+        public int getToyCount() { return toyCount; }
+        public int getMedicineCount() { return medicineCount; }
+        public int getTotalPets() { return totalPets; }
+        public int getTotalCustomers() { return totalCustomers; }
+        public int getTotalStaff() { return totalStaff; }
+        public int getTotalOrders() { return totalOrders; }
+        public BigDecimal getTotalRevenue() { return totalRevenue; }
+
+        public BigDecimal getAverageOrderValue() {
+            if (totalOrders == 0) return BigDecimal.ZERO;
+            return totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, RoundingMode.HALF_UP);
+        }
+    }
+
+    public Stats getStats() throws SQLException {
+        return getStats(DEFAULT_LOW_STOCK_THRESHOLD);
+    }
+
+    // Products with stock_quantity <= lowStockThreshold count as low stock
+    public Stats getStats(int lowStockThreshold) throws SQLException {
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(STATS_SQL)) {
+
+            ps.setInt(1, lowStockThreshold);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Dashboard stats query returned no row");
+                }
+                return new Stats(rs);
+            }
+        }
+    }
+}
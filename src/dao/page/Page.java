@@ -0,0 +1,41 @@
+package dao.page;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+public final class Page<T> {
+    private final List<T> items;
+    private final PageCursor nextCursor;
+
+    public Page(List<T> items, PageCursor nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public static <T> Page<T> empty() {
+        return new Page<>(List.of(), null);
+    }
+
+    // DAOs fetch pageSize + 1 rows; the extra row only tells us whether another page exists
+    public static <T> Page<T> fromLookahead(List<T> rows, int pageSize, Function<T, PageCursor> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new Page<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    // Cursor to pass for the following page, null on the last page
+    public PageCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,39 @@
+package dao.page;
+
+import java.math.BigDecimal;
+
+/**
+ * Keyset position of the last row of a page: the value of the sort column
+ * (null when the listing is ordered by id only) plus the row id as tie-breaker.
+ * Pass null instead of a cursor to fetch the first page.
+ */
+public final class PageCursor {
+    private final BigDecimal sortValue;
+    private final int lastId;
+
+    private PageCursor(BigDecimal sortValue, int lastId) {
+        this.sortValue = sortValue;
+        this.lastId = lastId;
+    }
+
+    public static PageCursor afterId(int lastId) {
+        return new PageCursor(null, lastId);
+    }
+
+    public static PageCursor after(BigDecimal sortValue, int lastId) {
+        return new PageCursor(sortValue, lastId);
+    }
+
+    public BigDecimal getSortValue() {
+        return sortValue;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+
+    @Override
+    public String toString() {
+        return "PageCursor{sortValue=" + sortValue + ", lastId=" + lastId + "}";
+    }
+}
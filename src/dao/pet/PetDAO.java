@@ -4,25 +4,52 @@ import model.pet.Pet;
 import model.pet.Dog;
 import model.pet.Cat;
 
+import dao.cache.ReadThroughCache;
+import dao.page.Page;
+import dao.page.PageCursor;
 import database.connection_provider;
+import database.DatabaseConfig;
+import database.SqlUtil;
 
 import java.sql.Statement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class PetDAO {
     private static final String TABLE = "pets";
+
+    // Shared by every PetDAO instance; every write below invalidates what it touched
+    private static final ReadThroughCache<Integer, Pet> BY_ID = new ReadThroughCache<>(
+            "pets", DatabaseConfig.ENTITY_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
+    private static final ReadThroughCache<String, List<Pet>> LISTS = new ReadThroughCache<>(
+            "pet lists", DatabaseConfig.LIST_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
     
-    //CREATE FROM RESULT SET
+    // Every column a Pet is built from, in the order the mapper reads them
+    private static final String COLUMNS = "id, name, type, breed, age, price";
+    private static final int ID = 1;
+    private static final int NAME = 2;
+    private static final int TYPE = 3;
+    private static final int BREED = 4;
+    private static final int AGE = 5;
+    private static final int PRICE = 6;
+
+    //CREATE FROM RESULT SET - rows of COLUMNS, read by position
     private static Pet createPetFromResultSet(ResultSet rs) throws SQLException 
     {
-        String type = rs.getString("type");
+        String type = rs.getString(TYPE);
         
         Pet pet;
 
@@ -30,21 +57,21 @@ public class PetDAO {
         {
             case "DOG" -> pet = new Dog
             (
-                rs.getString("name"),
-                rs.getString("breed"),
-                rs.getInt("age"),
-                rs.getBigDecimal("price")
+                rs.getString(NAME),
+                rs.getString(BREED),
+                rs.getInt(AGE),
+                rs.getBigDecimal(PRICE)
             );
             case "CAT" -> pet = new Cat
             (
-                rs.getString("name"),
-                rs.getString("breed"),
-                rs.getInt("age"),
-                rs.getBigDecimal("price")
+                rs.getString(NAME),
+                rs.getString(BREED),
+                rs.getInt(AGE),
+                rs.getBigDecimal(PRICE)
             );          
             default -> throw new SQLException("Unknown pet type");
         }
-        pet.setId(rs.getInt("id"));
+        pet.setId(rs.getInt(ID));
         
         return pet;
     }
@@ -59,11 +86,7 @@ public class PetDAO {
             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS))
         {
 
-            ps.setString(1, pet.getName());
-            ps.setString(2, type.toUpperCase());
-            ps.setString(3, pet.getBreed());
-            ps.setInt(4, pet.getAge());
-            ps.setBigDecimal(5, pet.getPrice());
+            bindPet(ps, 1, pet, type);
             
             ps.executeUpdate();
 
@@ -74,14 +97,88 @@ public class PetDAO {
 
             return pet;
         }
+        finally
+        {
+            LISTS.invalidateAll();
+        }
     }
     
+    // Binds name, type, breed, age and price, in that order, starting at parameter index
+    private static void bindPet(PreparedStatement ps, int index, Pet pet, String type) throws SQLException
+    {
+        ps.setString(index, pet.getName());
+        ps.setString(index + 1, type.toUpperCase());
+        ps.setString(index + 2, pet.getBreed());
+        ps.setInt(index + 3, pet.getAge());
+        ps.setBigDecimal(index + 4, pet.getPrice());
+    }
+
+    // UPSERT - bulk import; pets without an id are inserted, the rest overwrite the row with their id.
+    // status is left alone so a sold pet never goes back on sale; callers refuse those rows (retiredIds).
+    public static final int UPSERT_CHUNK_SIZE = 500;
+
+    private static final String UPSERT_PREFIX = "INSERT INTO " + TABLE + " (id, name, type, breed, age, price) VALUES ";
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE name = VALUES(name), type = VALUES(type), " +
+            "breed = VALUES(breed), age = VALUES(age), price = VALUES(price)";
+
+    // One multi-row statement per UPSERT_CHUNK_SIZE pets, on the caller's connection and transaction.
+    // The caller invalidates the caches once the transaction has committed.
+    public static void upsertAll(Connection conn, List<Pet> pets) throws SQLException
+    {
+        for (int from = 0; from < pets.size(); from += UPSERT_CHUNK_SIZE)
+        {
+            List<Pet> chunk = pets.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, pets.size()));
+            String sql = UPSERT_PREFIX + SqlUtil.rowPlaceholders(6, chunk.size()) + UPSERT_SUFFIX;
+
+            try (PreparedStatement ps = conn.prepareStatement(sql))
+            {
+                int paramIndex = 1;
+                for (Pet pet : chunk)
+                {
+                    if (pet.getId() > 0) ps.setInt(paramIndex, pet.getId());
+                    else ps.setNull(paramIndex, Types.INTEGER);   // NULL id: MySQL assigns the next auto-increment value
+
+                    bindPet(ps, paramIndex + 1, pet, pet.getClass().getSimpleName());
+                    paramIndex += 6;
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    // Ids among the given ones whose pet was sold or deleted (status 0)
+    public static Set<Integer> retiredIds(Connection conn, Collection<Integer> petIds) throws SQLException
+    {
+        Set<Integer> retired = new HashSet<>();
+        if (petIds.isEmpty()) return retired;
+
+        String sql = "SELECT id FROM " + TABLE +
+                     " WHERE status = 0 AND id IN (" + SqlUtil.placeholders(petIds.size()) + ")";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            int paramIndex = 1;
+            for (int id : petIds) ps.setInt(paramIndex++, id);
+
+            try (ResultSet rs = ps.executeQuery())
+            {
+                while (rs.next()) retired.add(rs.getInt("id"));
+            }
+        }
+        return retired;
+    }
+
     // SELECT ALL
     public List<Pet> getAllPets() throws SQLException 
+    {
+        return cachedList("all", key -> queryAll());
+    }
+
+    private static List<Pet> queryAll() throws SQLException 
     {
         List<Pet> pets = new ArrayList<>();
         
-        String sql = "SELECT * FROM " + TABLE + " WHERE status = 1";
+        String sql = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE status = 1";
 
         try (Connection conn = connection_provider.getCon();
                 
@@ -98,10 +195,38 @@ public class PetDAO {
         return pets;
     }
     
+    // Newest pets for sale first, assuming higher ids are more recent
+    public List<Pet> getRecentPets(int limit) throws SQLException
+    {
+        List<Pet> pets = new ArrayList<>();
+
+        String sql = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE status = 1 ORDER BY id DESC LIMIT ?";
+
+        try (Connection conn = connection_provider.getCon();
+            PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery())
+            {
+                while (rs.next())
+                {
+                    pets.add(createPetFromResultSet(rs));
+                }
+            }
+        }
+
+        return pets;
+    }
+
     // SELECT BY ID
     public Pet getById(int id) throws SQLException 
     {
-        String sql = "SELECT * FROM " + TABLE + " WHERE id = ? AND status = 1";
+        return BY_ID.get(id, PetDAO::queryById);
+    }
+
+    private static Pet queryById(int id) throws SQLException 
+    {
+        String sql = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE id = ? AND status = 1";
 
         try (Connection conn = connection_provider.getCon();
                 
@@ -116,12 +241,60 @@ public class PetDAO {
         return null;
     }
     
+    // SELECT BY IDS - cached pets first, then one IN (...) query per chunk of the rest, keyed by id
+    public Map<Integer, Pet> getByIds(Collection<Integer> ids) throws SQLException 
+    {
+        Map<Integer, Pet> pets = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) return pets;
+
+        long version = BY_ID.version();
+        List<Integer> distinctIds = new ArrayList<>();
+        for (int id : new LinkedHashSet<>(ids)) 
+        {
+            Pet cached = BY_ID.getIfPresent(id);
+            if (cached != null) pets.put(id, cached);
+            else distinctIds.add(id);
+        }
+        if (distinctIds.isEmpty()) return pets;
+
+        try (Connection conn = connection_provider.getCon()) 
+        {
+            for (int from = 0; from < distinctIds.size(); from += SqlUtil.IN_CHUNK_SIZE) 
+            {
+                List<Integer> chunk = distinctIds.subList(from, Math.min(from + SqlUtil.IN_CHUNK_SIZE, distinctIds.size()));
+                int slots = SqlUtil.bucketSize(chunk.size());
+                String sql = "SELECT " + COLUMNS + " FROM " + TABLE + " WHERE status = 1 AND id IN (" + SqlUtil.placeholders(slots) + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql)) 
+                {
+                    SqlUtil.bindPadded(ps, 1, chunk, slots);
+
+                    try (ResultSet rs = ps.executeQuery()) 
+                    {
+                        while (rs.next()) 
+                        {
+                            Pet pet = createPetFromResultSet(rs);
+                            pets.put(pet.getId(), pet);
+                            BY_ID.put(pet.getId(), pet, version);
+                        }
+                    }
+                }
+            }
+        }
+        return pets;
+    }
+    
     //SELECT BY CONDITION
     public List<Pet> getByCondition(String type, String priceOrder) throws SQLException
+    {
+        return cachedList(type + "|" + priceOrder, key -> queryByCondition(type, priceOrder));
+    }
+
+    private static List<Pet> queryByCondition(String type, String priceOrder) throws SQLException
     {
         List<Pet> pets = new ArrayList<>();
         
-        StringBuilder sql = new StringBuilder("SELECT * FROM " + TABLE + " WHERE 1=1 AND status = 1");
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE 1=1 AND status = 1");
 
         if (type != null) sql.append(" AND type = ?");
         
@@ -143,6 +316,85 @@ public class PetDAO {
         return pets;
     }
     
+    //SELECT PAGE - keyset pagination on id, or on (price, id) when a price order is given
+    public Page<Pet> getPage(String type, String priceOrder, PageCursor after, int pageSize) throws SQLException
+    {
+        return getPage(type, priceOrder, after, 0, pageSize);
+    }
+
+    // offset is only used when there is no cursor, to jump straight to a row far down the list
+    public Page<Pet> getPage(String type, String priceOrder, PageCursor after, int offset, int pageSize) throws SQLException
+    {
+        boolean useOffset = after == null && offset > 0;
+
+        boolean byPrice = priceOrder != null;
+        boolean desc = "DESC".equalsIgnoreCase(priceOrder);
+
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE status = 1");
+
+        if (type != null) sql.append(" AND type = ?");
+
+        if (after != null)
+        {
+            if (byPrice) sql.append(desc ? " AND (price < ? OR (price = ? AND id < ?))"
+                                         : " AND (price > ? OR (price = ? AND id > ?))");
+            else sql.append(" AND id > ?");
+        }
+
+        if (byPrice) sql.append(desc ? " ORDER BY price DESC, id DESC" : " ORDER BY price ASC, id ASC");
+        else sql.append(" ORDER BY id");
+
+        sql.append(useOffset ? " LIMIT ? OFFSET ?" : " LIMIT ?");
+
+        List<Pet> rows = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = connection_provider.getCon();
+                
+            PreparedStatement ps = conn.prepareStatement(sql.toString())) 
+        {
+            int paramIndex = 1;
+
+            if (type != null) ps.setString(paramIndex++, type.toUpperCase());
+
+            if (after != null)
+            {
+                if (byPrice)
+                {
+                    ps.setBigDecimal(paramIndex++, after.getSortValue());
+                    ps.setBigDecimal(paramIndex++, after.getSortValue());
+                }
+                ps.setInt(paramIndex++, after.getLastId());
+            }
+            ps.setInt(paramIndex++, pageSize + 1);
+            if (useOffset) ps.setInt(paramIndex, offset);
+
+            try (ResultSet rs = ps.executeQuery()) 
+            {
+                while (rs.next()) rows.add(createPetFromResultSet(rs));
+            }
+        }
+        return Page.fromLookahead(rows, pageSize, p -> byPrice
+                ? PageCursor.after(p.getPrice(), p.getId())
+                : PageCursor.afterId(p.getId()));
+    }
+    
+    //COUNT
+    public int count(String type) throws SQLException
+    {
+        String sql = "SELECT COUNT(*) FROM " + TABLE + " WHERE status = 1" + (type != null ? " AND type = ?" : "");
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql)) 
+        {
+            if (type != null) ps.setString(1, type.toUpperCase());
+
+            try (ResultSet rs = ps.executeQuery())
+            {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
     //UPDATE
     public boolean updatePet(Pet pet) throws SQLException 
     {
@@ -161,6 +413,11 @@ public class PetDAO {
 
             return ps.executeUpdate() > 0;
         }
+        finally
+        {
+            // Also on failure: the caller may already have modified the cached instance
+            invalidate(pet.getId());
+        }
     }
         
     //DELETE
@@ -174,6 +431,89 @@ public class PetDAO {
             ps.setInt(1, id);
             return ps.executeUpdate() > 0;
         }
+        finally
+        {
+            invalidate(id);
+        }
+    }
+
+    // TRANSACTION HELPERS - the caller owns the connection and commits or rolls back,
+    // then calls invalidate() for the pets it changed
+
+    // Lock the given pets until the transaction ends and return the ids that are still for sale
+    public static Set<Integer> lockAvailable(Connection conn, Collection<Integer> petIds) throws SQLException
+    {
+        Set<Integer> available = new HashSet<>();
+        if (petIds.isEmpty()) return available;
+
+        String sql = "SELECT id FROM " + TABLE +
+                     " WHERE status = 1 AND id IN (" + SqlUtil.placeholders(petIds.size()) + ") FOR UPDATE";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            int paramIndex = 1;
+            for (int id : petIds) ps.setInt(paramIndex++, id);
+
+            try (ResultSet rs = ps.executeQuery())
+            {
+                while (rs.next()) available.add(rs.getInt("id"));
+            }
+        }
+        return available;
+    }
+
+    // Mark sold pets as unavailable in a single statement
+    public static void retirePets(Connection conn, Collection<Integer> petIds) throws SQLException
+    {
+        if (petIds.isEmpty()) return;
+
+        String sql = "UPDATE " + TABLE + " SET status = 0" +
+                     " WHERE status = 1 AND id IN (" + SqlUtil.placeholders(petIds.size()) + ")";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            int paramIndex = 1;
+            for (int id : petIds) ps.setInt(paramIndex++, id);
+
+            if (ps.executeUpdate() != petIds.size())
+            {
+                throw new SQLException("Some pets were already sold: " + petIds);
+            }
+        }
+    }
+
+    // CACHE
+
+    // Drop cached copies of the given pets (and every cached list), e.g. after a checkout commits
+    public static void invalidate(Collection<Integer> petIds)
+    {
+        petIds.forEach(BY_ID::invalidate);
+        LISTS.invalidateAll();
+    }
+
+    private static void invalidate(int petId)
+    {
+        BY_ID.invalidate(petId);
+        LISTS.invalidateAll();
+    }
+
+    public static List<ReadThroughCache.Stats> getCacheStats()
+    {
+        return List.of(BY_ID.getStats(), LISTS.getStats());
+    }
+
+    // Cached list query; the pets it returns also warm the by-id cache.
+    // Callers get their own copy of the list, the pet objects are shared.
+    private static List<Pet> cachedList(String key, ReadThroughCache.Loader<String, List<Pet>> query) throws SQLException
+    {
+        List<Pet> pets = LISTS.get(key, k ->
+        {
+            long version = BY_ID.version();
+            List<Pet> loaded = query.load(k);
+            for (Pet pet : loaded) BY_ID.put(pet.getId(), pet, version);
+            return List.copyOf(loaded);
+        });
+        return new ArrayList<>(pets);
     }
 
     // Get pet distribution for charts
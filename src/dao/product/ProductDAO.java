@@ -4,7 +4,12 @@ import model.product.Toy;
 import model.product.Medicine;
 import model.product.Product;
 import model.product.Food;
+import dao.cache.ReadThroughCache;
+import dao.page.Page;
+import dao.page.PageCursor;
 import database.connection_provider;
+import database.DatabaseConfig;
+import database.SqlUtil;
 
 import java.sql.Statement;
 import java.sql.Connection;
@@ -15,59 +20,116 @@ import java.sql.Date;
 import java.sql.SQLException;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 public class ProductDAO {
     private static final String TABLE = "products";
 
-    private static Product createProductFromResultSet(ResultSet rs) throws SQLException
+    // Shared by every ProductDAO instance; every write below invalidates what it touched
+    private static final ReadThroughCache<Integer, Product> BY_ID = new ReadThroughCache<>(
+            "products", DatabaseConfig.ENTITY_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
+    private static final ReadThroughCache<String, List<Product>> LISTS = new ReadThroughCache<>(
+            "product lists", DatabaseConfig.LIST_CACHE_SIZE, DatabaseConfig.ENTITY_CACHE_TTL_MS);
+
+    // Column lists per use. Listings never show nutritional_info, so only lookups by id read that TEXT column
+    private static final String LIST_COLUMNS =
+            "id, name, price, stock_quantity, type, material, expiration_date, manufacture_date, dosage";
+    private static final String DETAIL_COLUMNS = LIST_COLUMNS + ", nutritional_info";
+
+    // One mapper per projection; package-private so the benchmarks in benchmark/dao/product can measure them
+    static final RowMapper LIST_MAPPER = new RowMapper(false);
+    static final RowMapper DETAIL_MAPPER = new RowMapper(true);
+
+    /**
+     * Builds products from rows of LIST_COLUMNS or DETAIL_COLUMNS. Columns are
+     * read by their position in the projection, so a row is decoded without
+     * any column lookups by name.
+     */
+    static final class RowMapper
     {
-        String type = rs.getString("type");
-        Product product;
-        
-        switch (type.toUpperCase()) 
+        private static final int ID = 1;
+        private static final int NAME = 2;
+        private static final int PRICE = 3;
+        private static final int STOCK_QUANTITY = 4;
+        private static final int TYPE = 5;
+        private static final int MATERIAL = 6;
+        private static final int EXPIRATION_DATE = 7;
+        private static final int MANUFACTURE_DATE = 8;
+        private static final int DOSAGE = 9;
+        private static final int NUTRITIONAL_INFO = 10;   // DETAIL_COLUMNS only
+
+        private final boolean detail;
+
+        private RowMapper(boolean detail)
         {
-            case "TOY":
-                product = new Toy
-                (
-                    rs.getString("name"),
-                    rs.getBigDecimal("price"),
-                    rs.getInt("stock_quantity"),
-                    rs.getString("material")
-                );
-                break;
-                
-            case "FOOD":
-                product = new Food
-                (
-                    rs.getString("name"),
-                    rs.getBigDecimal("price"),
-                    rs.getInt("stock_quantity"),
-                    rs.getDate("expiration_date").toLocalDate(),
-                    rs.getString("nutritional_info")
-                );
-                break;
-                
-            case "MEDICINE":
-                product = new Medicine 
-                (
-                    rs.getString("name"),
-                    rs.getBigDecimal("price"),
-                    rs.getInt("stock_quantity"),
-                    rs.getString("dosage"),
-                    rs.getDate("manufacture_date").toLocalDate(),
-                    rs.getDate("expiration_date").toLocalDate()
-                );
-                
-                break;
-                
-            default:
-                
-                throw new SQLException("Unknown product type: " + type);
+            this.detail = detail;
+        }
+
+        Product map(ResultSet rs) throws SQLException
+        {
+            String type = rs.getString(TYPE);
+            Product product;
+
+            switch (type.toUpperCase())
+            {
+                case "TOY":
+                    product = new Toy
+                    (
+                        rs.getString(NAME),
+                        rs.getBigDecimal(PRICE),
+                        rs.getInt(STOCK_QUANTITY),
+                        rs.getString(MATERIAL)
+                    );
+                    break;
+
+                case "FOOD":
+                    if (detail)
+                    {
+                        product = new Food
+                        (
+                            rs.getString(NAME),
+                            rs.getBigDecimal(PRICE),
+                            rs.getInt(STOCK_QUANTITY),
+                            rs.getDate(EXPIRATION_DATE).toLocalDate(),
+                            rs.getString(NUTRITIONAL_INFO)
+                        );
+                    }
+                    else
+                    {
+                        product = Food.forListing
+                        (
+                            rs.getString(NAME),
+                            rs.getBigDecimal(PRICE),
+                            rs.getInt(STOCK_QUANTITY),
+                            rs.getDate(EXPIRATION_DATE).toLocalDate()
+                        );
+                    }
+                    break;
+
+                case "MEDICINE":
+                    product = new Medicine
+                    (
+                        rs.getString(NAME),
+                        rs.getBigDecimal(PRICE),
+                        rs.getInt(STOCK_QUANTITY),
+                        rs.getString(DOSAGE),
+                        rs.getDate(MANUFACTURE_DATE).toLocalDate(),
+                        rs.getDate(EXPIRATION_DATE).toLocalDate()
+                    );
+                    break;
+
+                default:
+                    throw new SQLException("Unknown product type: " + type);
+            }
+            product.setId(rs.getInt(ID)); // Set ID after object created
+
+            return product;
         }
-        product.setId(rs.getInt("id")); // Set ID after object created
-        
-        return product;
     }
     
     // CRUD operations
@@ -82,40 +144,7 @@ public class ProductDAO {
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) 
         {
             
-            ps.setString(1, product.getName());
-            ps.setBigDecimal(2, product.getPrice());
-            ps.setInt(3, product.getStockQuantity());
-            ps.setString(4, product.getClass().getSimpleName().toUpperCase());
-            
-            // Set type-specific parameters
-            if (product instanceof Toy toy)
-            {
-                ps.setString(5, toy.getMaterial());
-                ps.setNull(6, Types.DATE);
-                ps.setNull(7, Types.VARCHAR);
-                ps.setNull(8, Types.DATE);
-                ps.setNull(9, Types.VARCHAR);
-            } 
-            else if (product instanceof Food food) 
-            {
-                ps.setNull(5, Types.VARCHAR);
-                ps.setDate(6, Date.valueOf(food.getExpirationDate()));
-                ps.setString(7, food.getNutritionalInfo());
-                ps.setNull(8, Types.DATE);
-                ps.setNull(9, Types.VARCHAR);
-            } 
-            else if (product instanceof Medicine med) 
-            {
-                ps.setNull(5, Types.VARCHAR);
-                ps.setDate(6, Date.valueOf(med.getExpirationDate()));
-                ps.setNull(7, Types.VARCHAR);
-                ps.setDate(8, Date.valueOf(med.getManufactureDate()));
-                ps.setString(9, med.getDosage());
-            } 
-            else 
-            {
-                throw new SQLException("Unknown product type");
-            }
+            bindProduct(ps, 1, product);
             ps.executeUpdate();
             
             try (ResultSet rs = ps.getGeneratedKeys()) 
@@ -127,14 +156,106 @@ public class ProductDAO {
             }
             return product;
         }
+        finally
+        {
+            LISTS.invalidateAll();
+        }
+    }
+
+    // Binds name, price, stock_quantity, type, material, expiration_date, nutritional_info,
+    // manufacture_date and dosage, in that order, starting at parameter index
+    private static void bindProduct(PreparedStatement ps, int index, Product product) throws SQLException
+    {
+        ps.setString(index, product.getName());
+        ps.setBigDecimal(index + 1, product.getPrice());
+        ps.setInt(index + 2, product.getStockQuantity());
+        ps.setString(index + 3, product.getClass().getSimpleName().toUpperCase());
+
+        // Set type-specific parameters
+        if (product instanceof Toy toy)
+        {
+            ps.setString(index + 4, toy.getMaterial());
+            ps.setNull(index + 5, Types.DATE);
+            ps.setNull(index + 6, Types.VARCHAR);
+            ps.setNull(index + 7, Types.DATE);
+            ps.setNull(index + 8, Types.VARCHAR);
+        }
+        else if (product instanceof Food food)
+        {
+            ps.setNull(index + 4, Types.VARCHAR);
+            ps.setDate(index + 5, Date.valueOf(food.getExpirationDate()));
+            ps.setString(index + 6, food.getNutritionalInfo());
+            ps.setNull(index + 7, Types.DATE);
+            ps.setNull(index + 8, Types.VARCHAR);
+        }
+        else if (product instanceof Medicine med)
+        {
+            ps.setNull(index + 4, Types.VARCHAR);
+            ps.setDate(index + 5, Date.valueOf(med.getExpirationDate()));
+            ps.setNull(index + 6, Types.VARCHAR);
+            ps.setDate(index + 7, Date.valueOf(med.getManufactureDate()));
+            ps.setString(index + 8, med.getDosage());
+        }
+        else
+        {
+            throw new SQLException("Unknown product type");
+        }
+    }
+
+    //UPSERT - bulk import; products without an id are inserted, the rest overwrite the row with their id.
+    // An existing row keeps its stock_quantity (only sales and stock adjustments change it) and, as in
+    // updateProduct, is back on sale (status 1) when it has stock, even if it had been deleted.
+    public static final int UPSERT_CHUNK_SIZE = 500;
+
+    private static final String UPSERT_PREFIX = "INSERT INTO " + TABLE +
+            " (id, name, price, stock_quantity, type, material, expiration_date, nutritional_info, manufacture_date, dosage) VALUES ";
+    private static final String UPSERT_SUFFIX = " ON DUPLICATE KEY UPDATE name = VALUES(name), price = VALUES(price), " +
+            "type = VALUES(type), material = VALUES(material), " +
+            "expiration_date = VALUES(expiration_date), nutritional_info = VALUES(nutritional_info), " +
+            "manufacture_date = VALUES(manufacture_date), dosage = VALUES(dosage), " +
+            "status = CASE WHEN stock_quantity > 0 THEN 1 ELSE 0 END";
+
+    // One multi-row statement per UPSERT_CHUNK_SIZE products, on the caller's connection and transaction.
+    // The caller invalidates the caches once the transaction has committed.
+    public static void upsertAll(Connection conn, List<Product> products) throws SQLException
+    {
+        for (int from = 0; from < products.size(); from += UPSERT_CHUNK_SIZE)
+        {
+            List<Product> chunk = products.subList(from, Math.min(from + UPSERT_CHUNK_SIZE, products.size()));
+            String sql = UPSERT_PREFIX + SqlUtil.rowPlaceholders(10, chunk.size()) + UPSERT_SUFFIX;
+
+            try (PreparedStatement ps = conn.prepareStatement(sql))
+            {
+                int paramIndex = 1;
+                for (Product product : chunk)
+                {
+                    if (product.getId() > 0)
+                    {
+                        ps.setInt(paramIndex, product.getId());
+                    }
+                    else
+                    {
+                        ps.setNull(paramIndex, Types.INTEGER);   // NULL id: MySQL assigns the next auto-increment value
+                    }
+                    bindProduct(ps, paramIndex + 1, product);
+                    paramIndex += 10;
+                }
+                ps.executeUpdate();
+            }
+        }
     }
 
     //SELECT ALL
     public static List<Product> getAll() throws SQLException 
+    {
+        return cachedList("all", key -> queryAll());
+    }
+
+    private static List<Product> queryAll() throws SQLException
     {
         List<Product> products = new ArrayList<>();
 
-        String sql = "SELECT * FROM products WHERE status = 1"; // Thêm điều kiện lọc status
+        String sql = "SELECT " + LIST_COLUMNS + " FROM products WHERE status = 1"; // Thêm điều kiện lọc status
 
         try (Connection conn = connection_provider.getCon();
 
@@ -144,7 +265,7 @@ public class ProductDAO {
         {
             while (rs.next()) 
             {
-                products.add(createProductFromResultSet(rs));
+                products.add(LIST_MAPPER.map(rs));
             }
         }
         return products;
@@ -153,8 +274,13 @@ public class ProductDAO {
 
     //SELECT BY ID
     public Product getById(int id) throws SQLException
+    {
+        return BY_ID.get(id, ProductDAO::queryById);
+    }
+
+    private static Product queryById(int id) throws SQLException
     { 
-        String sql = "SELECT * FROM " + TABLE + " WHERE id = ? AND status = 1";
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM " + TABLE + " WHERE id = ? AND status = 1";
         
         try(Connection conn = connection_provider.getCon();
                 
@@ -166,19 +292,73 @@ public class ProductDAO {
             {
                 if (rs.next()) 
                 {
-                    return createProductFromResultSet(rs);                    
+                    return DETAIL_MAPPER.map(rs);                    
                 }
             }
         }
         return null;
     }
     
+    //SELECT BY IDS - cached products first, then one IN (...) query per chunk of the rest, keyed by id
+    public Map<Integer, Product> getByIds(Collection<Integer> ids) throws SQLException
+    {
+        Map<Integer, Product> products = new LinkedHashMap<>();
+        if (ids == null || ids.isEmpty()) return products;
+
+        long version = BY_ID.version();
+        List<Integer> distinctIds = new ArrayList<>();
+        for (int id : new LinkedHashSet<>(ids))
+        {
+            Product cached = BY_ID.getIfPresent(id);
+            if (cached != null)
+            {
+                products.put(id, cached);
+            }
+            else
+            {
+                distinctIds.add(id);
+            }
+        }
+        if (distinctIds.isEmpty()) return products;
+
+        try (Connection conn = connection_provider.getCon())
+        {
+            for (int from = 0; from < distinctIds.size(); from += SqlUtil.IN_CHUNK_SIZE)
+            {
+                List<Integer> chunk = distinctIds.subList(from, Math.min(from + SqlUtil.IN_CHUNK_SIZE, distinctIds.size()));
+                int slots = SqlUtil.bucketSize(chunk.size());
+                String sql = "SELECT " + DETAIL_COLUMNS + " FROM " + TABLE + " WHERE status = 1 AND id IN (" + SqlUtil.placeholders(slots) + ")";
+
+                try (PreparedStatement ps = conn.prepareStatement(sql))
+                {
+                    SqlUtil.bindPadded(ps, 1, chunk, slots);
+
+                    try (ResultSet rs = ps.executeQuery())
+                    {
+                        while (rs.next())
+                        {
+                            Product product = DETAIL_MAPPER.map(rs);
+                            products.put(product.getId(), product);
+                            BY_ID.put(product.getId(), product, version);
+                        }
+                    }
+                }
+            }
+        }
+        return products;
+    }
+    
     //SELECT BY CONDITION
     public List<Product> getByCondition(String category, String priceOrder) throws SQLException 
+    {
+        return cachedList(category + "|" + priceOrder, key -> queryByCondition(category, priceOrder));
+    }
+
+    private static List<Product> queryByCondition(String category, String priceOrder) throws SQLException 
     {
         List<Product> products = new ArrayList<>();
         
-        StringBuilder sql = new StringBuilder("SELECT * FROM " + TABLE + " WHERE 1=1 AND status = 1");
+        StringBuilder sql = new StringBuilder("SELECT " + LIST_COLUMNS + " FROM " + TABLE + " WHERE 1=1 AND status = 1");
         
         if (category != null)
         {
@@ -204,13 +384,113 @@ public class ProductDAO {
             {
                 while (rs.next())
                 {
-                    products.add(createProductFromResultSet(rs));
+                    products.add(LIST_MAPPER.map(rs));
                 }
             }
         }
         return products;
     }
     
+    //SELECT PAGE - keyset pagination on id, or on (price, id) when a price order is given
+    public Page<Product> getPage(String category, String priceOrder, PageCursor after, int pageSize) throws SQLException
+    {
+        return getPage(category, priceOrder, after, 0, pageSize);
+    }
+
+    // offset is only used when there is no cursor, to jump straight to a row far down the list
+    public Page<Product> getPage(String category, String priceOrder, PageCursor after, int offset, int pageSize) throws SQLException
+    {
+        boolean useOffset = after == null && offset > 0;
+
+        boolean byPrice = priceOrder != null;
+        boolean desc = "DESC".equalsIgnoreCase(priceOrder);
+
+        StringBuilder sql = new StringBuilder("SELECT " + LIST_COLUMNS + " FROM " + TABLE + " WHERE status = 1");
+
+        if (category != null)
+        {
+            sql.append(" AND type = ?");
+        }
+        if (after != null)
+        {
+            if (byPrice)
+            {
+                sql.append(desc ? " AND (price < ? OR (price = ? AND id < ?))"
+                                : " AND (price > ? OR (price = ? AND id > ?))");
+            }
+            else
+            {
+                sql.append(" AND id > ?");
+            }
+        }
+        if (byPrice)
+        {
+            sql.append(desc ? " ORDER BY price DESC, id DESC" : " ORDER BY price ASC, id ASC");
+        }
+        else
+        {
+            sql.append(" ORDER BY id");
+        }
+        sql.append(useOffset ? " LIMIT ? OFFSET ?" : " LIMIT ?");
+
+        List<Product> rows = new ArrayList<>(pageSize + 1);
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql.toString()))
+        {
+            int paramIndex = 1;
+
+            if (category != null)
+            {
+                ps.setString(paramIndex++, category.toUpperCase());
+            }
+            if (after != null)
+            {
+                if (byPrice)
+                {
+                    ps.setBigDecimal(paramIndex++, after.getSortValue());
+                    ps.setBigDecimal(paramIndex++, after.getSortValue());
+                }
+                ps.setInt(paramIndex++, after.getLastId());
+            }
+            ps.setInt(paramIndex++, pageSize + 1);
+            if (useOffset)
+            {
+                ps.setInt(paramIndex, offset);
+            }
+
+            try (ResultSet rs = ps.executeQuery())
+            {
+                while (rs.next())
+                {
+                    rows.add(LIST_MAPPER.map(rs));
+                }
+            }
+        }
+        return Page.fromLookahead(rows, pageSize, p -> byPrice
+                ? PageCursor.after(p.getPrice(), p.getId())
+                : PageCursor.afterId(p.getId()));
+    }
+    
+    //COUNT
+    public int count(String category) throws SQLException
+    {
+        String sql = "SELECT COUNT(*) FROM " + TABLE + " WHERE status = 1" + (category != null ? " AND type = ?" : "");
+
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            if (category != null)
+            {
+                ps.setString(1, category.toUpperCase());
+            }
+            try (ResultSet rs = ps.executeQuery())
+            {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+    
     //UPDATE
     public boolean updateProduct(Product product) throws SQLException 
     {
@@ -260,41 +540,107 @@ public class ProductDAO {
             
             return ps.executeUpdate() > 0;
         }
+        finally
+        {
+            // Also on failure: the caller may already have modified the cached instance
+            invalidate(product.getId());
+        }
     }
 
     // UPDATE STOCK
-public boolean updateStock(int productId, int quantityChange) throws SQLException {
-    // Lấy stock hiện tại trước
-    int currentStock = getCurrentStock(productId); // bạn cần viết method lấy stock hiện tại
+    // Single conditional statement: the change is only applied when stock stays >= 0,
+    // so concurrent sales of the same product can never oversell or lose an update.
+    // status is assigned first so it sees the pre-update stock_quantity on every SQL engine.
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE " + TABLE + " SET status = CASE WHEN stock_quantity + ? > 0 THEN 1 ELSE 0 END, " +
+            "stock_quantity = stock_quantity + ? " +
+            "WHERE id = ? AND stock_quantity + ? >= 0";
 
-    int newStock = currentStock + quantityChange;
-    int newStatus = newStock > 0 ? 1 : 0;
+    public boolean updateStock(int productId, int quantityChange) throws SQLException
+    {
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(ADJUST_STOCK_SQL))
+        {
+            ps.setInt(1, quantityChange);
+            ps.setInt(2, quantityChange);
+            ps.setInt(3, productId);
+            ps.setInt(4, quantityChange);
+
+            return ps.executeUpdate() > 0;
+        }
+        finally
+        {
+            invalidate(productId);
+        }
+    }
+
+    // Returns false when the product does not exist or has fewer than quantity items left
+    public boolean decrementStock(int productId, int quantity) throws SQLException
+    {
+        if (quantity <= 0)
+        {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
+        return updateStock(productId, -quantity);
+    }
+    
+    // TRANSACTION HELPERS - the caller owns the connection and commits or rolls back,
+    // then calls invalidate() for the products it changed
 
-    String updateSql = "UPDATE products SET stock_quantity = ?, status = ? WHERE id = ?";
+    // Lock the given products until the transaction ends and return their stock by id
+    public static Map<Integer, Integer> lockStock(Connection conn, Collection<Integer> productIds) throws SQLException
+    {
+        Map<Integer, Integer> stock = new HashMap<>();
+        if (productIds.isEmpty()) return stock;
 
-    try (Connection conn = connection_provider.getCon();
-         PreparedStatement ps = conn.prepareStatement(updateSql)) {
-        ps.setInt(1, newStock);
-        ps.setInt(2, newStatus);
-        ps.setInt(3, productId);
+        String sql = "SELECT id, stock_quantity FROM " + TABLE +
+                     " WHERE status = 1 AND id IN (" + SqlUtil.placeholders(productIds.size()) + ") FOR UPDATE";
 
-        return ps.executeUpdate() > 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql))
+        {
+            int paramIndex = 1;
+            for (int id : productIds)
+            {
+                ps.setInt(paramIndex++, id);
+            }
+            try (ResultSet rs = ps.executeQuery())
+            {
+                while (rs.next())
+                {
+                    stock.put(rs.getInt("id"), rs.getInt("stock_quantity"));
+                }
+            }
+        }
+        return stock;
     }
-}
-
-private int getCurrentStock(int productId) throws SQLException {
-    String sql = "SELECT stock_quantity FROM products WHERE id = ?";
-    try (Connection conn = connection_provider.getCon();
-         PreparedStatement ps = conn.prepareStatement(sql)) {
-        ps.setInt(1, productId);
-        try (ResultSet rs = ps.executeQuery()) {
-            if (rs.next()) {
-                return rs.getInt("stock_quantity");
+
+    // Apply all decrements (product id -> quantity sold) as one batch
+    public static void decrementStock(Connection conn, Map<Integer, Integer> quantities) throws SQLException
+    {
+        if (quantities.isEmpty()) return;
+
+        List<Integer> ids = new ArrayList<>(quantities.keySet());
+        try (PreparedStatement ps = conn.prepareStatement(ADJUST_STOCK_SQL))
+        {
+            for (int id : ids)
+            {
+                int change = -quantities.get(id);
+                ps.setInt(1, change);
+                ps.setInt(2, change);
+                ps.setInt(3, id);
+                ps.setInt(4, change);
+                ps.addBatch();
+            }
+            int[] results = ps.executeBatch();
+            for (int i = 0; i < results.length; i++)
+            {
+                if (results[i] == 0)
+                {
+                    throw new SQLException("Stock update failed for product " + ids.get(i));
+                }
             }
-            throw new SQLException("Product not found with id " + productId);
         }
     }
-}
     
     //DELETE
     public boolean deleteProduct(int id) throws SQLException 
@@ -307,12 +653,16 @@ private int getCurrentStock(int productId) throws SQLException {
             ps.setInt(1, id);
             return ps.executeUpdate() > 0;
         }
+        finally
+        {
+            invalidate(id);
+        }
     }
     
     // GET LOW STOCK PRODUCTS
     public static List<Product> getLowStockProducts(int threshold) throws SQLException {
         List<Product> lowStockProducts = new ArrayList<>();
-        String sql = "SELECT * FROM " + TABLE + " WHERE stock_quantity <= ? AND status = 1 ORDER BY stock_quantity ASC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM " + TABLE + " WHERE stock_quantity <= ? AND status = 1 ORDER BY stock_quantity ASC";
         
         try (Connection conn = connection_provider.getCon();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -320,7 +670,7 @@ private int getCurrentStock(int productId) throws SQLException {
             
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    lowStockProducts.add(createProductFromResultSet(rs));
+                    lowStockProducts.add(LIST_MAPPER.map(rs));
                 }
             }
         }
@@ -343,4 +693,32 @@ private int getCurrentStock(int productId) throws SQLException {
         }
         return 0;
     }
+
+    // CACHE
+
+    // Drop cached copies of the given products (and every cached list), e.g. after a checkout commits
+    public static void invalidate(Collection<Integer> productIds)
+    {
+        productIds.forEach(BY_ID::invalidate);
+        LISTS.invalidateAll();
+    }
+
+    private static void invalidate(int productId)
+    {
+        BY_ID.invalidate(productId);
+        LISTS.invalidateAll();
+    }
+
+    public static List<ReadThroughCache.Stats> getCacheStats()
+    {
+        return List.of(BY_ID.getStats(), LISTS.getStats());
+    }
+
+    // Cached list query. List rows carry LIST_COLUMNS only, so they never go into the by-id cache,
+    // which must hold complete products. Callers get their own copy of the list, the product objects are shared.
+    private static List<Product> cachedList(String key, ReadThroughCache.Loader<String, List<Product>> query) throws SQLException
+    {
+        List<Product> products = LISTS.get(key, k -> List.copyOf(query.load(k)));
+        return new ArrayList<>(products);
+    }
 }
\ No newline at end of file
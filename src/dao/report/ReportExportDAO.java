@@ -0,0 +1,111 @@
+package dao.report;
+
+import database.connection_provider;
+import util.csv.CsvWriter;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.function.LongConsumer;
+
+/**
+ * Queries behind the report CSV exports. Every export streams its rows from a
+ * forward-only, read-only cursor straight into a CsvWriter, so the size of a
+ * table or date range never shows up in heap usage.
+ */
+public class ReportExportDAO {
+    // How often the progress callback hears about written rows
+    public static final int PROGRESS_INTERVAL = 1000;
+
+    private static final String COUNT_BILL_LINES_SQL =
+        "SELECT COUNT(*) FROM bills b JOIN bill_items bi ON bi.bill_id = b.id " +
+        "WHERE b.transaction_time >= ? AND b.transaction_time < ?";
+
+    private static final String BILL_LINES_SQL =
+        "SELECT b.id AS bill_id, b.transaction_time, b.customer_id, c.name AS customer, " +
+        "       b.staff_id, s.name AS staff, b.payment_method, bi.item_type, " +
+        "       COALESCE(bi.product_id, bi.pet_id) AS item_id, COALESCE(p.name, pt.name) AS item_name, " +
+        "       COALESCE(p.type, pt.type) AS category, bi.quantity, bi.unit_price, " +
+        "       bi.quantity * bi.unit_price AS line_total " +
+        "FROM bills b " +
+        "JOIN bill_items bi ON bi.bill_id = b.id " +
+        "LEFT JOIN customers c ON c.id = b.customer_id " +
+        "LEFT JOIN staff s ON s.id = b.staff_id " +
+        "LEFT JOIN products p ON p.id = bi.product_id " +
+        "LEFT JOIN pets pt ON pt.id = bi.pet_id " +
+        "WHERE b.transaction_time >= ? AND b.transaction_time < ? " +
+        "ORDER BY b.transaction_time, b.id";   // idx_bills_time order, no filesort
+
+    private static final String PRODUCTS_SQL =
+        "SELECT id, name, type, price, stock_quantity, " +
+        "       CASE WHEN stock_quantity <= 0 THEN 'Out of stock' WHEN stock_quantity <= ? THEN 'Low' ELSE 'OK' END AS stock_level, " +
+        "       material, manufacture_date, expiration_date, dosage " +
+        "FROM products WHERE status = 1 ORDER BY id";
+
+    private static final String PETS_SQL =
+        "SELECT id, name, type, breed, age, price FROM pets WHERE status = 1 ORDER BY id";
+
+    private interface Binder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    public long countBillLines(LocalDate from, LocalDate to) throws SQLException {
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(COUNT_BILL_LINES_SQL)) {
+            bindRange(ps, from, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // One row per bill item for bills in [from, to), oldest first
+    public long writeBillLines(LocalDate from, LocalDate to, CsvWriter out, LongConsumer progress)
+            throws SQLException, IOException {
+        return stream(BILL_LINES_SQL, ps -> bindRange(ps, from, to), out, progress);
+    }
+
+    // Active products; anything at or below lowStockThreshold is marked Low
+    public long writeProducts(int lowStockThreshold, CsvWriter out, LongConsumer progress)
+            throws SQLException, IOException {
+        return stream(PRODUCTS_SQL, ps -> ps.setInt(1, lowStockThreshold), out, progress);
+    }
+
+    public long writePets(CsvWriter out, LongConsumer progress) throws SQLException, IOException {
+        return stream(PETS_SQL, ps -> { }, out, progress);
+    }
+
+    // Header plus every row of the query; progress gets the running row count every PROGRESS_INTERVAL rows and at the end
+    private long stream(String sql, Binder binder, CsvWriter out, LongConsumer progress)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (Connection conn = connection_provider.getCon();
+             PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            ps.setFetchSize(Integer.MIN_VALUE);   // MySQL Connector/J: stream rows instead of buffering the result
+            binder.bind(ps);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                out.writeHeader(rs.getMetaData());
+                while (rs.next()) {
+                    out.writeRow(rs, columns);
+                    if (++rows % PROGRESS_INTERVAL == 0) {
+                        progress.accept(rows);
+                    }
+                }
+            }
+        }
+        progress.accept(rows);
+        return rows;
+    }
+
+    private static void bindRange(PreparedStatement ps, LocalDate from, LocalDate to) throws SQLException {
+        ps.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+        ps.setTimestamp(2, Timestamp.valueOf(to.atStartOfDay()));
+    }
+}
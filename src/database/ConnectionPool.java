@@ -0,0 +1,521 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool behind connection_provider.
+ * Connections handed out are proxies: close() gives the physical connection
+ * back to the pool instead of tearing down the socket.
+ */
+public class ConnectionPool {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionMs;
+    private final int statementCacheSize;
+
+    // One permit per connection that may be borrowed at the same time
+    private final Semaphore permits;
+    // Most recently returned first, so the tail holds the connections idle the longest (guarded by this)
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private final Object fillLock = new Object();
+    private volatile boolean closed;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final StatementCache.Counters statementCounters = new StatementCache.Counters();
+    private final QueryStats queryStats;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize,
+                          long idleTimeoutMs, long borrowTimeoutMs,
+                          int validationTimeoutSeconds, long leakDetectionMs,
+                          int statementCacheSize, long housekeepingIntervalMs,
+                          long slowQueryThresholdMs) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.leakDetectionMs = leakDetectionMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+        this.queryStats = new QueryStats(slowQueryThresholdMs);
+
+        fillToMinimum();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep,
+                housekeepingIntervalMs, housekeepingIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static ConnectionPool fromConfig() {
+        return new ConnectionPool(
+            DatabaseConfig.URL,
+            DatabaseConfig.USER,
+            DatabaseConfig.PASSWORD,
+            DatabaseConfig.POOL_MIN_SIZE,
+            DatabaseConfig.POOL_MAX_SIZE,
+            DatabaseConfig.POOL_IDLE_TIMEOUT_MS,
+            DatabaseConfig.POOL_BORROW_TIMEOUT_MS,
+            DatabaseConfig.POOL_VALIDATION_TIMEOUT_SECONDS,
+            DatabaseConfig.POOL_LEAK_DETECTION_MS,
+            DatabaseConfig.STATEMENT_CACHE_SIZE,
+            DatabaseConfig.POOL_HOUSEKEEPING_INTERVAL_MS,
+            DatabaseConfig.SLOW_QUERY_THRESHOLD_MS
+        );
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + borrowTimeoutMs + " ms waiting for a database connection (" + getStats() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(openPhysical());
+            }
+            recordWait(System.nanoTime() - start);
+            pooled.markBorrowed(leakDetectionMs > 0);
+            active.add(pooled);
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        int idleCount;
+        synchronized (this) {
+            idleCount = idle.size();
+        }
+        long borrows = borrowCount.get();
+        return new Stats(
+            active.size(),
+            idleCount,
+            maxSize,
+            permits.getQueueLength(),
+            borrows,
+            borrows == 0 ? 0 : totalWaitNanos.get() / borrows,
+            maxWaitNanos.get(),
+            timeoutCount.get(),
+            createdCount.get(),
+            evictedCount.get(),
+            leakCount.get(),
+            statementCounters.hits.get(),
+            statementCounters.misses.get(),
+            statementCounters.evictions.get()
+        );
+    }
+
+    // Per-statement latency histograms and the slow-statement log for this pool
+    public QueryStats getQueryStats() {
+        return queryStats;
+    }
+
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+
+        List<PooledConnection> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        toClose.forEach(this::discard);
+        // Borrowed connections are closed as they come back
+    }
+
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (this) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) return null;
+            if (pooled.isUsable()) return pooled;
+            discard(pooled);
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return physical;
+    }
+
+    private void release(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            if (closed || !pooled.reset()) {
+                discard(pooled);
+                return;
+            }
+            synchronized (this) {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        pooled.statements.clear();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool housekeeping failed", e);
+        }
+    }
+
+    // Close connections that sat idle too long, oldest first, without dropping below the minimum size
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        List<PooledConnection> expired = new ArrayList<>();
+        synchronized (this) {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && idle.size() + active.size() > minSize) {
+                PooledConnection pooled = it.next();
+                if (pooled.lastReturnedAt > cutoff) break;
+                it.remove();
+                expired.add(pooled);
+            }
+        }
+        evictedCount.addAndGet(expired.size());
+        expired.forEach(this::discard);
+    }
+
+    private void fillToMinimum() {
+        synchronized (fillLock) {
+            fillToMinimumLocked();
+        }
+    }
+
+    private void fillToMinimumLocked() {
+        while (!closed && totalSize() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = new PooledConnection(openPhysical());
+                synchronized (this) {
+                    idle.offerLast(pooled);
+                }
+            } catch (SQLException e) {
+                // Database may not be up yet; borrowers will retry on demand
+                LOGGER.log(Level.WARNING, "Could not pre-open pooled connection: " + e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        if (leakDetectionMs <= 0) return;
+
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : active) {
+            if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionMs) {
+                pooled.leakReported = true;
+                leakCount.incrementAndGet();
+                LOGGER.log(Level.WARNING, "Possible connection leak: connection held for "
+                        + (now - pooled.borrowedAt) + " ms", pooled.borrowSite);
+            }
+        }
+    }
+
+    private synchronized int totalSize() {
+        return idle.size() + active.size();
+    }
+
+    // Physical connection plus the bookkeeping the pool needs for it
+    private final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statements = new StatementCache(statementCacheSize, statementCounters);
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt = System.currentTimeMillis();
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        void markBorrowed(boolean captureSite) {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = captureSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        boolean isUsable() {
+            try {
+                return physical.isValid(validationTimeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Undo whatever the borrower left behind; false means the connection should not be reused
+        boolean reset() {
+            try {
+                if (physical.isClosed()) return false;
+                statements.releaseAll();
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                lastReturnedAt = System.currentTimeMillis();
+                borrowSite = null;
+                return true;
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Discarding connection that failed to reset", e);
+                return false;
+            }
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handle(this)
+            );
+        }
+    }
+
+    // One handle per borrow, so a stale reference cannot touch the connection after close()
+    private final class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return handleClosed || pooled.physical.isClosed();
+                case "prepareStatement":
+                    if (!handleClosed) {
+                        String key = statementKey(method, args);
+                        if (key != null) {
+                            return pooled.statements.prepare(key, (Connection) proxy,
+                                    () -> preparePhysical(method, args));
+                        }
+                        return preparePhysical(method, args);
+                    }
+                    break;
+                case "createStatement":
+                    if (!handleClosed) {
+                        return queryStats.wrap((Statement) invokePhysical(method, args));
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (handleClosed ? ", closed" : "") + "]";
+                default:
+                    break;
+            }
+            if (handleClosed) {
+                throw new SQLException("Connection is closed");
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Statement that fails to prepare (bad SQL with server-side prepares) is counted as an error of its fingerprint
+        private PreparedStatement preparePhysical(Method method, Object[] args) throws SQLException {
+            String sql = (String) args[0];
+            try {
+                return queryStats.wrap((PreparedStatement) invokePhysical(method, args), sql);
+            } catch (SQLException e) {
+                queryStats.recordFailure(sql);
+                throw e;
+            }
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws SQLException {
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException) throw sqlException;
+                throw new SQLException(e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new SQLException(e);
+            }
+        }
+
+        // Cache key for the prepareStatement overloads we cache, null for the ones passed straight through
+        private String statementKey(Method method, Object[] args) {
+            Class<?>[] types = method.getParameterTypes();
+            if (types.length == 1) {
+                return (String) args[0];
+            }
+            if (types.length == 2 && types[1] == int.class) {
+                return args[1] + "|" + args[0];
+            }
+            if (types.length == 3) {
+                return args[1] + "," + args[2] + "|" + args[0];
+            }
+            return null;
+        }
+    }
+
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final int threadsWaiting;
+        private final long borrowCount;
+        private final long avgWaitNanos;
+        private final long maxWaitNanos;
+        private final long timeoutCount;
+        private final long createdCount;
+        private final long evictedCount;
+        private final long leakCount;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        Stats(int active, int idle, int maxSize, int threadsWaiting, long borrowCount,
+              long avgWaitNanos, long maxWaitNanos, long timeoutCount,
+              long createdCount, long evictedCount, long leakCount,
+              long statementHits, long statementMisses, long statementEvictions) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.threadsWaiting = threadsWaiting;
+            this.borrowCount = borrowCount;
+            this.avgWaitNanos = avgWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.timeoutCount = timeoutCount;
+            this.createdCount = createdCount;
+            this.evictedCount = evictedCount;
+            this.leakCount = leakCount;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getTotal() { return active + idle; }
+        public int getMaxSize() { return maxSize; }
+        public int getThreadsWaiting() { return threadsWaiting; }
+        public long getBorrowCount() { return borrowCount; }
+        public double getAvgWaitMillis() { return avgWaitNanos / 1_000_000.0; }
+        public double getMaxWaitMillis() { return maxWaitNanos / 1_000_000.0; }
+        public long getTimeoutCount() { return timeoutCount; }
+        public long getCreatedCount() { return createdCount; }
+        public long getEvictedCount() { return evictedCount; }
+        public long getLeakCount() { return leakCount; }
+        public long getStatementHits() { return statementHits; }
+        public long getStatementMisses() { return statementMisses; }
+        public long getStatementEvictions() { return statementEvictions; }
+
+        public double getStatementHitRatio() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "active=%d, idle=%d, max=%d, waiting=%d, borrows=%d, avgWait=%.2fms, maxWait=%.2fms, " +
+                "timeouts=%d, created=%d, evicted=%d, leaks=%d, " +
+                "stmtHits=%d, stmtMisses=%d, stmtHitRatio=%.1f%%, stmtEvictions=%d",
+                active, idle, maxSize, threadsWaiting, borrowCount, getAvgWaitMillis(), getMaxWaitMillis(),
+                timeoutCount, createdCount, evictedCount, leakCount,
+                statementHits, statementMisses, getStatementHitRatio() * 100, statementEvictions);
+        }
+    }
+}
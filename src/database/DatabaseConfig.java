@@ -1,7 +1,29 @@
 package database;
 
 public class DatabaseConfig {
-    public static final String URL = "jdbc:mysql://localhost:3306/petshop_db";
-    public static final String USER = "root";
-    public static final String PASSWORD = "";
+    // Overridable with -Dpetshop.db.url/user/password, e.g. to point benchmarks at an embedded database
+    public static final String URL = System.getProperty("petshop.db.url",
+            "jdbc:mysql://localhost:3306/petshop_db?useServerPrepStmts=true&rewriteBatchedStatements=true");
+    public static final String USER = System.getProperty("petshop.db.user", "root");
+    public static final String PASSWORD = System.getProperty("petshop.db.password", "");
+
+    // Connection pool settings
+    public static final int POOL_MIN_SIZE = 2;
+    public static final int POOL_MAX_SIZE = 10;
+    public static final long POOL_IDLE_TIMEOUT_MS = 5 * 60 * 1000;       // close idle connections above min size after 5 minutes
+    public static final long POOL_BORROW_TIMEOUT_MS = 5 * 1000;          // give up waiting for a free connection after 5 seconds
+    public static final int POOL_VALIDATION_TIMEOUT_SECONDS = 2;         // Connection.isValid timeout on borrow
+    public static final long POOL_LEAK_DETECTION_MS = 60 * 1000;         // warn when a connection is held longer than 1 minute
+    public static final long POOL_HOUSEKEEPING_INTERVAL_MS = 30 * 1000;
+
+    // Prepared statements kept open per pooled connection (0 disables the cache)
+    public static final int STATEMENT_CACHE_SIZE = 64;
+
+    // Statements slower than this are logged with their bind parameters (-Dpetshop.db.slowQueryMs, negative disables)
+    public static final long SLOW_QUERY_THRESHOLD_MS = Long.getLong("petshop.db.slowQueryMs", 200);
+
+    // Read-through caches in front of ProductDAO/PetDAO (0 disables them)
+    public static final int ENTITY_CACHE_SIZE = 5000;                    // products/pets cached by id, per DAO
+    public static final int LIST_CACHE_SIZE = 32;                        // cached getAll/getByCondition results, per DAO
+    public static final long ENTITY_CACHE_TTL_MS = 60 * 1000;            // re-read from MySQL at least once a minute
 }
@@ -0,0 +1,386 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement latency for one pool. Every statement the pool hands out is
+ * wrapped so its execute calls are timed into a histogram keyed by the SQL
+ * fingerprint (literals and placeholder lists collapsed), and executions
+ * slower than the threshold are logged with a summary of their bind
+ * parameters. Times cover the execute call only: for a streaming result set
+ * the rows fetched afterwards are not included.
+ */
+public final class QueryStats {
+    private static final Logger LOGGER = Logger.getLogger(QueryStats.class.getName());
+
+    // Dynamic SQL should collapse to a few fingerprints; past this, new ones are counted together
+    private static final int MAX_FINGERPRINTS = 1000;
+    private static final String OTHER = "(other statements)";
+
+    private static final int MAX_PARAMS_LOGGED = 10;
+    private static final int MAX_STRING_LOGGED = 40;
+
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\+?\\)(?:\\s*,\\s*\\(\\?\\+?\\))+");
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private volatile long slowThresholdNanos;
+
+    QueryStats(long slowQueryThresholdMs) {
+        setSlowQueryThresholdMs(slowQueryThresholdMs);
+    }
+
+    // Negative disables the slow-statement log; histograms are kept either way
+    public void setSlowQueryThresholdMs(long thresholdMs) {
+        this.slowThresholdNanos = thresholdMs < 0 ? Long.MAX_VALUE : thresholdMs * 1_000_000;
+    }
+
+    public long getSlowQueryThresholdMs() {
+        return slowThresholdNanos == Long.MAX_VALUE ? -1 : slowThresholdNanos / 1_000_000;
+    }
+
+    // The n statements with the most total time, highest first
+    public List<StatementStats> top(int n) {
+        List<StatementStats> all = new ArrayList<>();
+        histograms.forEach((fingerprint, histogram) -> all.add(histogram.snapshot(fingerprint)));
+        all.sort(Comparator.comparingLong((StatementStats s) -> s.totalNanos).reversed());
+        return all.size() > n ? new ArrayList<>(all.subList(0, n)) : all;
+    }
+
+    public String report(int n) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Top %d statements by total time%n", n));
+        out.append(String.format("%10s %12s %10s %10s %10s %10s %10s %7s  %s%n",
+                "calls", "total ms", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors", "statement"));
+        for (StatementStats s : top(n)) {
+            out.append(String.format("%10d %12.1f %10.2f %10.2f %10.2f %10.2f %10.2f %7d  %s%n",
+                    s.getCount(), s.getTotalMillis(), s.getMeanMillis(), s.getPercentileMillis(0.50),
+                    s.getPercentileMillis(0.95), s.getPercentileMillis(0.99), s.getMaxMillis(),
+                    s.getErrors(), s.getFingerprint()));
+        }
+        return out.toString();
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+
+    // SQL with whitespace normalised, literals replaced by ? and runs of ?s / (?...) rows collapsed
+    static String fingerprint(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) i++;
+                if (out.length() > 0) out.append(' ');
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                i++;
+                while (i < length) {
+                    char q = sql.charAt(i++);
+                    if (q == '\\') {
+                        i++;
+                    } else if (q == c) {
+                        if (i < length && sql.charAt(i) == c) {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+                out.append('?');
+                continue;
+            }
+            if (Character.isDigit(c) && (out.length() == 0 || !isIdentifierPart(out.charAt(out.length() - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                out.append('?');
+                continue;
+            }
+            out.append(c);
+            i++;
+        }
+        String collapsed = PLACEHOLDER_LIST.matcher(out.toString().trim()).replaceAll("?+");
+        return ROW_LIST.matcher(collapsed).replaceAll("(?+)+");
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '`' || c == '$';
+    }
+
+    PreparedStatement wrap(PreparedStatement physical, String sql) {
+        return (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] { PreparedStatement.class },
+            new TimedStatement(physical, sql)
+        );
+    }
+
+    Statement wrap(Statement physical) {
+        return (Statement) Proxy.newProxyInstance(
+            Statement.class.getClassLoader(),
+            new Class<?>[] { Statement.class },
+            new TimedStatement(physical, null)
+        );
+    }
+
+    // Counts an error without a timing, for statements that never got to execute
+    void recordFailure(String sql) {
+        histogramFor(fingerprint(sql)).errors.increment();
+    }
+
+    private Histogram histogramFor(String fingerprint) {
+        Histogram histogram = histograms.get(fingerprint);
+        if (histogram == null) {
+            String key = histograms.size() < MAX_FINGERPRINTS ? fingerprint : OTHER;
+            histogram = histograms.computeIfAbsent(key, k -> new Histogram());
+        }
+        return histogram;
+    }
+
+    private void record(String fingerprint, long nanos, boolean failed, String params) {
+        histogramFor(fingerprint).record(nanos, failed);
+
+        if (nanos >= slowThresholdNanos) {
+            LOGGER.log(Level.WARNING, String.format("Slow statement (%.1f ms%s): %s%s",
+                    nanos / 1_000_000.0, failed ? ", failed" : "", fingerprint, params));
+        }
+    }
+
+    // Short, bounded rendering of a bind value for the log
+    private static String summarize(Object value) {
+        if (value == null) return "NULL";
+        if (value instanceof String s) {
+            return s.length() <= MAX_STRING_LOGGED
+                ? "'" + s + "'"
+                : "'" + s.substring(0, MAX_STRING_LOGGED) + "...' (" + s.length() + " chars)";
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof java.util.Date
+                || value instanceof java.time.temporal.Temporal) {
+            return value.toString();
+        }
+        if (value instanceof byte[] bytes) return "<" + bytes.length + " bytes>";
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    // Times execute calls and remembers the bind values of the current row
+    private final class TimedStatement implements InvocationHandler {
+        private final Statement physical;
+        private final String preparedFingerprint;   // computed once, the statement is reused
+        private Object[] params = new Object[8];
+        private int paramCount;
+        private int batchRows;
+
+        TimedStatement(Statement physical, String preparedSql) {
+            this.physical = physical;
+            this.preparedFingerprint = preparedSql == null ? null : fingerprint(preparedSql);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            switch (name) {
+                case "addBatch":
+                    if (args == null) batchRows++;
+                    break;
+                case "clearBatch":
+                    batchRows = 0;
+                    break;
+                case "clearParameters":
+                    clearParams();
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                        setParam(index, name.equals("setNull") ? null : args[1]);
+                    }
+                    break;
+            }
+            return invokePhysical(method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            String fingerprint = args != null && args.length > 0 && args[0] instanceof String sql
+                ? fingerprint(sql) : preparedFingerprint;
+            boolean batch = method.getName().contains("Batch");
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invokePhysical(method, args);
+                failed = false;
+                return result;
+            } finally {
+                long nanos = System.nanoTime() - start;
+                if (fingerprint != null) {
+                    record(fingerprint, nanos, failed, nanos >= slowThresholdNanos ? describeParams(batch) : "");
+                }
+                if (batch) batchRows = 0;
+            }
+        }
+
+        private Object invokePhysical(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private void setParam(int index, Object value) {
+            if (index < 1) return;
+            if (index > params.length) {
+                Object[] grown = new Object[Math.max(index, params.length * 2)];
+                System.arraycopy(params, 0, grown, 0, params.length);
+                params = grown;
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        private void clearParams() {
+            Arrays.fill(params, 0, paramCount, null);
+            paramCount = 0;
+        }
+
+        private String describeParams(boolean batch) {
+            if (paramCount == 0 && !batch) return "";
+            StringBuilder out = new StringBuilder(" [");
+            if (batch) {
+                out.append("batch of ").append(batchRows).append(" rows");
+                if (paramCount > 0) out.append(", last: ");
+            }
+            int shown = Math.min(paramCount, MAX_PARAMS_LOGGED);
+            for (int i = 0; i < shown; i++) {
+                if (i > 0) out.append(", ");
+                out.append(summarize(params[i]));
+            }
+            if (paramCount > shown) {
+                out.append(", ... (").append(paramCount - shown).append(" more)");
+            }
+            return out.append(']').toString();
+        }
+    }
+
+    // Log-linear buckets over microseconds: exact below 8 us, then 8 buckets per power of two (within 12.5%)
+    private static final class Histogram {
+        private static final int SUB_BUCKETS = 8;
+        private static final int MAX_EXPONENT = 36;   // about 19 hours
+        static final int BUCKETS = (MAX_EXPONENT - 1) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean failed) {
+            counts.incrementAndGet(bucketOf(nanos / 1_000));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (failed) errors.increment();
+        }
+
+        StatementStats snapshot(String fingerprint) {
+            long[] buckets = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                buckets[i] = counts.get(i);
+            }
+            return new StatementStats(fingerprint, count.sum(), errors.sum(), totalNanos.sum(), maxNanos.get(), buckets);
+        }
+
+        static int bucketOf(long micros) {
+            if (micros < SUB_BUCKETS) return (int) Math.max(micros, 0);
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+            int index = (exponent - 2) * SUB_BUCKETS + (int) ((micros >> (exponent - 3)) & (SUB_BUCKETS - 1));
+            return Math.min(index, BUCKETS - 1);
+        }
+
+        // Exclusive upper end of a bucket, in microseconds
+        static long upperBoundMicros(int bucket) {
+            if (bucket < SUB_BUCKETS) return bucket + 1;
+            int exponent = bucket / SUB_BUCKETS + 2;
+            long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - 3);
+            return lower + (1L << (exponent - 3));
+        }
+    }
+
+    public static final class StatementStats {
+        private final String fingerprint;
+        private final long count;
+        private final long errors;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+
+        StatementStats(String fingerprint, long count, long errors, long totalNanos, long maxNanos, long[] buckets) {
+            this.fingerprint = fingerprint;
+            this.count = count;
+            this.errors = errors;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+
+        public String getFingerprint() { return fingerprint; }
+        public long getCount() { return count; }
+        public long getErrors() { return errors; }
+        public double getTotalMillis() { return totalNanos / 1_000_000.0; }
+        public double getMaxMillis() { return maxNanos / 1_000_000.0; }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : totalNanos / 1_000_000.0 / count;
+        }
+
+        // Upper bound of the histogram bucket holding the given quantile (0..1), never above the maximum
+        public double getPercentileMillis(double quantile) {
+            long total = 0;
+            for (long c : buckets) total += c;
+            if (total == 0) return 0;
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(Histogram.upperBoundMicros(i) / 1_000.0, getMaxMillis());
+                }
+            }
+            return getMaxMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: calls=%d, total=%.1fms, p95=%.2fms, max=%.2fms, errors=%d",
+                    fingerprint, count, getTotalMillis(), getPercentileMillis(0.95), getMaxMillis(), errors);
+        }
+    }
+}
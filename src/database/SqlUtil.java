@@ -0,0 +1,66 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+public class SqlUtil {
+    // Largest IN (...) list sent in one statement; bigger id sets are split into chunks
+    public static final int IN_CHUNK_SIZE = 512;
+
+    // "?, ?, ?" for an IN (...) list with the given number of values
+    public static String placeholders(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Placeholder count must be greater than 0");
+        }
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    // Round an IN list size up to the next power of two (capped at IN_CHUNK_SIZE) so queries
+    // for different id counts share a handful of statement shapes in the statement cache.
+    // Callers pad the extra slots by repeating the last id.
+    public static int bucketSize(int count) {
+        if (count <= 1) return 1;
+        int size = Integer.highestOneBit(count - 1) << 1;
+        return Math.min(size, IN_CHUNK_SIZE);
+    }
+
+    // Bind ids into slots startIndex .. startIndex + slots - 1, repeating the last id to fill the padding
+    public static void bindPadded(PreparedStatement ps, int startIndex, List<Integer> ids, int slots) throws SQLException {
+        for (int i = 0; i < slots; i++) {
+            ps.setInt(startIndex + i, ids.get(Math.min(i, ids.size() - 1)));
+        }
+    }
+
+    // "(?, ?), (?, ?), (?, ?)" for a multi-row INSERT of rows rows with columns values each
+    public static String rowPlaceholders(int columns, int rows) {
+        if (rows <= 0) {
+            throw new IllegalArgumentException("Row count must be greater than 0");
+        }
+        String row = "(" + placeholders(columns) + ")";
+        StringBuilder sb = new StringBuilder((row.length() + 2) * rows);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    // True for a MySQL duplicate-key error (1062) on the named unique key, e.g. "email".
+    // MySQL 8 reports the key as 'table.key', older servers as just 'key'.
+    public static boolean isDuplicateKey(SQLException e, String keyName) {
+        for (SQLException current = e; current != null; current = current.getNextException()) {
+            String message = current.getMessage();
+            if (current.getErrorCode() == 1062 && message != null
+                    && (message.endsWith("'" + keyName + "'") || message.endsWith("." + keyName + "'"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
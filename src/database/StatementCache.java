@@ -0,0 +1,221 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * LRU of prepared statements owned by one pooled connection.
+ * DAOs keep calling prepareStatement/close as usual; close() on a cached
+ * statement only clears its parameters so the next borrower of the same
+ * connection can reuse the server-side prepared statement.
+ */
+final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    interface StatementFactory {
+        PreparedStatement create() throws SQLException;
+    }
+
+    // Hit/miss counters shared by every connection of a pool
+    static final class Counters {
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong evictions = new AtomicLong();
+    }
+
+    private final int maxSize;
+    private final Counters counters;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(int maxSize, Counters counters) {
+        this.maxSize = maxSize;
+        this.counters = counters;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+                counters.evictions.incrementAndGet();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    synchronized PreparedStatement prepare(String key, Connection owner, StatementFactory factory) throws SQLException {
+        if (maxSize <= 0) {
+            return factory.create();
+        }
+
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.inUse) {
+            if (!entry.statement.isClosed()) {
+                counters.hits.incrementAndGet();
+                return entry.checkOut(owner);
+            }
+            entries.remove(key);
+        } else if (entry != null) {
+            // Same SQL is already open on this connection (nested use), hand out a plain statement
+            counters.misses.incrementAndGet();
+            return factory.create();
+        }
+
+        counters.misses.incrementAndGet();
+        PreparedStatement created = factory.create();
+        try {
+            entry = new Entry(key, created);
+        } catch (SQLException e) {
+            created.close();
+            throw e;
+        }
+        entries.put(key, entry);
+        return entry.checkOut(owner);
+    }
+
+    // Called when the connection goes back to the pool: statements the borrower forgot to close become reusable
+    synchronized void releaseAll() {
+        List<Entry> dropped = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.inUse && !entry.checkIn()) {
+                dropped.add(entry);
+            }
+        }
+        dropped.forEach(e -> entries.remove(e.key));
+    }
+
+    synchronized void clear() {
+        entries.values().forEach(Entry::evict);
+        entries.clear();
+    }
+
+    private synchronized void giveBack(Entry entry) {
+        if (!entry.checkIn()) {
+            entries.remove(entry.key, entry);
+        }
+    }
+
+    private final class Entry {
+        private final String key;
+        private final PreparedStatement statement;
+        // Driver defaults, restored on check-in so e.g. a streaming fetch size does not leak to the next borrower
+        private final int defaultFetchSize;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        private Handle handle;
+        private boolean inUse;
+        private boolean evicted;
+
+        Entry(String key, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement checkOut(Connection owner) {
+            inUse = true;
+            handle = new Handle(this, owner);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                handle
+            );
+        }
+
+        // Returns false when the statement could not be reset and was closed instead
+        boolean checkIn() {
+            if (handle != null) {
+                handle.closed = true;
+                handle = null;
+            }
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return false;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != defaultFetchSize) statement.setFetchSize(defaultFetchSize);
+                if (statement.getMaxRows() != defaultMaxRows) statement.setMaxRows(defaultMaxRows);
+                if (statement.getQueryTimeout() != defaultQueryTimeout) statement.setQueryTimeout(defaultQueryTimeout);
+                return true;
+            } catch (SQLException e) {
+                closeQuietly();
+                return false;
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing cached statement", e);
+            }
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection owner;
+        private boolean closed;
+
+        Handle(Entry entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.key + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,26 +1,65 @@
 package database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
-public class connection_provider 
+public class connection_provider
 {
+    private static volatile ConnectionPool pool;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(connection_provider::shutdown, "db-pool-shutdown"));
+    }
+
+    // Borrow a pooled connection; closing it returns it to the pool
     public static Connection getCon() throws SQLException{
-        try 
+        try
         {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            return DriverManager.getConnection(
-                DatabaseConfig.URL,
-                DatabaseConfig.USER,
-                DatabaseConfig.PASSWORD
-            );
-        } 
-        catch (ClassNotFoundException | SQLException e)
+            return getPool().getConnection();
+        }
+        catch (SQLException e)
         {
-            System.err.println("DB Error: " + e.getMessage());        
+            System.err.println("DB Error: " + e.getMessage());
             throw new SQLException("Database connection failed", e);
         }
     }
-}
\ No newline at end of file
+
+    public static ConnectionPool.Stats getPoolStats() throws SQLException {
+        return getPool().getStats();
+    }
+
+    // Top-N statements by total time since startup, e.g. logged from a diagnostics action
+    public static String getQueryReport(int topN) throws SQLException {
+        return getPool().getQueryStats().report(topN);
+    }
+
+    public static QueryStats getQueryStats() throws SQLException {
+        return getPool().getQueryStats();
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (connection_provider.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        Class.forName("com.mysql.cj.jdbc.Driver");
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("MySQL JDBC driver not found", e);
+                    }
+                    current = ConnectionPool.fromConfig();
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+}
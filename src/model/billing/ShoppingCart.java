@@ -5,73 +5,128 @@ import model.pet.Pet;
 
 import java.math.BigDecimal;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
 
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
+// The running total is kept up to date on every change, so reading it never walks the cart.
+// Items must only be changed through the cart, never via BillItem.setQuantity directly.
 public class ShoppingCart {
-    private final Map<Integer, BillItem> productItems = new HashMap<>();
-    private final Map<Integer, BillItem> petItems = new HashMap<>();
+    private final Map<Integer, BillItem> productItems = new LinkedHashMap<>();
+    private final Map<Integer, BillItem> petItems = new LinkedHashMap<>();
+
+    private BigDecimal total = BigDecimal.ZERO;
+    // Snapshot handed out by getAllItems, rebuilt only after the cart changed
+    private List<BillItem> itemsView = Collections.emptyList();
+    private boolean itemsChanged;
 
-    public void addProduct(Product product, int quantity) 
+    public void addProduct(Product product, int quantity)
     {
-        productItems.compute(product.getId(), (k, v) -> {
-            if (v == null) 
-            {
-                return new BillItem(product.getId(), product.getName(), product.getPrice(), quantity,
-                                    product.getClass().getSimpleName().toUpperCase());
-            }
-            v.setQuantity(v.getQuantity() + quantity);
-            return v;
-        });
+        BillItem item = productItems.get(product.getId());
+        if (item == null)
+        {
+            item = new BillItem(product.getId(), product.getName(), product.getPrice(), quantity,
+                                product.getClass().getSimpleName().toUpperCase());
+            productItems.put(product.getId(), item);
+            itemsChanged = true;
+        }
+        else
+        {
+            item.setQuantity(item.getQuantity() + quantity);
+        }
+        total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(quantity)));
     }
 
     public void addPet(Pet pet) {
         if (!petItems.containsKey(pet.getId())) {
-            petItems.put(pet.getId(), new BillItem(pet.getId(), pet.getName(), pet.getPrice(),
-                                                   pet.getClass().getSimpleName().toUpperCase()));
+            BillItem item = new BillItem(pet.getId(), pet.getName(), pet.getPrice(),
+                                         pet.getClass().getSimpleName().toUpperCase());
+            petItems.put(pet.getId(), item);
+            total = total.add(item.getTotal());
+            itemsChanged = true;
         }
     }
 
     public void updateProductQuantity(int productId, int newQuantity)
     {
         BillItem item = productItems.get(productId);
-        
+
         if (item != null)
         {
+            int delta = newQuantity - item.getQuantity();
             item.setQuantity(newQuantity);
+            total = total.add(item.getUnitPrice().multiply(BigDecimal.valueOf(delta)));
         }
     }
 
     public void removeProduct(int productId)
     {
-        productItems.remove(productId);
+        BillItem item = productItems.remove(productId);
+        if (item != null)
+        {
+            total = total.subtract(item.getTotal());
+            itemsChanged = true;
+        }
+    }
+
+    public void removePet(int petId)
+    {
+        BillItem item = petItems.remove(petId);
+        if (item != null)
+        {
+            total = total.subtract(item.getTotal());
+            itemsChanged = true;
+        }
+    }
+
+    public BillItem getProductItem(int productId)
+    {
+        return productItems.get(productId);
+    }
+
+    public int getProductQuantity(int productId)
+    {
+        BillItem item = productItems.get(productId);
+        return item != null ? item.getQuantity() : 0;
     }
 
-    public void removePet(int petId) 
+    public boolean containsPet(int petId)
     {
-        petItems.remove(petId);
+        return petItems.containsKey(petId);
     }
 
-    public BigDecimal getTotal() 
+    public BigDecimal getTotal()
     {
-        return Stream.concat(productItems.values().stream(), petItems.values().stream())
-                     .map(BillItem::getTotal)
-                     .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return total;
+    }
+
+    // Products first, then pets, each in the order they were added. Read-only.
+    public List<BillItem> getAllItems()
+    {
+        if (itemsChanged)
+        {
+            List<BillItem> items = new ArrayList<>(productItems.size() + petItems.size());
+            items.addAll(productItems.values());
+            items.addAll(petItems.values());
+            itemsView = Collections.unmodifiableList(items);
+            itemsChanged = false;
+        }
+        return itemsView;
     }
 
-    public List<BillItem> getAllItems() 
+    public boolean isEmpty()
     {
-        return Stream.concat(productItems.values().stream(), petItems.values().stream())
-                     .collect(Collectors.toList());
+        return productItems.isEmpty() && petItems.isEmpty();
     }
 
-    public void clear() 
+    public void clear()
     {
         productItems.clear();
         petItems.clear();
+        total = BigDecimal.ZERO;
+        itemsView = Collections.emptyList();
+        itemsChanged = false;
     }
 }
@@ -16,6 +16,18 @@ public class Food extends Product
         setNutritionalInfo(nutritionalInfo);
     }
 
+    private Food(String name, BigDecimal price, int stockQuantity, LocalDate expirationDate)
+    {
+        super(name, price, stockQuantity);
+        this.expirationDate = expirationDate;
+    }
+
+    // Listing rows are read without nutritional_info; getNutritionalInfo() returns null on these
+    public static Food forListing(String name, BigDecimal price, int stockQuantity, LocalDate expirationDate)
+    {
+        return new Food(name, price, stockQuantity, expirationDate);
+    }
+
     public LocalDate getExpirationDate() { return expirationDate; }
 
     public String getNutritionalInfo() { return nutritionalInfo; }
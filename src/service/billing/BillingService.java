@@ -1,7 +1,6 @@
 package service.billing;
 
 import dao.bill.BillDAO;
-import dao.product.ProductDAO;
 
 import model.billing.Bill;
 import model.billing.BillItem;
@@ -13,8 +12,6 @@ import java.sql.SQLException;
 import java.util.List;
 
 public class BillingService {
-    
-    private final ProductDAO productDao = new ProductDAO();
 
     public BigDecimal calculateTotal(List<BillItem> items)
     {
@@ -25,18 +22,8 @@ public class BillingService {
 
     public boolean processPayment(Bill bill, List<BillItem> items) throws SQLException 
     {
-        boolean saved = BillDAO.createBill(bill, items);
-        
-        if (!saved) return false;
-
-        // Reduce product stock
-        for (BillItem item : items) 
-        {
-            if (item.getItemType() == BillItem.ItemType.PRODUCT) 
-            {
-                productDao.updateStock(item.getProductId(), -item.getQuantity());
-            }
-        }
+        // Stock check, bill, items, stock and pet updates all happen in one transaction
+        BillDAO.checkout(bill, items);
         return true;
     }
 }
@@ -0,0 +1,142 @@
+package service.billing;
+
+import dao.bill.BillDAO;
+import model.billing.Bill;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Regenerates every invoice in a date range in one pass. Bills are streamed
+ * from BillDAO and written either as pages of a single PDF (one Document and
+ * PdfWriter for the whole run) or as one PDF per bill inside a ZIP that is
+ * written as it goes. Nothing is held in memory beyond the bill being drawn.
+ */
+public class InvoiceBatchExporter {
+
+    public enum Format { SINGLE_PDF, ZIP }
+
+    public static final class Result {
+        private final int bills;
+        private final long elapsedMillis;
+
+        Result(int bills, long elapsedMillis) {
+            this.bills = bills;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getBills() { return bills; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getBillsPerSecond() {
+            return elapsedMillis == 0 ? bills : bills * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d bills in %.1f s (%.0f bills/s)", bills, elapsedMillis / 1000.0, getBillsPerSecond());
+        }
+    }
+
+    private final BillDAO billDao;
+
+    public InvoiceBatchExporter() {
+        this(new BillDAO());
+    }
+
+    public InvoiceBatchExporter(BillDAO billDao) {
+        this.billDao = billDao;
+    }
+
+    // Format follows the file name: *.zip gets one PDF per bill, anything else a single PDF
+    public Result export(LocalDate from, LocalDate to, Path target) throws IOException, SQLException {
+        Format format = target.getFileName().toString().toLowerCase().endsWith(".zip") ? Format.ZIP : Format.SINGLE_PDF;
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            return export(from, to, format, out);
+        }
+    }
+
+    // Bills with transaction_time in [from, to); the caller owns and closes out
+    public Result export(LocalDate from, LocalDate to, Format format, OutputStream out) throws IOException, SQLException {
+        long start = System.nanoTime();
+        int bills = format == Format.ZIP ? writeZip(from, to, out) : writeSinglePdf(from, to, out);
+        return new Result(bills, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int writeSinglePdf(LocalDate from, LocalDate to, OutputStream out) throws IOException, SQLException {
+        Document document = new Document();
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setFullCompression();
+            document.open();
+
+            int bills = billDao.forEachBill(from, to, bill -> {
+                document.newPage();   // no-op while the current page is still empty
+                write(document, bill);
+            });
+            if (bills == 0) {
+                // iText refuses to close a document without pages
+                document.add(new Paragraph("No bills between " + from + " and " + to.minusDays(1) + "."));
+            }
+            return bills;
+        } catch (DocumentException e) {
+            throw new IOException("Could not create the invoice document", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    private int writeZip(LocalDate from, LocalDate to, OutputStream out) throws IOException, SQLException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        int bills = billDao.forEachBill(from, to, bill -> {
+            ZipEntry entry = new ZipEntry("bill" + bill.getId() + ".pdf");
+            entry.setTime(bill.getTransactionTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            zip.putNextEntry(entry);
+
+            Document document = new Document();
+            try {
+                PdfWriter writer = PdfWriter.getInstance(document, zip);
+                writer.setCloseStream(false);   // closing the document must not close the ZIP
+                document.open();
+                write(document, bill);
+            } catch (DocumentException e) {
+                throw new IOException("Could not create the invoice for bill " + bill.getId(), e);
+            } finally {
+                if (document.isOpen()) {
+                    document.close();
+                }
+            }
+            zip.closeEntry();
+        });
+        zip.finish();
+        return bills;
+    }
+
+    private static void write(Document document, Bill bill) throws IOException {
+        try {
+            PdfGenerator.writeBill(document, bill);
+        } catch (DocumentException e) {
+            throw new IOException("Could not write the invoice for bill " + bill.getId(), e);
+        }
+    }
+}
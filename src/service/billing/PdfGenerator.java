@@ -4,76 +4,97 @@ import model.billing.Bill;
 import model.billing.BillItem;
 
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 import java.time.format.DateTimeFormatter;
 
 import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
 import com.itextpdf.text.Element;
 import com.itextpdf.text.Paragraph;
 import com.itextpdf.text.pdf.PdfWriter;
 
 public class PdfGenerator {
 
-    private static final String OUTPUT_DIR = "D:\\Project\\bill";
+    // Override with -Dpetshop.invoice.dir=...; defaults to ~/PetShop/bills
+    public static final Path OUTPUT_DIR = Paths.get(System.getProperty("petshop.invoice.dir",
+            Paths.get(System.getProperty("user.home"), "PetShop", "bills").toString()));
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+    // Synchronous render into OUTPUT_DIR; the till goes through PdfRenderQueue instead
     public static void generateBillPdf(Bill bill)
     {
-        try 
+        try
         {
-            // Ensure directory exists
-            File directory = new File(OUTPUT_DIR);
-            
-            if (!directory.exists()) 
-            {
-                directory.mkdirs();
-            }
-
-            // Construct full path with filename: invoices/bill123.pdf
-            String filePath = OUTPUT_DIR + File.separator + "bill" + bill.getId() + ".pdf";
-
-            Document document = new Document();
-            
-            PdfWriter.getInstance(document, new FileOutputStream(filePath));
-            
-            document.open();
-
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            File file = renderBill(bill, OUTPUT_DIR);
+            System.out.println("✅ Invoice PDF generated at: " + file);
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    }
 
-            document.add(new Paragraph("🐾 Pet Shop Invoice 🐾"));
-            document.add(new Paragraph("Transaction Time: " + bill.getTransactionTime().format(formatter)));
-            document.add(new Paragraph("Staff ID: " + bill.getStaffId()));
-            document.add(new Paragraph("Customer ID: " + bill.getCustomerId()));
-            document.add(new Paragraph("Payment Method: " + bill.getPaymentMethod()));
-            document.add(new Paragraph("\nItems Purchased:"));
+    // Renders to a temp file first, so a failed or retried render never leaves a half-written billN.pdf
+    public static File renderBill(Bill bill, Path directory) throws IOException, DocumentException
+    {
+        Files.createDirectories(directory);
 
-            for (BillItem item : bill.getItems()) 
+        Path target = directory.resolve("bill" + bill.getId() + ".pdf");
+        Path temp = Files.createTempFile(directory, "bill" + bill.getId() + "-", ".pdf.tmp");
+        try
+        {
+            try (OutputStream out = Files.newOutputStream(temp))
             {
-                String line = String.format
-                (
-                        "[%s] %s x%d - $%.2f",
-                        item.getItemType(),
-                        item.getItemName(),
-                        item.getQuantity(),
-                        item.getTotal()
-                );                
-                Paragraph p = new Paragraph(line);
-                
-                p.setAlignment(Element.ALIGN_LEFT);
-                
-                document.add(p);
+                Document document = new Document();
+                PdfWriter.getInstance(document, out);
+                document.open();
+                writeBill(document, bill);
+                document.close();
             }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            return target.toFile();
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
 
-            document.add(new Paragraph("\nTotal Amount: $" + bill.getTotalAmount()));
-            
-            document.close();
-
-            System.out.println("✅ Invoice PDF generated at: " + filePath);
+    // Invoice body for one bill into an open document
+    static void writeBill(Document document, Bill bill) throws DocumentException
+    {
+        document.add(new Paragraph("🐾 Pet Shop Invoice 🐾"));
+        document.add(new Paragraph("Transaction Time: " + bill.getTransactionTime().format(TIME_FORMAT)));
+        document.add(new Paragraph("Staff ID: " + bill.getStaffId()));
+        document.add(new Paragraph("Customer ID: " + bill.getCustomerId()));
+        document.add(new Paragraph("Payment Method: " + bill.getPaymentMethod()));
+        document.add(new Paragraph("\nItems Purchased:"));
 
-        } 
-        catch (Exception e)
+        for (BillItem item : bill.getItems())
         {
-            e.printStackTrace();
+            String line = String.format
+            (
+                    "[%s] %s x%d - $%.2f",
+                    item.getItemType(),
+                    item.getItemName(),
+                    item.getQuantity(),
+                    item.getTotal()
+            );
+            Paragraph p = new Paragraph(line);
+
+            p.setAlignment(Element.ALIGN_LEFT);
+
+            document.add(p);
         }
+
+        document.add(new Paragraph("\nTotal Amount: $" + bill.getTotalAmount()));
     }
 }
@@ -0,0 +1,219 @@
+package service.billing;
+
+import model.billing.Bill;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Renders invoice PDFs in the background so checkout returns as soon as the
+ * bill is committed. A small fixed pool works through a bounded queue; a
+ * failed render is retried with backoff, and the state of every recent bill
+ * can be looked up by id or observed through a listener.
+ */
+public class PdfRenderQueue {
+    private static final Logger LOGGER = Logger.getLogger(PdfRenderQueue.class.getName());
+
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 200;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_BASE_DELAY_MS = 1000;   // 1s, then 2s
+    private static final int MAX_TRACKED_JOBS = 500;        // finished jobs beyond this are forgotten
+
+    public enum Status { QUEUED, RENDERING, DONE, FAILED }
+
+    // Immutable view of one bill's render state
+    public static final class Job {
+        private final int billId;
+        private final Status status;
+        private final int attempts;
+        private final File file;
+        private final String error;
+
+        Job(int billId, Status status, int attempts, File file, String error) {
+            this.billId = billId;
+            this.status = status;
+            this.attempts = attempts;
+            this.file = file;
+            this.error = error;
+        }
+
+        public int getBillId() { return billId; }
+        public Status getStatus() { return status; }
+        public int getAttempts() { return attempts; }
+        public File getFile() { return file; }
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            return "Bill #" + billId + ": " + status + " after " + attempts + " attempt(s)" +
+                   (error != null ? " - " + error : "");
+        }
+    }
+
+    private static volatile PdfRenderQueue shared;
+
+    private final Path outputDir;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retryScheduler;
+    private final List<Consumer<Job>> listeners = new CopyOnWriteArrayList<>();
+    private final Map<Integer, Job> jobs = new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Job> eldest) {
+            return size() > MAX_TRACKED_JOBS
+                && (eldest.getValue().status == Status.DONE || eldest.getValue().status == Status.FAILED);
+        }
+    };
+
+    public PdfRenderQueue(Path outputDir) {
+        this.outputDir = outputDir;
+        this.workers = new ThreadPoolExecutor(WORKERS, WORKERS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), daemonThreads("pdf-render"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("pdf-render-retry"));
+    }
+
+    // App-wide queue writing to PdfGenerator.OUTPUT_DIR; pending renders get a few seconds to finish on exit
+    public static PdfRenderQueue shared() {
+        PdfRenderQueue current = shared;
+        if (current == null) {
+            synchronized (PdfRenderQueue.class) {
+                current = shared;
+                if (current == null) {
+                    current = new PdfRenderQueue(PdfGenerator.OUTPUT_DIR);
+                    PdfRenderQueue queue = current;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> queue.shutdown(10, TimeUnit.SECONDS), "pdf-render-shutdown"));
+                    shared = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Returns immediately; the bill must already have its id and items
+    public void submit(Bill bill) {
+        update(bill.getId(), Status.QUEUED, 0, null, null);
+        enqueue(bill, 1);
+    }
+
+    // Re-queue a bill whose render failed; false when the bill is unknown or not failed
+    public boolean retry(Bill bill) {
+        Job job = getJob(bill.getId());
+        if (job == null || job.status != Status.FAILED) return false;
+        submit(bill);
+        return true;
+    }
+
+    public Job getJob(int billId) {
+        synchronized (jobs) {
+            return jobs.get(billId);
+        }
+    }
+
+    public List<Job> getJobs(Status status) {
+        List<Job> matching = new ArrayList<>();
+        synchronized (jobs) {
+            for (Job job : jobs.values()) {
+                if (job.status == status) matching.add(job);
+            }
+        }
+        return matching;
+    }
+
+    public int getPendingCount() {
+        return workers.getQueue().size() + workers.getActiveCount();
+    }
+
+    // Called on a worker thread after every status change
+    public void addListener(Consumer<Job> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Job> listener) {
+        listeners.remove(listener);
+    }
+
+    public void shutdown(long timeout, TimeUnit unit) {
+        retryScheduler.shutdownNow();
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(timeout, unit)) {
+                LOGGER.warning("Invoice renders still pending at shutdown: " + workers.getQueue().size());
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void enqueue(Bill bill, int attempt) {
+        try {
+            workers.execute(() -> render(bill, attempt));
+        } catch (RejectedExecutionException e) {
+            update(bill.getId(), Status.FAILED, attempt - 1, null,
+                    workers.isShutdown() ? "Render queue is shut down" : "Render queue is full");
+        }
+    }
+
+    private void render(Bill bill, int attempt) {
+        update(bill.getId(), Status.RENDERING, attempt, null, null);
+        try {
+            File file = PdfGenerator.renderBill(bill, outputDir);
+            update(bill.getId(), Status.DONE, attempt, file, null);
+        } catch (Exception e) {
+            if (attempt < MAX_ATTEMPTS && !retryScheduler.isShutdown()) {
+                LOGGER.log(Level.FINE, "Invoice render failed for bill " + bill.getId() + ", retrying", e);
+                update(bill.getId(), Status.QUEUED, attempt, null, e.getMessage());
+                long delay = RETRY_BASE_DELAY_MS << (attempt - 1);
+                try {
+                    retryScheduler.schedule(() -> enqueue(bill, attempt + 1), delay, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (RejectedExecutionException ignored) {
+                    // shutting down, fall through and report the failure
+                }
+            }
+            LOGGER.log(Level.WARNING, "Invoice render failed for bill " + bill.getId(), e);
+            update(bill.getId(), Status.FAILED, attempt, null, e.getMessage());
+        }
+    }
+
+    private void update(int billId, Status status, int attempts, File file, String error) {
+        Job job = new Job(billId, status, attempts, file, error);
+        synchronized (jobs) {
+            jobs.remove(billId);   // re-insert so the map stays in order of last change
+            jobs.put(billId, job);
+        }
+        for (Consumer<Job> listener : listeners) {
+            try {
+                listener.accept(job);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Render listener failed", e);
+            }
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
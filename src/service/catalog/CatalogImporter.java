@@ -0,0 +1,428 @@
+package service.catalog;
+
+import dao.pet.PetDAO;
+import dao.product.ProductDAO;
+import database.connection_provider;
+import model.pet.Pet;
+import model.product.Product;
+import util.csv.CsvReader;
+import util.factory.PetFactory;
+import util.factory.ProductFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Bulk import of products and pets from CSV, for supplier deliveries too big
+ * for the form dialogs. The file is read in chunks; each chunk is converted and
+ * validated through ProductFactory/PetFactory on a parser pool while earlier
+ * chunks are written, and every chunk is written with multi-row upserts in its
+ * own transaction. Rows with an id overwrite that product or pet, rows without
+ * one are added. An overwritten product keeps its stock level, so stock_quantity
+ * only applies to new products, and is back on sale if it has stock. Rows for a
+ * pet that was sold or deleted are rejected. Invalid rows are rejected with
+ * their line number and reason and do not stop the import.
+ *
+ * Columns are matched by header name, case-insensitively, and unknown columns
+ * are ignored, so the catalogue exports can be edited and imported back.
+ * Products: id, name, type, price, stock_quantity, material, expiration_date,
+ * nutritional_info, manufacture_date, dosage. Pets: id, name, type, breed,
+ * age, price. Dates are yyyy-MM-dd.
+ */
+public class CatalogImporter {
+    private static final Logger LOGGER = Logger.getLogger(CatalogImporter.class.getName());
+
+    // Rows parsed together and committed in one transaction
+    public static final int CHUNK_SIZE = 2000;
+    // Only the first rejections are kept for the report; all of them are counted
+    public static final int MAX_REJECTIONS_KEPT = 1000;
+
+    private static final int PARSERS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+
+    public static final class Rejection {
+        private final long line;
+        private final String reason;
+
+        Rejection(long line, String reason) {
+            this.line = line;
+            this.reason = reason;
+        }
+
+        public long getLine() { return line; }
+        public String getReason() { return reason; }
+
+        @Override
+        public String toString() {
+            return "Line " + line + ": " + reason;
+        }
+    }
+
+    public static final class Result {
+        private final long rows;
+        private final long imported;
+        private final long rejectedCount;
+        private final List<Rejection> rejections;
+        private final long elapsedMillis;
+
+        Result(long rows, long imported, long rejectedCount, List<Rejection> rejections, long elapsedMillis) {
+            this.rows = rows;
+            this.imported = imported;
+            this.rejectedCount = rejectedCount;
+            this.rejections = Collections.unmodifiableList(rejections);
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRows() { return rows; }
+        public long getImported() { return imported; }
+        public long getRejectedCount() { return rejectedCount; }
+        // At most MAX_REJECTIONS_KEPT, in file order
+        public List<Rejection> getRejections() { return rejections; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d of %d rows imported, %d rejected, in %.1f s (%.0f rows/s)",
+                                 imported, rows, rejectedCount, elapsedMillis / 1000.0, getRowsPerSecond());
+        }
+    }
+
+    // Builds one entity from a record; IllegalArgumentException rejects the row with its message
+    private interface RowParser<T> {
+        T parse(String[] record);
+    }
+
+    // Writes the rows it accepts and returns the positions of the ones it refused, with the reason
+    private interface ChunkWriter<T> {
+        Map<Integer, String> write(Connection conn, List<T> rows) throws SQLException;
+    }
+
+    // A chunk after parsing: the valid rows plus the rejected ones, in file order
+    private static final class ParsedChunk<T> {
+        final List<T> rows = new ArrayList<>();
+        final List<Long> rowLines = new ArrayList<>();
+        final List<Rejection> rejections = new ArrayList<>();
+    }
+
+    public Result importProducts(Path file) throws IOException, SQLException {
+        return run(file, CatalogImporter::productParser, CatalogImporter::writeProducts,
+                   products -> ProductDAO.invalidate(ids(products, Product::getId)));
+    }
+
+    public Result importPets(Path file) throws IOException, SQLException {
+        return run(file, CatalogImporter::petParser, CatalogImporter::writePets,
+                   pets -> PetDAO.invalidate(ids(pets, Pet::getId)));
+    }
+
+    private static Map<Integer, String> writeProducts(Connection conn, List<Product> products) throws SQLException {
+        ProductDAO.upsertAll(conn, products);
+        return Collections.emptyMap();
+    }
+
+    // A sold or deleted pet is refused: overwriting it must not put it back on sale
+    private static Map<Integer, String> writePets(Connection conn, List<Pet> pets) throws SQLException {
+        Set<Integer> retired = PetDAO.retiredIds(conn, ids(pets, Pet::getId));
+        if (retired.isEmpty()) {
+            PetDAO.upsertAll(conn, pets);
+            return Collections.emptyMap();
+        }
+
+        Map<Integer, String> refused = new HashMap<>();
+        List<Pet> accepted = new ArrayList<>(pets.size());
+        for (int i = 0; i < pets.size(); i++) {
+            Pet pet = pets.get(i);
+            if (retired.contains(pet.getId())) {
+                refused.put(i, "Pet " + pet.getId() + " has been sold or deleted");
+            } else {
+                accepted.add(pet);
+            }
+        }
+        PetDAO.upsertAll(conn, accepted);
+        return refused;
+    }
+
+    private static RowParser<Product> productParser(Columns columns) {
+        int id = columns.optional("id");
+        int name = columns.required("name");
+        int type = columns.required("type");
+        int price = columns.required("price");
+        int stock = columns.required("stock_quantity");
+        int material = columns.optional("material");
+        int expiration = columns.optional("expiration_date");
+        int nutritional = columns.optional("nutritional_info");
+        int manufacture = columns.optional("manufacture_date");
+        int dosage = columns.optional("dosage");
+
+        return record -> {
+            String kind = text(record, type, "type").toUpperCase(Locale.ROOT);
+            Product product = switch (kind) {
+                case "TOY" -> ProductFactory.createToy(text(record, name, "name"), decimal(record, price, "price"),
+                        integer(record, stock, "stock_quantity"), text(record, material, "material"));
+                case "FOOD" -> ProductFactory.createFood(text(record, name, "name"), decimal(record, price, "price"),
+                        integer(record, stock, "stock_quantity"), date(record, expiration, "expiration_date"),
+                        text(record, nutritional, "nutritional_info"));
+                case "MEDICINE" -> ProductFactory.createMedicine(text(record, name, "name"), decimal(record, price, "price"),
+                        integer(record, stock, "stock_quantity"), text(record, dosage, "dosage"),
+                        date(record, manufacture, "manufacture_date"), date(record, expiration, "expiration_date"));
+                default -> throw new IllegalArgumentException("Invalid product type: " + kind);
+            };
+            int productId = optionalId(record, id);
+            if (productId > 0) product.setId(productId);
+            return product;
+        };
+    }
+
+    private static RowParser<Pet> petParser(Columns columns) {
+        int id = columns.optional("id");
+        int name = columns.required("name");
+        int type = columns.required("type");
+        int breed = columns.required("breed");
+        int age = columns.required("age");
+        int price = columns.required("price");
+
+        return record -> {
+            Pet pet = PetFactory.create(text(record, type, "type"), text(record, name, "name"),
+                    text(record, breed, "breed"), integer(record, age, "age"), decimal(record, price, "price"));
+            int petId = optionalId(record, id);
+            if (petId > 0) pet.setId(petId);
+            return pet;
+        };
+    }
+
+    private <T> Result run(Path file, Function<Columns, RowParser<T>> parserFor, ChunkWriter<T> writer,
+                           Consumer<List<T>> afterCommit) throws IOException, SQLException {
+        long start = System.nanoTime();
+        long rows = 0;
+        long imported = 0;
+        long rejected = 0;
+        List<Rejection> rejections = new ArrayList<>();
+
+        ExecutorService parsers = Executors.newFixedThreadPool(PARSERS, daemonThreads());
+        try (CsvReader reader = CsvReader.open(file);
+             Connection conn = connection_provider.getCon()) {
+
+            String[] header = reader.readRecord();
+            if (header == null) {
+                return new Result(0, 0, 0, rejections, 0);
+            }
+            RowParser<T> parser = parserFor.apply(new Columns(header));
+
+            // Chunks in file order; a few are parsed ahead while the oldest is written
+            Deque<Future<ParsedChunk<T>>> pending = new ArrayDeque<>();
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                while (true) {
+                    List<String[]> records = new ArrayList<>(CHUNK_SIZE);
+                    long[] lines = new long[CHUNK_SIZE];
+                    String[] record;
+                    while (records.size() < CHUNK_SIZE && (record = reader.readRecord()) != null) {
+                        lines[records.size()] = reader.getRecordLine();
+                        records.add(record);
+                    }
+                    if (!records.isEmpty()) {
+                        rows += records.size();
+                        pending.add(parsers.submit(() -> parse(records, lines, parser)));
+                    }
+
+                    boolean done = records.size() < CHUNK_SIZE;
+                    while (!pending.isEmpty() && (done || pending.size() > PARSERS)) {
+                        ParsedChunk<T> chunk = await(pending.poll());
+                        List<Rejection> chunkRejections = chunk.rejections;
+                        if (!chunk.rows.isEmpty()) {
+                            try {
+                                Map<Integer, String> refused = writer.write(conn, chunk.rows);
+                                conn.commit();
+                                imported += chunk.rows.size() - refused.size();
+                                afterCommit.accept(chunk.rows);
+                                if (!refused.isEmpty()) {
+                                    chunkRejections = withRefused(chunk, refused);
+                                }
+                            } catch (SQLException e) {
+                                conn.rollback();
+                                chunkRejections = rejectChunk(chunk, e);
+                            }
+                        }
+                        rejected += chunkRejections.size();
+                        for (Rejection rejection : chunkRejections) {
+                            if (rejections.size() < MAX_REJECTIONS_KEPT) rejections.add(rejection);
+                        }
+                    }
+                    if (done) break;
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } finally {
+            parsers.shutdownNow();
+        }
+
+        Result result = new Result(rows, imported, rejected, rejections, (System.nanoTime() - start) / 1_000_000);
+        LOGGER.info("Imported " + file.getFileName() + ": " + result);
+        return result;
+    }
+
+    private static <T> ParsedChunk<T> parse(List<String[]> records, long[] lines, RowParser<T> parser) {
+        ParsedChunk<T> chunk = new ParsedChunk<>();
+        for (int i = 0; i < records.size(); i++) {
+            try {
+                chunk.rows.add(parser.parse(records.get(i)));
+                chunk.rowLines.add(lines[i]);
+            } catch (IllegalArgumentException e) {
+                chunk.rejections.add(new Rejection(lines[i], e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    // A chunk the database refused is rejected as a whole, so the report still accounts for every row
+    private static List<Rejection> rejectChunk(ParsedChunk<?> chunk, SQLException e) {
+        String reason = "Database error: " + e.getMessage();
+        List<Rejection> all = new ArrayList<>(chunk.rejections);
+        for (long line : chunk.rowLines) {
+            all.add(new Rejection(line, reason));
+        }
+        all.sort(Comparator.comparingLong(Rejection::getLine));
+        return all;
+    }
+
+    private static List<Rejection> withRefused(ParsedChunk<?> chunk, Map<Integer, String> refused) {
+        List<Rejection> all = new ArrayList<>(chunk.rejections);
+        refused.forEach((row, reason) -> all.add(new Rejection(chunk.rowLines.get(row), reason)));
+        all.sort(Comparator.comparingLong(Rejection::getLine));
+        return all;
+    }
+
+    private static <T> ParsedChunk<T> await(Future<ParsedChunk<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not parse the import file", e.getCause());
+        }
+    }
+
+    private static <T> List<Integer> ids(List<T> rows, Function<T, Integer> idOf) {
+        List<Integer> ids = new ArrayList<>();
+        for (T row : rows) {
+            int id = idOf.apply(row);
+            if (id > 0) ids.add(id);
+        }
+        return ids;
+    }
+
+    // Header positions by lower-case name
+    private static final class Columns {
+        private final Map<String, Integer> index = new HashMap<>();
+
+        Columns(String[] header) {
+            for (int i = 0; i < header.length; i++) {
+                index.putIfAbsent(header[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        int required(String name) {
+            Integer i = index.get(name);
+            if (i == null) {
+                throw new IllegalArgumentException("Import file has no '" + name + "' column");
+            }
+            return i;
+        }
+
+        // -1 when the file does not have the column
+        int optional(String name) {
+            return index.getOrDefault(name, -1);
+        }
+    }
+
+    // Trimmed value, or null when the column is missing or the cell is blank
+    private static String value(String[] record, int column) {
+        if (column < 0 || column >= record.length) return null;
+        String value = record[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(String[] record, int column, String name) {
+        String value = value(record, column);
+        if (value == null) throw new IllegalArgumentException(name + " is required");
+        return value;
+    }
+
+    private static int integer(String[] record, int column, String name) {
+        String value = text(record, column, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a whole number: " + value);
+        }
+    }
+
+    private static BigDecimal decimal(String[] record, int column, String name) {
+        String value = text(record, column, name);
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    private static LocalDate date(String[] record, int column, String name) {
+        String value = text(record, column, name);
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(name + " is not a yyyy-MM-dd date: " + value);
+        }
+    }
+
+    // 0 when the row has no id, i.e. is a new product or pet
+    private static int optionalId(String[] record, int column) {
+        String value = value(record, column);
+        if (value == null) return 0;
+        try {
+            int id = Integer.parseInt(value);
+            if (id <= 0) throw new IllegalArgumentException("id must be positive: " + value);
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("id is not a whole number: " + value);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, "catalog-import-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
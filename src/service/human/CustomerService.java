@@ -1,14 +1,17 @@
 package service.human;
 
 import dao.customer.CustomerDAO;
+import database.SqlUtil;
 import model.user.Customer;
 import java.sql.SQLException;
-import java.util.List;
 import java.util.regex.Pattern;
 
 public class CustomerService {
     
     private static final CustomerDAO customerDAO = new CustomerDAO();
+
+    private static final String EMAIL_IN_USE = "This email is already in use";
+    private static final String EMAIL_USED_BY_OTHER = "This email is already used by another customer";
     
     // Regex patterns for validation
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
@@ -55,59 +58,50 @@ public class CustomerService {
         }
     }
     
-    public void validateCustomerForCreate(String name, String email, String phone, int loyalty) {
-        // Validate basic data first
-        validateCustomerData(name, email, phone, loyalty);
-        
-        // Check for duplicates
+    // Validates, trims and inserts. Email uniqueness is left to the unique key, so a signup costs
+    // one phone lookup plus the insert, and two concurrent signups with one email cannot both succeed.
+    public Customer createCustomer(Customer customer) throws SQLException {
+        validateCustomerData(customer.getName(), customer.getEmail(), customer.getPhone(), customer.getLoyaltyPoints());
+        checkPhoneFree(customer.getPhone(), 0);
+        trim(customer);
+
         try {
-            List<Customer> existingCustomers = customerDAO.getAllCustomers();
-            
-            boolean emailExists = existingCustomers.stream()
-                .anyMatch(c -> c.getEmail().equalsIgnoreCase(email.trim()));
-            
-            if (emailExists) {
-                throw new IllegalArgumentException("This email is already in use");
-            }
-            
-            boolean phoneExists = existingCustomers.stream()
-                .anyMatch(c -> c.getPhone().equals(phone.trim()));
-            
-            if (phoneExists) {
-                throw new IllegalArgumentException("This phone number is already in use");
-            }
-            
+            return customerDAO.saveCustomer(customer);
         } catch (SQLException e) {
-            throw new RuntimeException("Error checking for duplicate data: " + e.getMessage());
+            if (SqlUtil.isDuplicateKey(e, "email")) {
+                throw new IllegalArgumentException(EMAIL_IN_USE);
+            }
+            throw e;
         }
     }
-    
-    public void validateCustomerForUpdate(Customer existingCustomer, String name, String email, String phone, int loyalty) {
-        // Validate basic data first
-        validateCustomerData(name, email, phone, loyalty);
-        
-        // Check for duplicates (excluding current customer)
+
+    // Same as createCustomer for an existing row; false when the customer no longer exists
+    public boolean updateCustomer(Customer customer) throws SQLException {
+        validateCustomerData(customer.getName(), customer.getEmail(), customer.getPhone(), customer.getLoyaltyPoints());
+        checkPhoneFree(customer.getPhone(), customer.getId());
+        trim(customer);
+
         try {
-            List<Customer> allCustomers = customerDAO.getAllCustomers();
-            
-            boolean emailExists = allCustomers.stream()
-                .anyMatch(c -> c.getId() != existingCustomer.getId() && 
-                              c.getEmail().equalsIgnoreCase(email.trim()));
-            
-            if (emailExists) {
-                throw new IllegalArgumentException("This email is already used by another customer");
-            }
-            
-            boolean phoneExists = allCustomers.stream()
-                .anyMatch(c -> c.getId() != existingCustomer.getId() && 
-                              c.getPhone().equals(phone.trim()));
-            
-            if (phoneExists) {
-                throw new IllegalArgumentException("This phone number is already used by another customer");
-            }
-            
+            return customerDAO.updateCustomer(customer);
         } catch (SQLException e) {
-            throw new RuntimeException("Error checking for duplicate data: " + e.getMessage());
+            if (SqlUtil.isDuplicateKey(e, "email")) {
+                throw new IllegalArgumentException(EMAIL_USED_BY_OTHER);
+            }
+            throw e;
         }
     }
+
+    private void checkPhoneFree(String phone, int customerId) throws SQLException {
+        if (customerDAO.existsByPhoneExcludingId(phone.trim(), customerId)) {
+            throw new IllegalArgumentException(customerId > 0
+                ? "This phone number is already used by another customer"
+                : "This phone number is already in use");
+        }
+    }
+
+    private static void trim(Customer customer) {
+        customer.setName(customer.getName().trim());
+        customer.setEmail(customer.getEmail().trim());
+        customer.setPhone(customer.getPhone().trim());
+    }
 }
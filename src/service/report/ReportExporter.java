@@ -0,0 +1,139 @@
+package service.report;
+
+import dao.bill.BillDAO;
+import dao.dashboard.DashboardStatsDAO;
+import dao.product.ProductDAO;
+import dao.report.ReportExportDAO;
+import util.csv.CsvWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV exports for the Reports screen. Summary figures are computed once per
+ * export (one aggregate query instead of a controller call per cell), and
+ * listings are streamed from the database row by row.
+ */
+public class ReportExporter {
+
+    public enum Section { SALES, FINANCIAL, PETS, INVENTORY, CUSTOMERS, STAFF }
+
+    // Called from the exporting thread; total is -1 while unknown
+    public interface Progress {
+        void update(long rows, long total);
+    }
+
+    private static final DateTimeFormatter GENERATED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final DashboardStatsDAO statsDao = new DashboardStatsDAO();
+    private final ReportExportDAO exportDao = new ReportExportDAO();
+    private final BillDAO billDao = new BillDAO();
+
+    // Returns the number of data rows written
+    public long exportSection(Section section, String title, Path file, Progress progress)
+            throws IOException, SQLException {
+        DashboardStatsDAO.Stats stats = statsDao.getStats();
+        long rows;
+
+        try (CsvWriter out = CsvWriter.open(file)) {
+            out.writeRow("Pet Shop Report - " + title);
+            out.writeRow("Generated: " + LocalDateTime.now().format(GENERATED_FORMAT));
+            out.newLine();
+
+            switch (section) {
+                case SALES -> {
+                    out.writeRow("Metric", "Value");
+                    out.writeRow("Total Orders", stats.getTotalOrders());
+                    out.writeRow("Total Revenue", "$" + stats.getTotalRevenue());
+                    out.writeRow("Average Order Value", "$" + stats.getAverageOrderValue());
+                    out.writeRow("Best Month", billDao.getBestMonth());
+                    rows = 4;
+                }
+                case FINANCIAL -> {
+                    BigDecimal revenue = stats.getTotalRevenue();
+                    BigDecimal costs = revenue.multiply(BigDecimal.valueOf(0.6));
+                    BigDecimal profit = revenue.subtract(costs);
+                    String margin = revenue.signum() > 0
+                        ? String.format("%.1f%%", profit.divide(revenue, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue())
+                        : "0%";
+
+                    out.writeRow("Financial Metric", "Amount");
+                    out.writeRow("Total Revenue", "$" + revenue);
+                    out.writeRow("Estimated Costs", "$" + costs);
+                    out.writeRow("Estimated Profit", "$" + profit);
+                    out.writeRow("Profit Margin", margin);
+                    out.writeRow("Growth Rate", "Pending Analysis");
+                    out.writeRow("ROI", "Under Development");
+                    rows = 6;
+                }
+                case PETS -> {
+                    int available = stats.getTotalPets();
+                    int sold = billDao.getSoldPetsCount();
+
+                    out.writeRow("Pet Statistic", "Count");
+                    out.writeRow("Available Pets", available);
+                    out.writeRow("Sold Pets", sold);
+                    out.writeRow("Total Processed", available + sold);
+                    out.newLine();
+                    rows = exportDao.writePets(out, n -> progress.update(n, available));
+                }
+                case INVENTORY -> {
+                    int total = stats.getTotalProducts();
+                    int outOfStock = ProductDAO.getLowStockCount(0);
+                    int lowStock = stats.getLowStockProducts() - outOfStock;
+
+                    out.writeRow("Inventory Metric", "Count");
+                    out.writeRow("Total Products", total);
+                    out.writeRow("Low Stock", lowStock);
+                    out.writeRow("Out of Stock", outOfStock);
+                    out.writeRow("Well Stocked", total - lowStock - outOfStock);
+                    out.newLine();
+                    rows = exportDao.writeProducts(DashboardStatsDAO.DEFAULT_LOW_STOCK_THRESHOLD, out,
+                                                   n -> progress.update(n, total));
+                }
+                case CUSTOMERS -> {
+                    out.writeRow("Customer Metric", "Count");
+                    out.writeRow("Total Customers", stats.getTotalCustomers());
+                    out.writeRow("Active Customers", billDao.getActiveCustomersCount());
+                    out.writeRow("New This Month", billDao.getNewCustomersThisMonth());
+                    rows = 3;
+                }
+                case STAFF -> {
+                    out.writeRow("Staff Metric", "Value");
+                    out.writeRow("Total Staff", stats.getTotalStaff());
+                    out.writeRow("Total Orders", stats.getTotalOrders());
+                    out.writeRow("Total Revenue", "$" + stats.getTotalRevenue());
+                    out.newLine();
+
+                    LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+                    out.writeRow("Leaderboard " + monthStart.getMonth() + " " + monthStart.getYear());
+                    out.writeRow("Rank", "Staff ID", "Staff", "Orders", "Revenue", "Avg Basket", "Items Sold");
+                    int rank = 0;
+                    for (BillDAO.StaffPerformance performance : billDao.getStaffLeaderboard(monthStart, monthStart.plusMonths(1))) {
+                        out.writeRow(++rank, performance.getStaffId(), performance.getStaffName(), performance.getOrders(),
+                                     performance.getRevenue(), performance.getAverageBasket(), performance.getItemsSold());
+                    }
+                    rows = 3 + rank;
+                }
+                default -> throw new IllegalArgumentException("Unknown report section: " + section);
+            }
+        }
+        return rows;
+    }
+
+    // Every bill item in [from, to), one line each
+    public long exportBillLines(LocalDate from, LocalDate to, Path file, Progress progress)
+            throws IOException, SQLException {
+        long total = exportDao.countBillLines(from, to);
+        progress.update(0, total);
+        try (CsvWriter out = CsvWriter.open(file)) {
+            return exportDao.writeBillLines(from, to, out, n -> progress.update(n, total));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package util.csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 style CSV, the counterpart of CsvWriter: quoted fields may
+ * hold commas, doubled quotes and line breaks. Records are returned one at a
+ * time, so a file of any size is read in constant memory.
+ */
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;   // -2 when nothing was pushed back
+    private long line = 1;
+    private long recordLine;
+
+    public CsvReader(Reader in) {
+        this.in = in instanceof BufferedReader ? in : new BufferedReader(in, BUFFER_SIZE);
+    }
+
+    // UTF-8, skipping the byte order mark CsvWriter and Excel put in front
+    public static CsvReader open(Path file) throws IOException {
+        CsvReader reader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        int first = reader.read();
+        if (first != '\uFEFF') {
+            reader.pushedBack = first;
+        }
+        return reader;
+    }
+
+    // The next record, or null at the end of the input. Blank lines are skipped.
+    public String[] readRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) return null;
+
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        while (true) {
+            field.setLength(0);
+            if (c == '"') {
+                c = readQuoted();
+            } else {
+                while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(field.toString());
+
+            if (c == ',') {
+                c = read();
+                continue;
+            }
+            if (c == '\r') {
+                int next = read();
+                if (next != '\n') pushedBack = next;
+            }
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    // Line on which the record last returned by readRecord started, counting from 1
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // Reads a quoted field into field, starting after the opening quote; returns the character after it
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Unterminated quoted field starting on line " + recordLine);
+            }
+            if (c == '"') {
+                c = read();
+                if (c != '"') {
+                    // Closing quote; anything up to the next separator is kept as written
+                    while (c != ',' && c != '\r' && c != '\n' && c != -1) {
+                        field.append((char) c);
+                        c = read();
+                    }
+                    return c;
+                }
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushedBack != -2) {
+            c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        c = in.read();
+        if (c == '\n') line++;
+        return c;
+    }
+}
@@ -0,0 +1,108 @@
+package util.csv;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * RFC 4180 style CSV through a large buffer. Rows are written straight from
+ * a ResultSet cursor, so an export never has to hold a table in memory.
+ */
+public class CsvWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+
+    public CsvWriter(Writer out) {
+        this.out = out instanceof BufferedWriter ? out : new BufferedWriter(out, BUFFER_SIZE);
+    }
+
+    // UTF-8 with a byte order mark, so Excel shows names with accents correctly
+    public static CsvWriter open(Path file) throws IOException {
+        OutputStream stream = Files.newOutputStream(file);
+        try {
+            stream.write(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF });
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return new CsvWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    }
+
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            writeField(values[i] instanceof BigDecimal d ? d.toPlainString() : values[i] == null ? null : values[i].toString());
+        }
+        out.write("\r\n");
+    }
+
+    // Column labels of the query as the header row
+    public void writeHeader(ResultSetMetaData meta) throws SQLException, IOException {
+        int columns = meta.getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) out.write(',');
+            writeField(meta.getColumnLabel(i));
+        }
+        out.write("\r\n");
+    }
+
+    // Current row of rs; values are taken as the driver's text, without decoding to Java types
+    public void writeRow(ResultSet rs, int columns) throws SQLException, IOException {
+        for (int i = 1; i <= columns; i++) {
+            if (i > 1) out.write(',');
+            writeField(rs.getString(i));
+        }
+        out.write("\r\n");
+    }
+
+    public void newLine() throws IOException {
+        out.write("\r\n");
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) return;
+        if (!needsQuotes(value)) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                out.write(value, start, i - start + 1);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') return true;
+        }
+        return false;
+    }
+}
@@ -1,7 +1,6 @@
 package util.ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.util.function.Consumer;
 
@@ -36,7 +35,11 @@ public class ButtonCellEditor<T> extends DefaultCellEditor {
 
             if (row < 0 || row >= table.getRowCount()) return;
 
-            T entity = mapper.mapRow((DefaultTableModel) table.getModel(), row);
+            T entity = mapper.mapRow(table.getModel(), row);
+            if (entity == null) {   // row not available (e.g. still loading): ignore the click
+                fireEditingStopped();
+                return;
+            }
 
             switch (action) {
                 case "update" -> {
@@ -0,0 +1,69 @@
+package util.ui;
+
+import service.catalog.CatalogImporter;
+
+import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import java.awt.*;
+import java.nio.file.Path;
+
+// "Import CSV" button behaviour shared by the catalogue panels: pick a file, import it off the EDT, show the outcome
+public final class CsvImportTask {
+    // Rejections listed in the result dialog; the rest are only counted
+    private static final int REJECTIONS_SHOWN = 15;
+
+    public interface Job {
+        CatalogImporter.Result run(Path file) throws Exception;
+    }
+
+    private CsvImportTask() {}
+
+    // onImported runs on the EDT after an import that added or updated at least one row
+    public static void chooseAndRun(Component parent, JButton trigger, String what, Job job, Runnable onImported) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV", "csv"));
+        if (chooser.showOpenDialog(parent) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+
+        trigger.setEnabled(false);
+        parent.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<CatalogImporter.Result, Void>() {
+            @Override
+            protected CatalogImporter.Result doInBackground() throws Exception {
+                return job.run(file);
+            }
+
+            @Override
+            protected void done() {
+                trigger.setEnabled(true);
+                parent.setCursor(Cursor.getDefaultCursor());
+                try {
+                    CatalogImporter.Result result = get();
+                    if (result.getImported() > 0) onImported.run();
+                    JOptionPane.showMessageDialog(parent, summary(result), "Import " + what,
+                        result.getRejectedCount() == 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(parent, "Error importing " + what.toLowerCase() + ": " + cause.getMessage(),
+                        "Import Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private static String summary(CatalogImporter.Result result) {
+        StringBuilder text = new StringBuilder(result.toString());
+        int shown = Math.min(REJECTIONS_SHOWN, result.getRejections().size());
+        if (shown > 0) {
+            text.append("\n\nRejected rows:");
+            for (int i = 0; i < shown; i++) {
+                text.append('\n').append(result.getRejections().get(i));
+            }
+            if (result.getRejectedCount() > shown) {
+                text.append("\n... and ").append(result.getRejectedCount() - shown).append(" more");
+            }
+        }
+        return text.toString();
+    }
+}
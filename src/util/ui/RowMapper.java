@@ -1,8 +1,8 @@
 package util.ui;
 
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 
 public interface RowMapper<T> 
 {
-    T mapRow(DefaultTableModel model, int row);
+    T mapRow(TableModel model, int row);
 }
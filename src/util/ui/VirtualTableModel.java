@@ -0,0 +1,193 @@
+package util.ui;
+
+import dao.page.Page;
+import dao.page.PageCursor;
+
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BiFunction;
+
+/**
+ * Table model that only keeps the rows around the viewport in memory.
+ * Rows are fetched in blocks from a RowSource on a background thread the
+ * first time JTable asks for them, and cell values are rendered from the
+ * row object on demand. At most MAX_CACHED_BLOCKS blocks are kept, so memory
+ * stays the same whether the table has a thousand rows or a million.
+ */
+public class VirtualTableModel<T> extends AbstractTableModel {
+    private static final int BLOCK_SIZE = 200;
+    private static final int MAX_CACHED_BLOCKS = 20;
+
+    public interface RowSource<T> {
+        int count();
+
+        // Keyset page after the cursor, or (cursor == null) the rows starting at offset
+        Page<T> load(PageCursor after, int offset, int limit);
+
+        static <T> RowSource<T> of(List<T> rows) {
+            return new RowSource<>() {
+                @Override
+                public int count() {
+                    return rows.size();
+                }
+
+                @Override
+                public Page<T> load(PageCursor after, int offset, int limit) {
+                    int from = Math.min(offset, rows.size());
+                    return new Page<>(rows.subList(from, Math.min(from + limit, rows.size())), null);
+                }
+            };
+        }
+    }
+
+    private final String[] columns;
+    private final BiFunction<T, Integer, Object> cellValue;
+    private final Set<Integer> editableColumns = new HashSet<>();
+
+    private RowSource<T> source;
+    private int rowCount;
+    // Bumped on every reload so results of fetches started before it are dropped
+    private int generation;
+
+    private final Map<Integer, List<T>> blocks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+    // Cursor right before the first row of a block, known once the previous block was loaded;
+    // lets sequential scrolling seek by key instead of OFFSET
+    private final Map<Integer, PageCursor> blockStarts = new HashMap<>();
+    private final Set<Integer> pendingBlocks = new HashSet<>();
+
+    public VirtualTableModel(String[] columns, BiFunction<T, Integer, Object> cellValue, int... editableColumns) {
+        this.columns = columns;
+        this.cellValue = cellValue;
+        for (int col : editableColumns) {
+            this.editableColumns.add(col);
+        }
+    }
+
+    public void setSource(RowSource<T> source) {
+        this.source = source;
+        reload();
+    }
+
+    // Drop everything cached and recount, e.g. after an insert or delete
+    public void reload() {
+        generation++;
+        blocks.clear();
+        blockStarts.clear();
+        pendingBlocks.clear();
+        rowCount = 0;
+        fireTableDataChanged();
+
+        if (source == null) return;
+
+        int requestGeneration = generation;
+        RowSource<T> requestSource = source;
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return requestSource.count();
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) return;
+                try {
+                    rowCount = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    rowCount = 0;
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    // Row object for a view row, or null while its block is still loading
+    public T getRow(int row) {
+        if (row < 0 || row >= rowCount) return null;
+
+        int block = row / BLOCK_SIZE;
+        List<T> rows = blocks.get(block);
+        if (rows == null) {
+            requestBlock(block);
+            return null;
+        }
+        int index = row % BLOCK_SIZE;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return editableColumns.contains(column);
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T item = getRow(row);
+        return item == null ? null : cellValue.apply(item, column);
+    }
+
+    private void requestBlock(int block) {
+        if (!pendingBlocks.add(block)) return;
+
+        int requestGeneration = generation;
+        RowSource<T> requestSource = source;
+        PageCursor after = blockStarts.get(block);
+        int offset = block * BLOCK_SIZE;
+
+        new SwingWorker<Page<T>, Void>() {
+            @Override
+            protected Page<T> doInBackground() {
+                return requestSource.load(after, after != null ? 0 : offset, BLOCK_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) return;
+                pendingBlocks.remove(block);
+                try {
+                    Page<T> page = get();
+                    blocks.put(block, page.getItems());
+                    if (page.hasMore()) {
+                        blockStarts.put(block + 1, page.getNextCursor());
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                int first = offset;
+                int last = Math.min(offset + BLOCK_SIZE, rowCount) - 1;
+                if (first <= last) {
+                    fireTableRowsUpdated(first, last);
+                }
+            }
+        }.execute();
+    }
+}
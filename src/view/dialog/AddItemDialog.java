@@ -23,6 +23,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JOptionPane;
 import javax.swing.SwingUtilities;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 
 import java.awt.Color;
 import java.awt.Font;
@@ -31,6 +32,7 @@ import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 
 import java.util.List;
+import java.util.Optional;
 
 public class AddItemDialog extends JDialog {
     
@@ -181,7 +183,7 @@ public class AddItemDialog extends JDialog {
         }
     }
 
-    private Object mapRowToItem(DefaultTableModel model, int row)
+    private Object mapRowToItem(TableModel model, int row)
     {
         String label = labelBox.getSelectedItem().toString();
         
@@ -189,15 +191,11 @@ public class AddItemDialog extends JDialog {
         
         if ("PRODUCT".equals(label))
         {
-            return productController.getAllProducts().stream()
-                .filter(p -> p.getId() == id)
-                .findFirst().orElseThrow();
+            return Optional.ofNullable(productController.getProductById(id)).orElseThrow();
         } 
         else 
         {
-            return petController.getAllPets().stream()
-                    .filter(p -> p.getId() == id)
-                    .findFirst().orElseThrow();
+            return Optional.ofNullable(petController.getPetById(id)).orElseThrow();
         }
     }
 
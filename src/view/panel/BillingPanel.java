@@ -8,13 +8,16 @@ import model.user.Customer;
 import controller.user.AuthController;
 import controller.bill.BillingController;
 import controller.customer.CustomerController;
+import service.billing.PdfRenderQueue;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 import view.dialog.AddItemDialog;
 
 public class BillingPanel extends JPanel {
@@ -23,6 +26,7 @@ public class BillingPanel extends JPanel {
     private final JTextField totalField;
     private final JLabel customerLabel;
     private final BillingController billingController = new BillingController();
+    private final Consumer<PdfRenderQueue.Job> invoiceFailureListener;
     private Customer selectedCustomer;
 
     public BillingPanel() {
@@ -30,6 +34,13 @@ public class BillingPanel extends JPanel {
         setBackground(new Color(248, 249, 250)); // Modern light gray
         setBorder(BorderFactory.createEmptyBorder(25, 30, 25, 30));
 
+        // Invoices render in the background; only a render that failed for good needs the cashier's attention.
+        // Registered while the panel is displayed (addNotify/removeNotify) so a closed window is not kept alive.
+        invoiceFailureListener = job -> SwingUtilities.invokeLater(() ->
+            JOptionPane.showMessageDialog(this,
+                "Invoice PDF for bill #" + job.getBillId() + " could not be saved:\n" + job.getError(),
+                "Invoice Not Saved", JOptionPane.WARNING_MESSAGE));
+
         // === Header Panel ===
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setBackground(Color.WHITE);
@@ -203,6 +214,17 @@ public class BillingPanel extends JPanel {
                 return;
             }
 
+            try {
+                billingController.validateCart();
+            } catch (IllegalStateException ex) {
+                JOptionPane.showMessageDialog(this, ex.getMessage(), "Stock Changed", JOptionPane.WARNING_MESSAGE);
+                return;
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Error: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+
             int confirm = JOptionPane.showConfirmDialog(this, 
                 "Print this bill?\n\nCustomer: " + selectedCustomer.getName() + 
                 "\nTotal: " + totalField.getText(), 
@@ -249,6 +271,18 @@ public class BillingPanel extends JPanel {
         refreshCart();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        billingController.addInvoiceFailureListener(invoiceFailureListener);
+    }
+
+    @Override
+    public void removeNotify() {
+        billingController.removeInvoiceFailureListener(invoiceFailureListener);
+        super.removeNotify();
+    }
+
     public void refreshCart() {
         tableModel.setRowCount(0);
         for (BillItem item : billingController.getCartItemsAsList()) {
@@ -269,7 +303,7 @@ public class BillingPanel extends JPanel {
         totalField.setText("Total: $" + billingController.getCartTotal());
     }
 
-    private BillItem mapRowToItem(DefaultTableModel model, int row) {
+    private BillItem mapRowToItem(TableModel model, int row) {
         int id = Integer.parseInt(model.getValueAt(row, 0).toString());
         String label = model.getValueAt(row, 1).toString();
         String type = model.getValueAt(row, 2).toString();
@@ -316,7 +350,7 @@ public class BillingPanel extends JPanel {
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.QUESTION_MESSAGE);
         if (confirm == JOptionPane.YES_OPTION) {
-            billingController.removeCartItem(item.getItemId());
+            billingController.removeCartItem(item.getItemType(), item.getItemId());
             refreshCart();
         }
     }
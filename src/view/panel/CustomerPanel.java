@@ -2,18 +2,22 @@ package view.panel;
 
 import util.ui.ButtonCellRenderer;
 import util.ui.ButtonCellEditor;
+import util.ui.VirtualTableModel;
 import controller.customer.CustomerController;
+import dao.page.Page;
+import dao.page.PageCursor;
 import model.user.Customer;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
+import java.util.List;
 import java.util.Optional;
 import view.dialog.CustomerFormDialog;
 
 public class CustomerPanel extends JPanel {
     private JTable customerTable;
-    private DefaultTableModel model;
+    private VirtualTableModel<Customer> model;
     private JTextField searchField;
     private JComboBox<String> sortBox;
 
@@ -81,12 +85,7 @@ public class CustomerPanel extends JPanel {
 
         // === Modern Table Setup ===
         String[] columns = {"ID", "Name", "Email", "Phone", "Loyalty Points", "Edit", "Delete"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return col >= 5;
-            }
-        };
+        model = new VirtualTableModel<>(columns, this::customerCellValue, 5, 6);
 
         customerTable = new JTable(model);
         setupModernTable(customerTable);
@@ -97,10 +96,7 @@ public class CustomerPanel extends JPanel {
 customerTable.getColumn("Edit").setCellEditor(new ButtonCellEditor<>(
     customerTable,
     "update",
-    (model, row) -> {
-        int id = Integer.parseInt(model.getValueAt(row, 0).toString());
-        return CustomerController.getCustomerById(id);
-    },
+    this::mapRowToCustomer,
     customerOpt -> {
         if (customerOpt.isPresent()) 
         {
@@ -117,10 +113,7 @@ customerTable.getColumn("Edit").setCellEditor(new ButtonCellEditor<>(
 customerTable.getColumn("Delete").setCellEditor(new ButtonCellEditor<>(
     customerTable,
     "delete",
-    (model, row) -> {
-        int id = Integer.parseInt(model.getValueAt(row, 0).toString());
-        return CustomerController.getCustomerById(id);
-    },
+    this::mapRowToCustomer,
     null,
     optionalCustomer -> {
         if (optionalCustomer.isPresent()) {
@@ -170,9 +163,8 @@ customerTable.getColumn("Delete").setCellEditor(new ButtonCellEditor<>(
             try {
                 int id = Integer.parseInt(searchText);
                 Optional<Customer> c = CustomerController.getCustomerById(id);
-                model.setRowCount(0);
-                if (c.isPresent()) addCustomerToTable(c.get());
-                else JOptionPane.showMessageDialog(this, "Customer not found.");
+                model.setSource(VirtualTableModel.RowSource.of(c.map(List::of).orElse(List.of())));
+                if (c.isEmpty()) JOptionPane.showMessageDialog(this, "Customer not found.");
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Invalid ID format.");
             }
@@ -193,32 +185,52 @@ customerTable.getColumn("Delete").setCellEditor(new ButtonCellEditor<>(
     }
 
     private void loadAllCustomers() {
-        model.setRowCount(0);
-        CustomerController.getAllCustomers().forEach(this::addCustomerToTable);
+        loadFirstPage(null);
+    }
+
+    private void loadFirstPage(String loyaltyOrder) {
+        model.setSource(new VirtualTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return CustomerController.countCustomers();
+            }
+
+            @Override
+            public Page<Customer> load(PageCursor after, int offset, int limit) {
+                return CustomerController.getCustomersPage(loyaltyOrder, after, offset, limit);
+            }
+        });
     }
 
     private void applyFilter() {
         String order = sortBox.getSelectedItem().toString();
-        model.setRowCount(0);
         
         switch (order) {
-            case "All Orders" -> loadAllCustomers();
-            case "High Loyalty ↓" -> CustomerController.getCustomersByLoyalty("DESC").forEach(this::addCustomerToTable);
-            case "Low Loyalty ↑" -> CustomerController.getCustomersByLoyalty("ASC").forEach(this::addCustomerToTable);
-            default -> loadAllCustomers();
+            case "All Orders" -> loadFirstPage(null);
+            case "High Loyalty ↓" -> loadFirstPage("DESC");
+            case "Low Loyalty ↑" -> loadFirstPage("ASC");
+            default -> loadFirstPage(null);
         }
     }
 
-    private void addCustomerToTable(Customer c) {
-        model.addRow(new Object[]{
-                c.getId(), 
-                c.getName(), 
-                c.getEmail(), 
-                c.getPhone(), 
-                c.getLoyaltyPoints() + " pts", 
-                "Edit", 
-                "Delete"
-        });
+    // Cells are rendered from the customer only when the table paints them
+    private Object customerCellValue(Customer c, int column) {
+        return switch (column) {
+            case 0 -> c.getId();
+            case 1 -> c.getName();
+            case 2 -> c.getEmail();
+            case 3 -> c.getPhone();
+            case 4 -> c.getLoyaltyPoints() + " pts";
+            case 5 -> "Edit";
+            case 6 -> "Delete";
+            default -> null;
+        };
+    }
+
+    // Fresh copy of the row's customer, or null while its block is still loading (the click is then ignored)
+    private Optional<Customer> mapRowToCustomer(TableModel tableModel, int row) {
+        Customer customer = model.getRow(row);
+        return customer == null ? null : CustomerController.getCustomerById(customer.getId());
     }
 
     private JButton createRoundedButton(String text) {
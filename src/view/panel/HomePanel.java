@@ -1,11 +1,8 @@
 package view.panel;
 
-import controller.product.ProductController;
-import controller.pet.PetController;
-import controller.customer.CustomerController;
 import controller.bill.BillingController;
 import controller.user.AuthController;
-import dao.user.UserDAO;
+import dao.dashboard.DashboardStatsDAO;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -30,7 +27,15 @@ import java.util.TimerTask;
 import java.io.File;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
 public class HomePanel extends JPanel {
     
@@ -49,12 +54,33 @@ public class HomePanel extends JPanel {
     private final Color cardBg = Color.WHITE;
     private final Color lightBg = new Color(0xF8F9FA);
     
-    private PetController petController = new PetController();
-    private ProductController productController = new ProductController();
+    private final DashboardStatsDAO statsDAO = new DashboardStatsDAO();
+
+    // Shared by every HomePanel; daemon threads so they never keep the app alive
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "dashboard-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static final String LOADING = "...";
+
+    // Components patched in place on every refresh
+    private final Map<String, JLabel> statValues = new HashMap<>();
+    private final Map<String, JLabel> statusValues = new HashMap<>();
+    private JPanel activityList;
+    private List<ActivityItem> shownActivities;
+    private final DefaultPieDataset<String> petDataset = new DefaultPieDataset<>();
+    private PiePlot<String> petPlot;
+    private final DefaultCategoryDataset revenueDataset = new DefaultCategoryDataset();
+    private final DefaultCategoryDataset activityDataset = new DefaultCategoryDataset();
+    private final DefaultCategoryDataset inventoryDataset = new DefaultCategoryDataset();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
 
     public HomePanel() {
         initializePanel();
         setupDashboard();
+        refreshDashboard();
         startAutoRefresh();
         startTimeUpdater();
     }
@@ -148,41 +174,16 @@ public class HomePanel extends JPanel {
         JPanel statsGrid = new JPanel(new GridLayout(2, 4, 15, 15));
         statsGrid.setOpaque(false);
 
-        // Fetch data
-        BillingController billing = new BillingController();
-        UserDAO userDAO = new UserDAO();
+        // Values are filled in by refreshDashboard once the background load finishes
+        statsGrid.add(createStatCard("Total Pets", LOADING, successColor, "Active pets in system", ""));
+        statsGrid.add(createStatCard("Products", LOADING, infoColor, "Available products", ""));
+        statsGrid.add(createStatCard("Customers", LOADING, warningColor, "Registered customers", ""));
+        statsGrid.add(createStatCard("Staff", LOADING, primaryColor, "Active staff members", ""));
         
-
- 
-        int totalProducts = productController.getAllProducts().size();
-        int totalPets = petController.getAllPets().size();
-        int totalCustomers = CustomerController.getAllCustomers().size();
-        int totalOrders = billing.getTotalOrders();
-        BigDecimal totalRevenue = billing.getTotalRevenue();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-        
-        int totalStaff = 0;
-        try {
-            totalStaff = userDAO.getAllStaff().size();
-        } catch (Exception e) {
-            totalStaff = 0;
-        }
-        
-        // Calculate additional stats
-        BigDecimal avgOrderValue = totalOrders > 0 && totalRevenue.compareTo(BigDecimal.ZERO) > 0 ? 
-            totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, BigDecimal.ROUND_HALF_UP) : BigDecimal.ZERO;
-        int lowStockProducts = getLowStockCount();
-
-        // Create stat cards without default trend values
-        statsGrid.add(createStatCard("Total Pets", String.valueOf(totalPets), successColor, "Active pets in system", ""));
-        statsGrid.add(createStatCard("Products", String.valueOf(totalProducts), infoColor, "Available products", ""));
-        statsGrid.add(createStatCard("Customers", String.valueOf(totalCustomers), warningColor, "Registered customers", ""));
-        statsGrid.add(createStatCard("Staff", String.valueOf(totalStaff), primaryColor, "Active staff members", ""));
-        
-        statsGrid.add(createStatCard("Orders", String.valueOf(totalOrders), new Color(0x9B59B6), "Orders processed", ""));
-        statsGrid.add(createStatCard("Revenue", "$" + totalRevenue, successColor, "Total sales revenue", ""));
-        statsGrid.add(createStatCard("Avg Order", "$" + avgOrderValue, infoColor, "Average order value", ""));
-        statsGrid.add(createStatCard("Low Stock", String.valueOf(lowStockProducts), dangerColor, "Products need restock", ""));
+        statsGrid.add(createStatCard("Orders", LOADING, new Color(0x9B59B6), "Orders processed", ""));
+        statsGrid.add(createStatCard("Revenue", LOADING, successColor, "Total sales revenue", ""));
+        statsGrid.add(createStatCard("Avg Order", LOADING, infoColor, "Average order value", ""));
+        statsGrid.add(createStatCard("Low Stock", LOADING, dangerColor, "Products need restock", ""));
 
         statsContainer.add(statsGrid, BorderLayout.CENTER);
         return statsContainer;
@@ -216,57 +217,18 @@ public class HomePanel extends JPanel {
 
     private JPanel createPetDistributionChart() {
         // Create pie chart for pet distribution
-        DefaultPieDataset dataset = new DefaultPieDataset();
-        
-        // Get real pet distribution data from database
-        try {
-            dao.pet.PetDAO petDAO = new dao.pet.PetDAO();
-            java.util.Map<String, Integer> distribution = petDAO.getPetDistribution();
-            
-            // Add data to dataset
-            for (java.util.Map.Entry<String, Integer> entry : distribution.entrySet()) {
-                String type = entry.getKey();
-                Integer count = entry.getValue();
-                String label = formatPetTypeLabel(type) + " (" + count + ")";
-                dataset.setValue(label, count);
-            }
-            
-            // If no pets, show empty message
-            if (distribution.isEmpty()) {
-                dataset.setValue("No pets available", 1);
-            }
-            
-        } catch (Exception e) {
-            dataset.setValue("Error loading data", 1);
-        }
-
         JFreeChart chart = ChartFactory.createPieChart(
-            "Pet Distribution", dataset, true, true, false);
+            "Pet Distribution", petDataset, true, true, false);
         
         // Customize chart
         chart.setBackgroundPaint(Color.WHITE);
-        PiePlot plot = (PiePlot) chart.getPlot();
-        plot.setBackgroundPaint(Color.WHITE);
-        
-        // Set colors for different pet types based on actual data
-        for (Object key : dataset.getKeys()) {
-            String keyStr = key.toString();
-            if (keyStr.contains("Dog")) {
-                plot.setSectionPaint(keyStr, new Color(0x3498DB));
-            } else if (keyStr.contains("Cat")) {
-                plot.setSectionPaint(keyStr, new Color(0xE74C3C));
-            } else if (keyStr.contains("No pets")) {
-                plot.setSectionPaint(keyStr, new Color(0x95A5A6));
-            } else if (keyStr.contains("Error")) {
-                plot.setSectionPaint(keyStr, dangerColor);
-            } else {
-                // For any other pet types (Others)
-                plot.setSectionPaint(keyStr, new Color(0x1ABC9C));
-            }
-        }
+        @SuppressWarnings("unchecked")   // the dataset is keyed by pet type name
+        PiePlot<String> plot = (PiePlot<String>) chart.getPlot();
+        petPlot = plot;
+        petPlot.setBackgroundPaint(Color.WHITE);
         
         // Customize plot appearance
-        plot.setLabelGenerator(new org.jfree.chart.labels.StandardPieSectionLabelGenerator(
+        petPlot.setLabelGenerator(new org.jfree.chart.labels.StandardPieSectionLabelGenerator(
             "{0}: {1} ({2})", java.text.NumberFormat.getNumberInstance(), 
             java.text.NumberFormat.getPercentInstance()));
 
@@ -280,6 +242,24 @@ public class HomePanel extends JPanel {
         return chartPanel;
     }
 
+    // Set colors for different pet types based on actual data
+    private void applyPetSectionPaints() {
+        for (String keyStr : petDataset.getKeys()) {
+            if (keyStr.contains("Dog")) {
+                petPlot.setSectionPaint(keyStr, new Color(0x3498DB));
+            } else if (keyStr.contains("Cat")) {
+                petPlot.setSectionPaint(keyStr, new Color(0xE74C3C));
+            } else if (keyStr.contains("No pets")) {
+                petPlot.setSectionPaint(keyStr, new Color(0x95A5A6));
+            } else if (keyStr.contains("Error")) {
+                petPlot.setSectionPaint(keyStr, dangerColor);
+            } else {
+                // For any other pet types (Others)
+                petPlot.setSectionPaint(keyStr, new Color(0x1ABC9C));
+            }
+        }
+    }
+
     // Helper method to format pet type labels
     private String formatPetTypeLabel(String type) {
         switch (type.toUpperCase()) {
@@ -294,28 +274,9 @@ public class HomePanel extends JPanel {
 
     private JPanel createRevenueChart() {
         // Create bar chart for current month revenue by week
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        // Get actual weekly revenue data for dashboard overview
-        try {
-            BillingController billing = new BillingController();
-            java.util.Map<String, BigDecimal> weeklyRevenue = billing.getWeeklyRevenue();
-            
-            for (java.util.Map.Entry<String, BigDecimal> entry : weeklyRevenue.entrySet()) {
-                String week = entry.getKey();
-                BigDecimal revenue = entry.getValue();
-                dataset.addValue(revenue, "Revenue", week);
-            }
-        } catch (Exception e) {
-            // Fallback data if error
-            for (int i = 1; i <= 4; i++) {
-                dataset.addValue(0, "Revenue", "Week " + i);
-            }
-        }
-
         JFreeChart chart = ChartFactory.createBarChart(
             "This Month Revenue", "Week", "Revenue ($)", 
-            dataset, PlotOrientation.VERTICAL, false, true, false);
+            revenueDataset, PlotOrientation.VERTICAL, false, true, false);
         
         // Customize chart
         chart.setBackgroundPaint(Color.WHITE);
@@ -337,30 +298,9 @@ public class HomePanel extends JPanel {
 
     private JPanel createCustomerGrowthChart() {
         // Create line chart for customer activity over last 1 week
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        // Get actual customer activity data for dashboard overview
-        try {
-            BillingController billing = new BillingController();
-            java.util.Map<String, Integer> weeklyActivity = billing.getCustomerActivityByWeek();
-            
-            // Show last 7 days for dashboard overview
-            for (java.util.Map.Entry<String, Integer> entry : weeklyActivity.entrySet()) {
-                String day = entry.getKey();
-                Integer customers = entry.getValue();
-                dataset.addValue(customers, "Active Customers", day);
-            }
-        } catch (Exception e) {
-            // Fallback data if error
-            String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
-            for (String day : days) {
-                dataset.addValue(0, "Active Customers", day);
-            }
-        }
-
         JFreeChart chart = ChartFactory.createLineChart(
             "Customer Activity (Last 1 Week)", "Day", "Active Customers", 
-            dataset, PlotOrientation.VERTICAL, false, true, false);
+            activityDataset, PlotOrientation.VERTICAL, false, true, false);
         
         // Customize chart
         chart.setBackgroundPaint(Color.WHITE);
@@ -380,35 +320,9 @@ public class HomePanel extends JPanel {
 
     private JPanel createInventoryChart() {
         // Create bar chart for inventory status
-        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
-        
-        // Get actual product type distribution from database
-        try {
-            java.util.List<model.product.Product> products = productController.getAllProducts();
-            java.util.Map<String, Integer> distribution = new java.util.HashMap<>();
-            
-            // Count products by type
-            for (model.product.Product product : products) {
-                String type = product.getClass().getSimpleName();
-                distribution.put(type, distribution.getOrDefault(type, 0) + 1);
-            }
-            
-            int foodCount = distribution.getOrDefault("Food", 0);
-            int toyCount = distribution.getOrDefault("Toy", 0);
-            int medicineCount = distribution.getOrDefault("Medicine", 0);
-            
-            // Add data to chart
-            dataset.addValue(foodCount, "Count", "Food");
-            dataset.addValue(toyCount, "Count", "Toys");
-            dataset.addValue(medicineCount, "Count", "Medicine");
-            
-        } catch (Exception e) {
-            dataset.addValue(0, "Count", "Error loading data");
-        }
-
         JFreeChart chart = ChartFactory.createBarChart(
             "Product Inventory", "Product Type", "Count", 
-            dataset, PlotOrientation.VERTICAL, false, true, false);
+            inventoryDataset, PlotOrientation.VERTICAL, false, true, false);
         
         // Customize chart
         chart.setBackgroundPaint(Color.WHITE);
@@ -468,20 +382,10 @@ public class HomePanel extends JPanel {
         title.setFont(new Font("Segoe UI", Font.BOLD, 14));
         title.setForeground(primaryColor);
 
-        JPanel activityList = new JPanel();
+        activityList = new JPanel();
         activityList.setLayout(new BoxLayout(activityList, BoxLayout.Y_AXIS));
         activityList.setOpaque(false);
-
-        // Get real recent activities from database
-        List<ActivityItem> recentActivities = getRecentActivities();
-        
-        if (recentActivities.isEmpty()) {
-            activityList.add(createActivityItem("No recent activity", "System ready", infoColor));
-        } else {
-            for (ActivityItem activity : recentActivities) {
-                activityList.add(createActivityItem(activity.description, activity.timeAgo, activity.color));
-            }
-        }
+        activityList.add(createActivityItem("Loading activity", LOADING, infoColor));
 
         panel.add(title, BorderLayout.NORTH);
         panel.add(activityList, BorderLayout.CENTER);
@@ -500,6 +404,30 @@ public class HomePanel extends JPanel {
             this.timeAgo = timeAgo;
             this.color = color;
         }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ActivityItem)) return false;
+            ActivityItem other = (ActivityItem) o;
+            return description.equals(other.description) && timeAgo.equals(other.timeAgo)
+                && color.equals(other.color);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(description, timeAgo, color);
+        }
+    }
+
+    // One row of the System Status card
+    private static class StatusValue {
+        final String text;
+        final Color color;
+
+        StatusValue(String text, Color color) {
+            this.text = text;
+            this.color = color;
+        }
     }
 
     private List<ActivityItem> getRecentActivities() {
@@ -550,12 +478,7 @@ public class HomePanel extends JPanel {
     private List<model.user.Customer> getRecentCustomers(int limit) {
         try {
             dao.customer.CustomerDAO customerDAO = new dao.customer.CustomerDAO();
-            List<model.user.Customer> allCustomers = customerDAO.getAllCustomers();
-            // Get last few customers (assuming higher ID = more recent)
-            if (allCustomers.size() > limit) {
-                return allCustomers.subList(allCustomers.size() - limit, allCustomers.size());
-            }
-            return allCustomers;
+            return customerDAO.getRecentCustomers(limit);
         } catch (Exception e) {
             return new ArrayList<>();
         }
@@ -564,12 +487,7 @@ public class HomePanel extends JPanel {
     private List<model.pet.Pet> getRecentPets(int limit) {
         try {
             dao.pet.PetDAO petDAO = new dao.pet.PetDAO();
-            List<model.pet.Pet> allPets = petDAO.getAllPets();
-            // Get last few pets (assuming higher ID = more recent)
-            if (allPets.size() > limit) {
-                return allPets.subList(allPets.size() - limit, allPets.size());
-            }
-            return allPets;
+            return petDAO.getRecentPets(limit);
         } catch (Exception e) {
             return new ArrayList<>();
         }
@@ -638,18 +556,10 @@ public class HomePanel extends JPanel {
         statusList.setLayout(new BoxLayout(statusList, BoxLayout.Y_AXIS));
         statusList.setOpaque(false);
 
-        // Get real system data
-        String dbStatus = getDatabaseStatus();
-        String memoryUsage = getMemoryUsage();
-        String activeUsers = getActiveUsersCount();
-        String lastBackup = getLastBackupTime();
-
-        statusList.add(createStatusItem("Database", dbStatus, 
-            dbStatus.equals("Connected") ? successColor : dangerColor));
-        statusList.add(createStatusItem("Memory Usage", memoryUsage, 
-            getMemoryPercentage() > 80 ? dangerColor : getMemoryPercentage() > 60 ? warningColor : successColor));
-        statusList.add(createStatusItem("Active Users", activeUsers, infoColor));
-        statusList.add(createStatusItem("Last Backup", lastBackup, infoColor));
+        statusList.add(createStatusItem("Database", LOADING, infoColor));
+        statusList.add(createStatusItem("Memory Usage", LOADING, infoColor));
+        statusList.add(createStatusItem("Active Users", LOADING, infoColor));
+        statusList.add(createStatusItem("Last Backup", LOADING, infoColor));
 
         panel.add(title, BorderLayout.NORTH);
         panel.add(statusList, BorderLayout.CENTER);
@@ -688,16 +598,6 @@ public class HomePanel extends JPanel {
         return (int) ((double) usedMemory / maxMemory * 100);
     }
 
-    private String getActiveUsersCount() {
-        try {
-            UserDAO userDAO = new UserDAO();
-            int staffCount = userDAO.getAllStaff().size();
-            return staffCount + " registered";
-        } catch (Exception e) {
-            return "Unknown";
-        }
-    }
-
     private String getLastBackupTime() {
         // Check if backup directory exists and get last modified time
         try {
@@ -769,6 +669,7 @@ public class HomePanel extends JPanel {
         valueLabel.setFont(new Font("Segoe UI", Font.BOLD, 28));
         valueLabel.setForeground(color);
         valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
+        statValues.put(title, valueLabel);
 
         JLabel descLabel = new JLabel(description);
         descLabel.setFont(new Font("Segoe UI", Font.PLAIN, 10));
@@ -821,6 +722,7 @@ public class HomePanel extends JPanel {
         JLabel statusText = new JLabel(status);
         statusText.setFont(new Font("Segoe UI", Font.BOLD, 10));
         statusText.setForeground(color);
+        statusValues.put(label, statusText);
 
         item.add(labelText, BorderLayout.WEST);
         item.add(statusText, BorderLayout.EAST);
@@ -898,17 +800,6 @@ public class HomePanel extends JPanel {
         });
     }
 
-    private int getLowStockCount() {
-        try {
-            // Consider products with stock quantity <= 5 as low stock
-            return dao.product.ProductDAO.getLowStockCount(5);
-        } catch (Exception e) {
-            // Log error and return 0 if there's an issue
-            System.err.println("Error getting low stock count: " + e.getMessage());
-            return 0;
-        }
-    }
-
     private void updateTime() {
         if (timeLabel != null) {
             String currentTime = LocalDateTime.now().format(
@@ -919,21 +810,232 @@ public class HomePanel extends JPanel {
     }
 
     private void startAutoRefresh() {
-        refreshTimer = new Timer();
+        refreshTimer = new Timer("dashboard-refresh", true);
         refreshTimer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
-                SwingUtilities.invokeLater(() -> refreshDashboard());
+                refreshDashboard();
             }
         }, 30000, 30000); // Refresh every 30 seconds
     }
 
+    // Load every dashboard section concurrently off the EDT, then patch the existing components on it.
+    // Safe to call from any thread; a refresh that is still running makes the next one a no-op.
     private void refreshDashboard() {
-        // Refresh the entire panel to update stats and activities
-        removeAll();
-        setupDashboard();
-        revalidate();
-        repaint();
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(this::loadStats);
+        CompletableFuture<Map<String, Integer>> pets = loadAsync(this::loadPetDistribution);
+        CompletableFuture<Map<String, BigDecimal>> revenue = loadAsync(this::loadWeeklyRevenue);
+        CompletableFuture<Map<String, Integer>> customers = loadAsync(this::loadCustomerActivity);
+        CompletableFuture<Map<String, Integer>> inventory = stats.thenApply(this::inventoryCounts);
+        CompletableFuture<List<ActivityItem>> activities = loadAsync(this::getRecentActivities);
+        CompletableFuture<Map<String, StatusValue>> status = loadAsync(this::loadSystemStatus);
+
+        CompletableFuture.allOf(stats, pets, revenue, customers, inventory, activities, status)
+            .whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                try {
+                    if (error != null) {
+                        System.err.println("Error refreshing dashboard: " + error.getMessage());
+                        return;
+                    }
+                    applyStats(stats.join());
+                    Map<String, StatusValue> systemStatus = status.join();
+                    systemStatus.put("Active Users", activeUsersStatus(stats.join()));
+                    applyPetDistribution(pets.join());
+                    applyCategoryValues(revenueDataset, "Revenue", revenue.join());
+                    applyCategoryValues(activityDataset, "Active Customers", customers.join());
+                    applyCategoryValues(inventoryDataset, "Count", inventory.join());
+                    applyActivities(activities.join());
+                    applySystemStatus(systemStatus);
+                } finally {
+                    refreshing.set(false);
+                }
+            }));
+    }
+
+    private static <T> CompletableFuture<T> loadAsync(Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(loader, LOADER);
+    }
+
+    // DATA LOADING (background threads only)
+
+    // Null when the query failed; the cards then keep their last values
+    private DashboardStatsDAO.Stats loadStats() {
+        try {
+            return statsDAO.getStats(DashboardStatsDAO.DEFAULT_LOW_STOCK_THRESHOLD);
+        } catch (Exception e) {
+            System.err.println("Error loading dashboard stats: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Pie labels mapped to counts, in display order
+    private Map<String, Integer> loadPetDistribution() {
+        Map<String, Integer> slices = new LinkedHashMap<>();
+        try {
+            dao.pet.PetDAO petDAO = new dao.pet.PetDAO();
+            Map<String, Integer> distribution = petDAO.getPetDistribution();
+            for (Map.Entry<String, Integer> entry : distribution.entrySet()) {
+                slices.put(formatPetTypeLabel(entry.getKey()) + " (" + entry.getValue() + ")", entry.getValue());
+            }
+            if (distribution.isEmpty()) {
+                slices.put("No pets available", 1);
+            }
+        } catch (Exception e) {
+            slices.clear();
+            slices.put("Error loading data", 1);
+        }
+        return slices;
+    }
+
+    private Map<String, BigDecimal> loadWeeklyRevenue() {
+        try {
+            return new LinkedHashMap<>(new BillingController().getWeeklyRevenue());
+        } catch (Exception e) {
+            // Fallback data if error
+            Map<String, BigDecimal> fallback = new LinkedHashMap<>();
+            for (int i = 1; i <= 4; i++) {
+                fallback.put("Week " + i, BigDecimal.ZERO);
+            }
+            return fallback;
+        }
+    }
+
+    private Map<String, Integer> loadCustomerActivity() {
+        try {
+            return new LinkedHashMap<>(new BillingController().getCustomerActivityByWeek());
+        } catch (Exception e) {
+            // Fallback data if error
+            Map<String, Integer> fallback = new LinkedHashMap<>();
+            for (String day : new String[] {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"}) {
+                fallback.put(day, 0);
+            }
+            return fallback;
+        }
+    }
+
+    private Map<String, Integer> inventoryCounts(DashboardStatsDAO.Stats stats) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        if (stats == null) {
+            counts.put("Error loading data", 0);
+            return counts;
+        }
+        counts.put("Food", stats.getFoodCount());
+        counts.put("Toys", stats.getToyCount());
+        counts.put("Medicine", stats.getMedicineCount());
+        return counts;
+    }
+
+    private Map<String, StatusValue> loadSystemStatus() {
+        String dbStatus = getDatabaseStatus();
+        int memoryPercentage = getMemoryPercentage();
+
+        Map<String, StatusValue> status = new HashMap<>();
+        status.put("Database", new StatusValue(dbStatus, 
+            dbStatus.equals("Connected") ? successColor : dangerColor));
+        status.put("Memory Usage", new StatusValue(getMemoryUsage(), 
+            memoryPercentage > 80 ? dangerColor : memoryPercentage > 60 ? warningColor : successColor));
+        status.put("Last Backup", new StatusValue(getLastBackupTime(), infoColor));
+        return status;
+    }
+
+    // APPLYING RESULTS (EDT only; components are only touched when a value actually changed)
+
+    private StatusValue activeUsersStatus(DashboardStatsDAO.Stats stats) {
+        return new StatusValue(stats != null ? stats.getTotalStaff() + " registered" : "Unknown", infoColor);
+    }
+
+    private void applyStats(DashboardStatsDAO.Stats stats) {
+        if (stats == null) return;
+
+        Map<String, String> values = new HashMap<>();
+        values.put("Total Pets", String.valueOf(stats.getTotalPets()));
+        values.put("Products", String.valueOf(stats.getTotalProducts()));
+        values.put("Customers", String.valueOf(stats.getTotalCustomers()));
+        values.put("Staff", String.valueOf(stats.getTotalStaff()));
+        values.put("Orders", String.valueOf(stats.getTotalOrders()));
+        values.put("Revenue", "$" + stats.getTotalRevenue());
+        values.put("Avg Order", "$" + stats.getAverageOrderValue());
+        values.put("Low Stock", String.valueOf(stats.getLowStockProducts()));
+
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            JLabel label = statValues.get(entry.getKey());
+            if (label != null && !entry.getValue().equals(label.getText())) {
+                label.setText(entry.getValue());
+            }
+        }
+    }
+
+    private void applyPetDistribution(Map<String, Integer> slices) {
+        if (petDataset.getKeys().equals(new ArrayList<>(slices.keySet()))) {
+            boolean same = true;
+            for (Map.Entry<String, Integer> entry : slices.entrySet()) {
+                if (petDataset.getValue(entry.getKey()).intValue() != entry.getValue()) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) return;
+        }
+
+        // Batch the edits so the chart redraws once
+        petDataset.setNotify(false);
+        petDataset.clear();
+        slices.forEach(petDataset::setValue);
+        applyPetSectionPaints();
+        petDataset.setNotify(true);
+    }
+
+    private void applyCategoryValues(DefaultCategoryDataset dataset, String series, Map<String, ? extends Number> values) {
+        if (dataset.getColumnKeys().equals(new ArrayList<>(values.keySet()))) {
+            boolean same = true;
+            for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+                Number current = dataset.getValue(series, entry.getKey());
+                if (current == null || Double.compare(current.doubleValue(), entry.getValue().doubleValue()) != 0) {
+                    same = false;
+                    break;
+                }
+            }
+            if (same) return;
+        }
+
+        dataset.setNotify(false);
+        dataset.clear();
+        values.forEach((column, value) -> dataset.addValue(value, series, column));
+        dataset.setNotify(true);
+    }
+
+    private void applyActivities(List<ActivityItem> activities) {
+        if (activities.equals(shownActivities)) return;
+        shownActivities = activities;
+
+        activityList.removeAll();
+        if (activities.isEmpty()) {
+            activityList.add(createActivityItem("No recent activity", "System ready", infoColor));
+        } else {
+            for (ActivityItem activity : activities) {
+                activityList.add(createActivityItem(activity.description, activity.timeAgo, activity.color));
+            }
+        }
+        activityList.revalidate();
+        activityList.repaint();
+    }
+
+    private void applySystemStatus(Map<String, StatusValue> status) {
+        for (Map.Entry<String, StatusValue> entry : status.entrySet()) {
+            JLabel label = statusValues.get(entry.getKey());
+            if (label == null) continue;
+            StatusValue value = entry.getValue();
+            if (!value.text.equals(label.getText())) {
+                label.setText(value.text);
+            }
+            if (!value.color.equals(label.getForeground())) {
+                label.setForeground(value.color);
+            }
+        }
     }
 
     public void stopTimer() {
@@ -1,22 +1,23 @@
 package view.panel;
 
 import controller.pet.PetController;
-import model.pet.Cat;
-import model.pet.Dog;
+import dao.page.Page;
+import dao.page.PageCursor;
 import model.pet.Pet;
 import util.ui.ButtonCellEditor;
 import util.ui.ButtonCellRenderer;
+import util.ui.CsvImportTask;
+import util.ui.VirtualTableModel;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
-import java.math.BigDecimal;
 import java.util.List;
 import view.dialog.PetFormDialog;
 
 public class PetPanel extends JPanel {
     private JTable petTable;
-    private DefaultTableModel model;
+    private VirtualTableModel<Pet> model;
     private JTextField searchField;
     private JComboBox<String> categoryBox;
     private JComboBox<String> priceOrderBox;
@@ -65,6 +66,10 @@ public class PetPanel extends JPanel {
         JButton addBtn = createModernButton("+ Add Pet", new Color(40, 167, 69), Color.WHITE);
         addBtn.setPreferredSize(new Dimension(130, 42));
         leftPanel.add(addBtn);
+
+        JButton importBtn = createModernButton("Import CSV", new Color(108, 117, 125), Color.WHITE);
+        importBtn.setPreferredSize(new Dimension(130, 42));
+        leftPanel.add(importBtn);
         
         controlPanel.add(leftPanel, BorderLayout.WEST);
 
@@ -93,12 +98,7 @@ public class PetPanel extends JPanel {
 
         // === Modern Table Setup ===
         String[] columns = {"ID", "Name", "Type", "Breed", "Age", "Price", "Edit", "Delete"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return col == 6 || col == 7;
-            }
-        };
+        model = new VirtualTableModel<>(columns, this::petCellValue, 6, 7);
 
         petTable = new JTable(model);
         setupModernPetTable(petTable);
@@ -152,6 +152,8 @@ public class PetPanel extends JPanel {
 
         // === Action Listeners ===
         addBtn.addActionListener(e -> new PetFormDialog(this, null));
+        importBtn.addActionListener(e -> CsvImportTask.chooseAndRun(this, importBtn, "Pets",
+                petController::importPets, this::refreshTable));
         searchBtn.addActionListener(e -> {
             String searchText = searchField.getText().trim();
             if (searchText.equals("Search by ID...") || searchText.isEmpty()) {
@@ -160,12 +162,9 @@ public class PetPanel extends JPanel {
             }
             try {
                 int id = Integer.parseInt(searchText);
-                Pet pet = petController.getAllPets().stream()
-                        .filter(p -> p.getId() == id)
-                        .findFirst().orElse(null);
-                model.setRowCount(0);
-                if (pet != null) addPetToTable(pet);
-                else JOptionPane.showMessageDialog(this, "No pet found with ID " + id);
+                Pet pet = petController.getPetById(id);
+                model.setSource(VirtualTableModel.RowSource.of(pet != null ? List.of(pet) : List.of()));
+                if (pet == null) JOptionPane.showMessageDialog(this, "No pet found with ID " + id);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Invalid ID format.");
             }
@@ -187,9 +186,21 @@ public class PetPanel extends JPanel {
     }
 
     private void loadAllPets() {
-        model.setRowCount(0);
-        List<Pet> pets = petController.getAllPets();  // gọi qua instance
-        pets.forEach(this::addPetToTable);
+        loadFirstPage(null, null);
+    }
+
+    private void loadFirstPage(String type, String priceOrder) {
+        model.setSource(new VirtualTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return petController.countPets(type);
+            }
+
+            @Override
+            public Page<Pet> load(PageCursor after, int offset, int limit) {
+                return petController.getPetsPage(type, priceOrder, after, offset, limit);
+            }
+        });
 
         petTable.clearSelection();  // ✅ Bỏ chọn dòng đầu tiên
     }
@@ -213,51 +224,27 @@ public class PetPanel extends JPanel {
             default -> priceOrder = null;
         }
 
-        List<Pet> filtered = petController.getPetsByFilter(type, priceOrder);
-        model.setRowCount(0);
-        filtered.forEach(this::addPetToTable);
-
-        petTable.clearSelection();
+        loadFirstPage(type, priceOrder);
     }
 
-    private void addPetToTable(Pet p) {
-                String type = p.getClass().getSimpleName().equals("Dog") ? "Dog" :
-                p.getClass().getSimpleName().equals("Cat") ? "Cat" : 
-                     p.getClass().getSimpleName();
-        
-        model.addRow(new Object[]{
-                p.getId(),
-                p.getName(),
-                type,
-                p.getBreed(),
-                p.getAge() + " years",
-                "$" + p.getPrice(),
-                "Edit",
-                "Delete"
-        });
+    // Cells are rendered from the pet only when the table paints them
+    private Object petCellValue(Pet p, int column) {
+        return switch (column) {
+            case 0 -> p.getId();
+            case 1 -> p.getName();
+            case 2 -> p.getClass().getSimpleName();
+            case 3 -> p.getBreed();
+            case 4 -> p.getAge() + " years";
+            case 5 -> "$" + p.getPrice();
+            case 6 -> "Edit";
+            case 7 -> "Delete";
+            default -> null;
+        };
     }
 
-    private Pet mapRowToPet(DefaultTableModel model, int row) {
-        int id = Integer.parseInt(model.getValueAt(row, 0).toString());
-        String name = model.getValueAt(row, 1).toString();
-        String type = model.getValueAt(row, 2).toString();
-        String breed = model.getValueAt(row, 3).toString();
-
-        // Fix: Remove " years" before parsing
-        String ageStr = model.getValueAt(row, 4).toString().replace(" years", "").trim();
-        int age = Integer.parseInt(ageStr);
-
-        // Fix: Remove "$" before parsing
-        String priceStr = model.getValueAt(row, 5).toString().replace("$", "").trim();
-        BigDecimal price = new BigDecimal(priceStr);
-
-        Pet pet = switch (type.toUpperCase()) {
-            case "DOG" -> new Dog(name, breed, age, price);
-            case "CAT" -> new Cat(name, breed, age, price);
-            default -> throw new IllegalArgumentException("Invalid pet type: " + type);
-        };
-        pet.setId(id);
-        return pet;
+    // null while the row's block is still loading; ButtonCellEditor then ignores the click
+    private Pet mapRowToPet(TableModel tableModel, int row) {
+        return model.getRow(row);
     }
 
     private JButton createRoundedButton(String text) {
@@ -1,28 +1,30 @@
 package view.panel;
 
 import controller.product.ProductController;
+import dao.page.Page;
+import dao.page.PageCursor;
 import model.product.Food;
 import model.product.Medicine;
 import model.product.Product;
 import model.product.Toy;
 import util.ui.ButtonCellEditor;
 import util.ui.ButtonCellRenderer;
+import util.ui.CsvImportTask;
+import util.ui.VirtualTableModel;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableModel;
 import java.awt.*;
 import java.util.List;
 import view.dialog.ProductFormDialog;
 
 public class ProductPanel extends JPanel {
     private JTable productTable;
-    private DefaultTableModel model;
+    private VirtualTableModel<Product> model;
     private JTextField searchField;
     private JComboBox<String> categoryBox;
     private JComboBox<String> priceOrderBox;
 
-    // Danh sách sản phẩm hiện tại được load từ DB
-    private List<Product> currentProducts;
 
     // Controller
     private final ProductController productController = new ProductController();
@@ -67,6 +69,10 @@ public class ProductPanel extends JPanel {
         JButton addBtn = createModernButton("+ Add Product", new Color(40, 167, 69), Color.WHITE);
         addBtn.setPreferredSize(new Dimension(150, 42));
         leftPanel.add(addBtn);
+
+        JButton importBtn = createModernButton("Import CSV", new Color(108, 117, 125), Color.WHITE);
+        importBtn.setPreferredSize(new Dimension(130, 42));
+        leftPanel.add(importBtn);
         
         controlPanel.add(leftPanel, BorderLayout.WEST);
 
@@ -95,12 +101,7 @@ public class ProductPanel extends JPanel {
 
         // === Modern Table Setup ===
         String[] columns = {"ID", "Name", "Type", "Quantity", "Price", "Details", "Edit", "Delete"};
-        model = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int col) {
-                return col == 6 || col == 7;
-            }
-        };
+        model = new VirtualTableModel<>(columns, this::productCellValue, 6, 7);
 
         productTable = new JTable(model);
         setupModernProductTable(productTable);
@@ -127,7 +128,9 @@ public class ProductPanel extends JPanel {
                 "update",
                 this::mapRowToProduct,
                 product -> {
-                    ProductFormDialog dialog = new ProductFormDialog(this, product);
+                    // Rows come from the list projection; the form needs every column
+                    Product full = productController.getProductById(product.getId());
+                    ProductFormDialog dialog = new ProductFormDialog(this, full != null ? full : product);
                     dialog.setVisible(true);
                     refreshTable();
                 },
@@ -156,6 +159,8 @@ public class ProductPanel extends JPanel {
         ));
 
         // === Action Listeners ===
+        importBtn.addActionListener(e -> CsvImportTask.chooseAndRun(this, importBtn, "Products",
+                productController::importProducts, this::refreshTable));
         addBtn.addActionListener(e -> {
             ProductFormDialog dialog = new ProductFormDialog(this, null);
             dialog.setVisible(true);
@@ -170,12 +175,9 @@ public class ProductPanel extends JPanel {
             }
             try {
                 int id = Integer.parseInt(searchText);
-                Product p = currentProducts.stream()
-                        .filter(prod -> prod.getId() == id)
-                        .findFirst().orElse(null);
-                model.setRowCount(0);
-                if (p != null) addProductToTable(p);
-                else JOptionPane.showMessageDialog(this, "No product found with ID " + id);
+                Product p = productController.getProductById(id);
+                model.setSource(VirtualTableModel.RowSource.of(p != null ? List.of(p) : List.of()));
+                if (p == null) JOptionPane.showMessageDialog(this, "No product found with ID " + id);
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(this, "Invalid ID format.");
             }
@@ -197,9 +199,21 @@ public class ProductPanel extends JPanel {
     }
 
     private void loadAllProducts() {
-        model.setRowCount(0);
-        currentProducts = productController.getAllProducts();
-        currentProducts.forEach(this::addProductToTable);
+        loadFirstPage(null, null);
+    }
+
+    private void loadFirstPage(String category, String priceOrder) {
+        model.setSource(new VirtualTableModel.RowSource<>() {
+            @Override
+            public int count() {
+                return productController.countProducts(category);
+            }
+
+            @Override
+            public Page<Product> load(PageCursor after, int offset, int limit) {
+                return productController.getProductsPage(category, priceOrder, after, offset, limit);
+            }
+        });
     }
 
     private void applyFilters() {
@@ -220,40 +234,38 @@ public class ProductPanel extends JPanel {
             case "Price High→Low" -> priceOrder = "DESC";
         }
 
-        currentProducts = productController.getProductsByFilter(category, priceOrder);
-        model.setRowCount(0);
-        currentProducts.forEach(this::addProductToTable);
+        loadFirstPage(category, priceOrder);
     }
 
-    private void addProductToTable(Product p) {
-        String details = "-";
+    // Cells are rendered from the product only when the table paints them
+    private Object productCellValue(Product p, int column) {
+        return switch (column) {
+            case 0 -> p.getId();
+            case 1 -> p.getName();
+            case 2 -> p.getClass().getSimpleName().toUpperCase();
+            case 3 -> p.getStockQuantity();
+            case 4 -> p.getPrice();
+            case 5 -> productDetails(p);
+            case 6 -> "✏️";
+            case 7 -> "🗑️";
+            default -> null;
+        };
+    }
+
+    private String productDetails(Product p) {
         if (p instanceof Toy t) {
-            details = "Material: " + t.getMaterial();
+            return "Material: " + t.getMaterial();
         } else if (p instanceof Food f) {
-            details = "Exp: " + f.getExpirationDate() + ", Info: " + f.getNutritionalInfo();
+            return "Exp: " + f.getExpirationDate();
         } else if (p instanceof Medicine m) {
-            details = "Dose: " + m.getDosage() + ", Exp: " + m.getExpirationDate();
+            return "Dose: " + m.getDosage() + ", Exp: " + m.getExpirationDate();
         }
-
-        model.addRow(new Object[]{
-                p.getId(),
-                p.getName(),
-                p.getClass().getSimpleName().toUpperCase(),
-                p.getStockQuantity(),
-                p.getPrice(),
-                details,
-                "✏️",
-                "🗑️"
-        });
+        return "-";
     }
 
-    private Product mapRowToProduct(DefaultTableModel model, int row) {
-        int id = Integer.parseInt(model.getValueAt(row, 0).toString());
-
-        return currentProducts.stream()
-                .filter(p -> p.getId() == id)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Product not found with ID " + id));
+    // null while the row's block is still loading; ButtonCellEditor then ignores the click
+    private Product mapRowToProduct(TableModel tableModel, int row) {
+        return model.getRow(row);
     }
 
     private JButton createRoundedButton(String text) {
@@ -2,9 +2,11 @@ package view.panel;
 
 import controller.product.ProductController;
 import controller.pet.PetController;
-import controller.customer.CustomerController;
 import controller.bill.BillingController;
-import dao.user.UserDAO;
+import dao.bill.BillDAO;
+import dao.dashboard.DashboardStatsDAO;
+import service.billing.InvoiceBatchExporter;
+import service.report.ReportExporter;
 
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
@@ -18,15 +20,22 @@ import org.jfree.data.general.DefaultPieDataset;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.io.File;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
 
 public class ReportsPanel extends JPanel {
     
@@ -39,16 +48,33 @@ public class ReportsPanel extends JPanel {
     private final Color cardBg = Color.WHITE;
     private final Color lightBg = new Color(0xF8F9FA);
 
+    private static final String[] TAB_TITLES = {
+        "Sales Report", "Financial Report", "Pet Statistics", "Inventory Report", "Customer Report", "Staff Report"
+    };
+
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(4, r -> {
+        Thread t = new Thread(r, "report-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
     private JTabbedPane tabbedPane;
+    // Which tabs have started loading; reset by refreshAllReports, which also bumps the generation
+    private final boolean[] tabRequested = new boolean[TAB_TITLES.length];
+    private int tabGeneration;
     private BillingController billingController;
-    private UserDAO userDAO;
     
     private PetController petController = new PetController();
     private ProductController productController = new ProductController();
+    private final DashboardStatsDAO statsDAO = new DashboardStatsDAO();
+    private final ReportExporter reportExporter = new ReportExporter();
+
+    private JButton exportBtn;
+    private JButton billLinesBtn;
+    private JProgressBar exportProgress;
 
     public ReportsPanel() {
         billingController = new BillingController();
-        userDAO = new UserDAO();
         
         initializePanel();
         setupReportTabs();
@@ -69,18 +95,164 @@ public class ReportsPanel extends JPanel {
         tabbedPane.setFont(new Font("Segoe UI", Font.BOLD, 12));
         tabbedPane.setBackground(cardBg);
         
-        // Add report tabs
-        tabbedPane.addTab("Sales Report", createSalesReportPanel());
-        tabbedPane.addTab("Financial Report", createFinancialReportPanel());
-        tabbedPane.addTab("Pet Statistics", createPetReportPanel());
-        tabbedPane.addTab("Inventory Report", createInventoryReportPanel());
-        tabbedPane.addTab("Customer Report", createCustomerReportPanel());
-        tabbedPane.addTab("Staff Report", createStaffReportPanel());
+        // Add report tabs; each one is only built the first time it is selected
+        for (String title : TAB_TITLES) {
+            tabbedPane.addTab(title, createTabHolder());
+        }
+        tabbedPane.addChangeListener(e -> loadTab(tabbedPane.getSelectedIndex()));
+        loadTab(tabbedPane.getSelectedIndex());
 
         add(headerPanel, BorderLayout.NORTH);
         add(tabbedPane, BorderLayout.CENTER);
     }
 
+    private JPanel createTabHolder() {
+        JPanel holder = new JPanel(new BorderLayout());
+        holder.setBackground(lightBg);
+        JLabel loading = new JLabel("Loading report...", SwingConstants.CENTER);
+        loading.setFont(new Font("Segoe UI", Font.ITALIC, 14));
+        loading.setForeground(new Color(0x7F8C8D));
+        holder.add(loading, BorderLayout.CENTER);
+        return holder;
+    }
+
+    // LAZY TAB LOADING
+
+    private interface TabLoader {
+        CompletableFuture<Supplier<JPanel>> load();
+    }
+
+    private interface Query<T> {
+        T get() throws Exception;
+    }
+
+    // Fetches the tab's data on LOADER threads, then builds its content on the EDT. No-op once requested.
+    private void loadTab(int index) {
+        if (index < 0 || tabRequested[index]) {
+            return;
+        }
+        tabRequested[index] = true;
+        int generation = tabGeneration;
+        TabLoader[] loaders = {
+            this::loadSalesReport, this::loadFinancialReport, this::loadPetReport,
+            this::loadInventoryReport, this::loadCustomerReport, this::loadStaffReport
+        };
+
+        loaders[index].load().whenComplete((builder, error) -> SwingUtilities.invokeLater(() -> {
+            if (generation != tabGeneration) {
+                return; // a refresh started in the meantime and will load the tab again
+            }
+            JPanel holder = (JPanel) tabbedPane.getComponentAt(index);
+            holder.removeAll();
+            if (error == null) {
+                holder.add(builder.get(), BorderLayout.CENTER);
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                System.err.println("Error loading " + TAB_TITLES[index] + ": " + cause.getMessage());
+                tabRequested[index] = false; // selecting the tab again retries
+                JLabel failed = new JLabel("Could not load this report: " + cause.getMessage(), SwingConstants.CENTER);
+                failed.setForeground(dangerColor);
+                holder.add(failed, BorderLayout.CENTER);
+            }
+            holder.revalidate();
+            holder.repaint();
+        }));
+    }
+
+    // Failures complete the future exceptionally and the whole tab shows an error
+    private static <T> CompletableFuture<T> loadAsync(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.get();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, LOADER);
+    }
+
+    // Failures yield null, which the chart builders draw as "Error loading data"
+    private static <T> CompletableFuture<T> loadAsyncOrNull(Query<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return query.get();
+            } catch (Exception e) {
+                System.err.println("Error loading report data: " + e.getMessage());
+                return null;
+            }
+        }, LOADER);
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadSalesReport() {
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<String> bestMonth = loadAsync(billingController::getBestMonth);
+        CompletableFuture<Map<String, BigDecimal>> monthlySales = loadAsyncOrNull(billingController::getMonthlySales);
+        return CompletableFuture.allOf(stats, bestMonth, monthlySales)
+            .thenApply(ignored -> () -> createSalesReportPanel(stats.join(), bestMonth.join(), monthlySales.join()));
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadFinancialReport() {
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<Map<String, BigDecimal>> weeklyRevenue = loadAsyncOrNull(billingController::getWeeklyRevenue);
+        return CompletableFuture.allOf(stats, weeklyRevenue)
+            .thenApply(ignored -> () -> createFinancialReportPanel(stats.join(), weeklyRevenue.join()));
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadPetReport() {
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<Integer> soldPets = loadAsync(billingController::getSoldPetsCount);
+        CompletableFuture<Map<String, Integer>> distribution = loadAsyncOrNull(() -> new dao.pet.PetDAO().getPetDistribution());
+        CompletableFuture<int[]> ageGroups = loadAsyncOrNull(this::loadPetAgeGroups);
+        return CompletableFuture.allOf(stats, soldPets, distribution, ageGroups)
+            .thenApply(ignored -> () -> createPetReportPanel(stats.join(), soldPets.join(), distribution.join(), ageGroups.join()));
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadInventoryReport() {
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<Integer> outOfStock = loadAsync(() -> dao.product.ProductDAO.getLowStockCount(0));
+        CompletableFuture<List<model.product.Product>> products = loadAsyncOrNull(productController::getAllProducts);
+        return CompletableFuture.allOf(stats, outOfStock, products)
+            .thenApply(ignored -> () -> createInventoryReportPanel(stats.join(), outOfStock.join(), products.join()));
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadCustomerReport() {
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<Integer> activeCustomers = loadAsync(billingController::getActiveCustomersCount);
+        CompletableFuture<Integer> newCustomers = loadAsync(billingController::getNewCustomersThisMonth);
+        CompletableFuture<Map<String, Integer>> weeklyActivity = loadAsyncOrNull(billingController::getCustomerActivityByWeek);
+        return CompletableFuture.allOf(stats, activeCustomers, newCustomers, weeklyActivity)
+            .thenApply(ignored -> () -> createCustomerReportPanel(stats.join(), activeCustomers.join(),
+                                                                 newCustomers.join(), weeklyActivity.join()));
+    }
+
+    private CompletableFuture<Supplier<JPanel>> loadStaffReport() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        CompletableFuture<DashboardStatsDAO.Stats> stats = loadAsync(statsDAO::getStats);
+        CompletableFuture<List<BillDAO.StaffPerformance>> leaderboard =
+            loadAsyncOrNull(() -> billingController.getStaffLeaderboard(monthStart, monthStart.plusMonths(1)));
+        return CompletableFuture.allOf(stats, leaderboard)
+            .thenApply(ignored -> () -> createStaffReportPanel(stats.join(), leaderboard.join()));
+    }
+
+    // Puppy/kitten, young, adult, senior
+    private int[] loadPetAgeGroups() throws Exception {
+        int[] groups = new int[4];
+        for (model.pet.Pet pet : petController.getAllPets()) {
+            int age = pet.getAge();
+            if (age <= 1) {
+                groups[0]++;
+            } else if (age <= 3) {
+                groups[1]++;
+            } else if (age <= 7) {
+                groups[2]++;
+            } else {
+                groups[3]++;
+            }
+        }
+        return groups;
+    }
+
     private JPanel createHeaderPanel() {
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setBackground(primaryColor);
@@ -104,13 +276,27 @@ public class ReportsPanel extends JPanel {
         JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         exportPanel.setOpaque(false);
         
-        JButton exportBtn = createStyledButton("Export Data", "Export current data to CSV");
+        exportBtn = createStyledButton("Export Data", "Export current data to CSV");
         exportBtn.addActionListener(e -> exportCurrentData());
+
+        billLinesBtn = createStyledButton("Export Bill Lines", "Export every bill item in a date range to CSV");
+        billLinesBtn.addActionListener(e -> exportBillLines());
+
+        exportProgress = new JProgressBar(0, 100);
+        exportProgress.setStringPainted(true);
+        exportProgress.setPreferredSize(new Dimension(260, 22));
+        exportProgress.setVisible(false);
         
+        JButton invoicesBtn = createStyledButton("Export Invoices", "Export all invoices in a date range as one PDF or a ZIP");
+        invoicesBtn.addActionListener(e -> exportInvoices(invoicesBtn));
+
         JButton refreshBtn = createStyledButton("Refresh", "Refresh all reports");
         refreshBtn.addActionListener(e -> refreshAllReports());
 
+        exportPanel.add(exportProgress);
         exportPanel.add(refreshBtn);
+        exportPanel.add(invoicesBtn);
+        exportPanel.add(billLinesBtn);
         exportPanel.add(exportBtn);
 
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -119,19 +305,21 @@ public class ReportsPanel extends JPanel {
         return headerPanel;
     }
 
-    private JPanel createSalesReportPanel() {
+    // TAB CONTENT (EDT only, from data loaded above)
+
+    private JPanel createSalesReportPanel(DashboardStatsDAO.Stats stats, String bestMonth, Map<String, BigDecimal> monthlySales) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
 
         // Summary cards
-        JPanel summaryPanel = createSalesSummaryCards();
+        JPanel summaryPanel = createSalesSummaryCards(stats, bestMonth);
         
         // Charts
         JPanel chartsPanel = new JPanel(new GridLayout(1, 2, 15, 0));
         chartsPanel.setOpaque(false);
-        chartsPanel.add(createMonthlySalesChart());
-        chartsPanel.add(createTopProductsChart());
+        chartsPanel.add(createMonthlySalesChart(monthlySales));
+        chartsPanel.add(createTopProductsChart(stats));
 
         panel.add(summaryPanel, BorderLayout.NORTH);
         panel.add(chartsPanel, BorderLayout.CENTER);
@@ -139,26 +327,20 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
 
-    private JPanel createSalesSummaryCards() {
+    private JPanel createSalesSummaryCards(DashboardStatsDAO.Stats stats, String bestMonth) {
         JPanel summaryPanel = new JPanel(new GridLayout(1, 4, 15, 0));
         summaryPanel.setOpaque(false);
         summaryPanel.setPreferredSize(new Dimension(0, 120));
 
-        int totalOrders = billingController.getTotalOrders();
-        BigDecimal totalRevenue = billingController.getTotalRevenue();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-        BigDecimal avgOrderValue = totalOrders > 0 && totalRevenue.compareTo(BigDecimal.ZERO) > 0 ? 
-            totalRevenue.divide(BigDecimal.valueOf(totalOrders), 2, BigDecimal.ROUND_HALF_UP) : BigDecimal.ZERO;
-
-        summaryPanel.add(createSummaryCard("Total Orders", String.valueOf(totalOrders), successColor));
-        summaryPanel.add(createSummaryCard("Total Revenue", "$" + totalRevenue, infoColor));
-        summaryPanel.add(createSummaryCard("Average Order", "$" + avgOrderValue, warningColor));
-        summaryPanel.add(createSummaryCard("Best Month", billingController.getBestMonth(), primaryColor));
+        summaryPanel.add(createSummaryCard("Total Orders", String.valueOf(stats.getTotalOrders()), successColor));
+        summaryPanel.add(createSummaryCard("Total Revenue", "$" + stats.getTotalRevenue(), infoColor));
+        summaryPanel.add(createSummaryCard("Average Order", "$" + stats.getAverageOrderValue(), warningColor));
+        summaryPanel.add(createSummaryCard("Best Month", bestMonth, primaryColor));
 
         return summaryPanel;
     }
 
-    private JPanel createFinancialReportPanel() {
+    private JPanel createFinancialReportPanel(DashboardStatsDAO.Stats stats, Map<String, BigDecimal> weeklyRevenue) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
@@ -168,8 +350,7 @@ public class ReportsPanel extends JPanel {
         metricsPanel.setOpaque(false);
         metricsPanel.setPreferredSize(new Dimension(0, 250));
 
-        BigDecimal totalRevenue = billingController.getTotalRevenue();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
+        BigDecimal totalRevenue = stats.getTotalRevenue();
         // Calculate financial metrics dynamically
         BigDecimal estimatedCosts = totalRevenue.multiply(BigDecimal.valueOf(0.6)); // 60% estimated costs
         BigDecimal estimatedProfit = totalRevenue.subtract(estimatedCosts);
@@ -186,7 +367,7 @@ public class ReportsPanel extends JPanel {
         metricsPanel.add(createSummaryCardWithTooltip("ROI", "Under Development", primaryColor, "Comprehensive cost tracking module implementation in progress"));
 
         // Revenue trend chart
-        JPanel chartPanel = createRevenueFlowChart();
+        JPanel chartPanel = createRevenueFlowChart(weeklyRevenue);
 
         panel.add(metricsPanel, BorderLayout.NORTH);
         panel.add(chartPanel, BorderLayout.CENTER);
@@ -194,15 +375,14 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
 
-    private JPanel createPetReportPanel() {
+    private JPanel createPetReportPanel(DashboardStatsDAO.Stats stats, int soldPets,
+                                       Map<String, Integer> distribution, int[] ageGroups) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
 
         // Pet statistics with actual sold pet tracking
-        int totalPets = petController.getAllPets().size();
-        int soldPets = billingController.getSoldPetsCount();
-        int availablePets = totalPets; // Current pets available in system
+        int availablePets = stats.getTotalPets(); // Current pets available in system
 
         JPanel statsPanel = new JPanel(new GridLayout(1, 3, 15, 0));
         statsPanel.setOpaque(false);
@@ -215,8 +395,8 @@ public class ReportsPanel extends JPanel {
         // Pet distribution charts
         JPanel chartsPanel = new JPanel(new GridLayout(1, 2, 15, 0));
         chartsPanel.setOpaque(false);
-        chartsPanel.add(createPetTypeChart());
-        chartsPanel.add(createPetAgeChart());
+        chartsPanel.add(createPetTypeChart(distribution));
+        chartsPanel.add(createPetAgeChart(ageGroups));
 
         panel.add(statsPanel, BorderLayout.NORTH);
         panel.add(chartsPanel, BorderLayout.CENTER);
@@ -224,26 +404,15 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
 
-    private JPanel createInventoryReportPanel() {
+    private JPanel createInventoryReportPanel(DashboardStatsDAO.Stats stats, int outOfStockItems,
+                                              List<model.product.Product> products) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
 
-        // Inventory summary - get actual stock data
-        int totalProducts = productController.getAllProducts().size();
-        int lowStockItems = 0;
-        int outOfStockItems = 0;
-        
-        try {
-            // Get low stock items (stock quantity <= 5)
-            lowStockItems = dao.product.ProductDAO.getLowStockCount(5);
-            // Get out of stock items (stock quantity = 0)
-            outOfStockItems = dao.product.ProductDAO.getLowStockCount(0);
-            // Subtract out of stock from low stock to avoid double counting
-            lowStockItems = lowStockItems - outOfStockItems;
-        } catch (Exception e) {
-            System.err.println("Error getting stock information: " + e.getMessage());
-        }
+        // Stats count stock_quantity <= 5 as low; subtract out of stock to avoid double counting
+        int totalProducts = stats.getTotalProducts();
+        int lowStockItems = stats.getLowStockProducts() - outOfStockItems;
 
         JPanel summaryPanel = new JPanel(new GridLayout(1, 4, 15, 0));
         summaryPanel.setOpaque(false);
@@ -255,7 +424,7 @@ public class ReportsPanel extends JPanel {
         summaryPanel.add(createSummaryCard("Well Stocked", String.valueOf(totalProducts - lowStockItems - outOfStockItems), successColor));
 
         // Inventory table
-        JPanel tablePanel = createInventoryTable();
+        JPanel tablePanel = createInventoryTable(products);
 
         panel.add(summaryPanel, BorderLayout.NORTH);
         panel.add(tablePanel, BorderLayout.CENTER);
@@ -263,25 +432,22 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
 
-    private JPanel createCustomerReportPanel() {
+    private JPanel createCustomerReportPanel(DashboardStatsDAO.Stats stats, int activeCustomers, int newCustomers,
+                                             Map<String, Integer> weeklyActivity) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
 
-        int totalCustomers = CustomerController.getAllCustomers().size();
-        int activeCustomers = billingController.getActiveCustomersCount();
-        int newCustomers = billingController.getNewCustomersThisMonth();
-
         JPanel summaryPanel = new JPanel(new GridLayout(1, 3, 15, 0));
         summaryPanel.setOpaque(false);
         summaryPanel.setPreferredSize(new Dimension(0, 120));
 
-        summaryPanel.add(createSummaryCard("Total Customers", String.valueOf(totalCustomers), infoColor));
+        summaryPanel.add(createSummaryCard("Total Customers", String.valueOf(stats.getTotalCustomers()), infoColor));
         summaryPanel.add(createSummaryCard("Active Customers", String.valueOf(activeCustomers), successColor));
         summaryPanel.add(createSummaryCard("New This Month", String.valueOf(newCustomers), warningColor));
 
         // Customer activity chart
-        JPanel chartPanel = createCustomerActivityChart();
+        JPanel chartPanel = createCustomerActivityChart(weeklyActivity);
 
         panel.add(summaryPanel, BorderLayout.NORTH);
         panel.add(chartPanel, BorderLayout.CENTER);
@@ -289,20 +455,13 @@ public class ReportsPanel extends JPanel {
         return panel;
     }
 
-    private JPanel createStaffReportPanel() {
+    private JPanel createStaffReportPanel(DashboardStatsDAO.Stats stats, List<BillDAO.StaffPerformance> leaderboard) {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(lightBg);
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
 
-        int totalStaff = 0;
-        int totalOrders = billingController.getTotalOrders();
-        BigDecimal totalRevenue = billingController.getTotalStaffRevenue();
-        
-        try {
-            totalStaff = userDAO.getAllStaff().size();
-        } catch (Exception e) {
-            totalStaff = 0;
-        }
+        int totalStaff = stats.getTotalStaff();
+        int totalOrders = stats.getTotalOrders();
 
         // Calculate average performance
         String avgPerformance = totalStaff > 0 ? 
@@ -316,15 +475,56 @@ public class ReportsPanel extends JPanel {
         summaryPanel.add(createSummaryCard("Total Orders", String.valueOf(totalOrders), successColor));
         summaryPanel.add(createSummaryCard("Avg Performance", avgPerformance, infoColor));
 
-        // Staff performance chart
-        JPanel chartPanel = createStaffPerformanceChart();
+        // Staff performance chart and this month's leaderboard
+        JPanel contentPanel = new JPanel(new GridLayout(1, 2, 15, 0));
+        contentPanel.setOpaque(false);
+        contentPanel.add(createStaffPerformanceChart(totalStaff, totalOrders, stats.getTotalRevenue()));
+        contentPanel.add(createStaffLeaderboardTable(leaderboard));
 
         panel.add(summaryPanel, BorderLayout.NORTH);
-        panel.add(chartPanel, BorderLayout.CENTER);
+        panel.add(contentPanel, BorderLayout.CENTER);
 
         return panel;
     }
 
+    private JPanel createStaffLeaderboardTable(List<BillDAO.StaffPerformance> leaderboard) {
+        JPanel tablePanel = new JPanel(new BorderLayout());
+        tablePanel.setOpaque(false);
+
+        String[] columns = {"#", "Staff", "Orders", "Revenue", "Avg Basket", "Items Sold"};
+        DefaultTableModel model = new DefaultTableModel(columns, 0);
+
+        if (leaderboard == null) {
+            model.addRow(new Object[]{"", "Error loading data", "", "", "", ""});
+        } else if (leaderboard.isEmpty()) {
+            model.addRow(new Object[]{"", "No staff available", "", "", "", ""});
+        } else {
+            int rank = 1;
+            for (BillDAO.StaffPerformance performance : leaderboard) {
+                model.addRow(new Object[]{
+                    rank++,
+                    performance.getStaffName(),
+                    performance.getOrders(),
+                    "$" + performance.getRevenue(),
+                    "$" + performance.getAverageBasket(),
+                    performance.getItemsSold()
+                });
+            }
+        }
+
+        JTable table = new JTable(model);
+        table.setRowHeight(25);
+        table.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 12));
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+        table.setDefaultEditor(Object.class, null);
+
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("Staff Leaderboard (This Month)"));
+
+        tablePanel.add(scrollPane, BorderLayout.CENTER);
+        return tablePanel;
+    }
+
     // Helper method to create summary cards
     private JPanel createSummaryCard(String title, String value, Color color) {
         JPanel card = new JPanel(new BorderLayout());
@@ -380,20 +580,17 @@ public class ReportsPanel extends JPanel {
     }
 
     // Chart creation methods
-    private JPanel createMonthlySalesChart() {
+    private JPanel createMonthlySalesChart(Map<String, BigDecimal> monthlySales) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Get actual monthly sales data from database
-        try {
-            java.util.Map<String, BigDecimal> monthlySales = billingController.getMonthlySales();
-            
-            for (java.util.Map.Entry<String, BigDecimal> entry : monthlySales.entrySet()) {
+        if (monthlySales != null) {
+            for (Map.Entry<String, BigDecimal> entry : monthlySales.entrySet()) {
                 String month = entry.getKey();
                 BigDecimal sales = entry.getValue();
                 dataset.addValue(sales, "Sales", month);
             }
             
-        } catch (Exception e) {
+        } else {
             // Fallback to empty data if database error
             String[] months = {"Jan", "Feb", "Mar", "Apr", "May", "Jun", 
                               "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"};
@@ -418,37 +615,22 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createTopProductsChart() {
+    private JPanel createTopProductsChart(DashboardStatsDAO.Stats stats) {
         DefaultPieDataset dataset = new DefaultPieDataset();
         
-        // Get actual product type distribution from database
-        try {
-            List<model.product.Product> products = productController.getAllProducts();
-            java.util.Map<String, Integer> distribution = new java.util.HashMap<>();
-            
-            // Count products by type
-            for (model.product.Product product : products) {
-                String type = product.getClass().getSimpleName().toUpperCase();
-                distribution.put(type, distribution.getOrDefault(type, 0) + 1);
-            }
-            
-            int foodCount = distribution.getOrDefault("FOOD", 0);
-            int toyCount = distribution.getOrDefault("TOY", 0);
-            int medicineCount = distribution.getOrDefault("MEDICINE", 0);
-            
-            // Only add non-zero values to avoid cluttering the chart
-            if (foodCount > 0) dataset.setValue("Food", foodCount);
-            if (toyCount > 0) dataset.setValue("Toys", toyCount);
-            if (medicineCount > 0) dataset.setValue("Medicine", medicineCount);
-            
-            // If no products exist, show empty message
-            if (foodCount == 0 && toyCount == 0 && medicineCount == 0) {
-                dataset.setValue("No products available", 1);
-            }
-            
-        } catch (Exception e) {
-            // Fallback to empty data if database error
-            dataset.setValue("Error loading data", 1);
+        // Product type counts come with the stats query
+        int foodCount = stats.getFoodCount();
+        int toyCount = stats.getToyCount();
+        int medicineCount = stats.getMedicineCount();
+        
+        // Only add non-zero values to avoid cluttering the chart
+        if (foodCount > 0) dataset.setValue("Food", foodCount);
+        if (toyCount > 0) dataset.setValue("Toys", toyCount);
+        if (medicineCount > 0) dataset.setValue("Medicine", medicineCount);
+        
+        // If no products exist, show empty message
+        if (foodCount == 0 && toyCount == 0 && medicineCount == 0) {
+            dataset.setValue("No products available", 1);
         }
 
         JFreeChart chart = ChartFactory.createPieChart(
@@ -468,20 +650,17 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createRevenueFlowChart() {
+    private JPanel createRevenueFlowChart(Map<String, BigDecimal> weeklyRevenue) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Get actual weekly revenue data from database
-        try {
-            java.util.Map<String, BigDecimal> weeklyRevenue = billingController.getWeeklyRevenue();
-            
-            for (java.util.Map.Entry<String, BigDecimal> entry : weeklyRevenue.entrySet()) {
+        if (weeklyRevenue != null) {
+            for (Map.Entry<String, BigDecimal> entry : weeklyRevenue.entrySet()) {
                 String week = entry.getKey();
                 BigDecimal revenue = entry.getValue();
                 dataset.addValue(revenue, "Revenue", week);
             }
             
-        } catch (Exception e) {
+        } else {
             // Fallback to empty data if database error
             for (int i = 1; i <= 4; i++) {
                 dataset.addValue(0, "Revenue", "Week " + i);
@@ -502,14 +681,10 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createPetTypeChart() {
+    private JPanel createPetTypeChart(Map<String, Integer> distribution) {
         DefaultPieDataset dataset = new DefaultPieDataset();
         
-        // Get actual pet type distribution from database
-        try {
-            dao.pet.PetDAO petDAO = new dao.pet.PetDAO();
-            java.util.Map<String, Integer> distribution = petDAO.getPetDistribution();
-            
+        if (distribution != null) {
             int dogCount = distribution.getOrDefault("DOG", 0);
             int catCount = distribution.getOrDefault("CAT", 0);
             int otherCount = 0; // Currently system only supports DOG and CAT
@@ -524,7 +699,7 @@ public class ReportsPanel extends JPanel {
                 dataset.setValue("No pets available", 1);
             }
             
-        } catch (Exception e) {
+        } else {
             // Fallback to empty data if database error
             dataset.setValue("Error loading data", 1);
         }
@@ -546,27 +721,11 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createPetAgeChart() {
+    private JPanel createPetAgeChart(int[] ageGroups) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Get actual pet age distribution from database
-        try {
-            List<model.pet.Pet> pets = petController.getAllPets();
-            
-            int puppy = 0, young = 0, adult = 0, senior = 0;
-            
-            for (model.pet.Pet pet : pets) {
-                int age = pet.getAge();
-                if (age <= 1) {
-                    puppy++;
-                } else if (age <= 3) {
-                    young++;
-                } else if (age <= 7) {
-                    adult++;
-                } else {
-                    senior++;
-                }
-            }
+        if (ageGroups != null) {
+            int puppy = ageGroups[0], young = ageGroups[1], adult = ageGroups[2], senior = ageGroups[3];
             
             // Only add non-zero values
             if (puppy > 0) dataset.addValue(puppy, "Count", "Puppy/Kitten (≤1yr)");
@@ -579,7 +738,7 @@ public class ReportsPanel extends JPanel {
                 dataset.addValue(1, "Count", "No pets available");
             }
             
-        } catch (Exception e) {
+        } else {
             dataset.addValue(1, "Count", "Error loading data");
         }
 
@@ -599,17 +758,14 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createInventoryTable() {
+    private JPanel createInventoryTable(List<model.product.Product> products) {
         JPanel tablePanel = new JPanel(new BorderLayout());
         tablePanel.setOpaque(false);
         
         String[] columns = {"Product", "Type", "Price", "Available"};
         DefaultTableModel model = new DefaultTableModel(columns, 0);
         
-        // Get actual product data from database
-        try {
-            List<model.product.Product> products = productController.getAllProducts();
-            
+        if (products != null) {
             if (products.isEmpty()) {
                 model.addRow(new Object[]{"No products available", "N/A", "$0.00", "0"});
             } else {
@@ -624,7 +780,7 @@ public class ReportsPanel extends JPanel {
                 }
             }
             
-        } catch (Exception e) {
+        } else {
             model.addRow(new Object[]{"Error loading data", "Error", "$0.00", "N/A"});
         }
 
@@ -644,20 +800,17 @@ public class ReportsPanel extends JPanel {
         return tablePanel;
     }
 
-    private JPanel createCustomerActivityChart() {
+    private JPanel createCustomerActivityChart(Map<String, Integer> weeklyActivity) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Get actual customer activity data from database
-        try {
-            java.util.Map<String, Integer> weeklyActivity = billingController.getCustomerActivityByWeek();
-            
-            for (java.util.Map.Entry<String, Integer> entry : weeklyActivity.entrySet()) {
+        if (weeklyActivity != null) {
+            for (Map.Entry<String, Integer> entry : weeklyActivity.entrySet()) {
                 String day = entry.getKey();
                 Integer activeCustomers = entry.getValue();
                 dataset.addValue(activeCustomers, "Active Customers", day);
             }
             
-        } catch (Exception e) {
+        } else {
             // Fallback to empty data if database error
             String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
             for (String day : days) {
@@ -679,30 +832,17 @@ public class ReportsPanel extends JPanel {
         return chartPanel;
     }
 
-    private JPanel createStaffPerformanceChart() {
+    private JPanel createStaffPerformanceChart(int staffCount, int totalOrders, BigDecimal totalRevenue) {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
         
-        // Calculate actual staff performance metrics from database
-        try {
-            List<model.user.Staff> allStaff = userDAO.getAllStaff();
-            int totalOrders = billingController.getTotalOrders();
-            BigDecimal totalRevenue = billingController.getTotalRevenue();
-            
-            // Calculate performance metrics
-            double salesScore = totalRevenue != null ? Math.min(100, totalRevenue.doubleValue() / 10) : 0; // Scale to 0-100
-            double efficiencyScore = allStaff.size() > 0 ? Math.min(100, (double)totalOrders / allStaff.size() * 10) : 0;
-            double serviceScore = totalOrders > 0 ? 85.0 : 0; // Estimated score - will be replaced with customer feedback system
-            
-            dataset.addValue(salesScore, "Performance", "Sales");
-            dataset.addValue(serviceScore, "Performance", "Service");  
-            dataset.addValue(efficiencyScore, "Performance", "Efficiency");
-            
-        } catch (Exception e) {
-            // Fallback to default values if there's an error
-            dataset.addValue(0, "Performance", "Sales");
-            dataset.addValue(0, "Performance", "Service");
-            dataset.addValue(0, "Performance", "Efficiency");
-        }
+        // Calculate performance metrics
+        double salesScore = totalRevenue != null ? Math.min(100, totalRevenue.doubleValue() / 10) : 0; // Scale to 0-100
+        double efficiencyScore = staffCount > 0 ? Math.min(100, (double)totalOrders / staffCount * 10) : 0;
+        double serviceScore = totalOrders > 0 ? 85.0 : 0; // Estimated score - will be replaced with customer feedback system
+        
+        dataset.addValue(salesScore, "Performance", "Sales");
+        dataset.addValue(serviceScore, "Performance", "Service");  
+        dataset.addValue(efficiencyScore, "Performance", "Efficiency");
 
         JFreeChart chart = ChartFactory.createBarChart(
             "Staff Performance Metrics", "Metric", "Score (%)", 
@@ -744,131 +884,159 @@ public class ReportsPanel extends JPanel {
         return btn;
     }
 
-private void exportCurrentData() {
-    int selectedTab = tabbedPane.getSelectedIndex();
-    String tabName = tabbedPane.getTitleAt(selectedTab);
-    
-    try {
-        String fileName = "report_" + System.currentTimeMillis() + ".csv";
-        FileWriter writer = new FileWriter(fileName);
-        
-        writer.write("Pet Shop Report - " + tabName + "\n");
-        writer.write("Generated: " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + "\n\n");
-        
-        switch (selectedTab) {
-            case 0: // Sales Report
-                writer.write("Metric,Value\n");
-                writer.write("Total Orders," + billingController.getTotalOrders() + "\n");
-                writer.write("Total Revenue,$" + billingController.getTotalRevenue() + "\n");
-                writer.write("Average Order Value,$" + 
-                    (billingController.getTotalOrders() > 0 && billingController.getTotalRevenue() != null ? 
-                        billingController.getTotalRevenue().divide(BigDecimal.valueOf(billingController.getTotalOrders()), 2, BigDecimal.ROUND_HALF_UP) : BigDecimal.ZERO) 
-                + "\n");
-                writer.write("Best Month," + billingController.getBestMonth() + "\n");
-                break;
-            
-            case 1: // Financial Report
-                BigDecimal totalRevenue = billingController.getTotalRevenue();
-                if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-                BigDecimal estimatedCosts = totalRevenue.multiply(BigDecimal.valueOf(0.6));
-                BigDecimal estimatedProfit = totalRevenue.subtract(estimatedCosts);
-                String profitMargin = totalRevenue.compareTo(BigDecimal.ZERO) > 0 ? 
-                    String.format("%.1f%%", estimatedProfit.divide(totalRevenue, 4, BigDecimal.ROUND_HALF_UP).multiply(BigDecimal.valueOf(100)).doubleValue()) : "0%";
-
-                writer.write("Financial Metric,Amount\n");
-                writer.write("Total Revenue,$" + totalRevenue + "\n");
-                writer.write("Estimated Costs,$" + estimatedCosts + "\n");
-                writer.write("Estimated Profit,$" + estimatedProfit + "\n");
-                writer.write("Profit Margin," + profitMargin + "\n");
-                writer.write("Growth Rate,Pending Analysis\n");
-                writer.write("ROI,Under Development\n");
-                break;
-
-            case 2: // Pet Statistics
-                int totalPets = petController.getAllPets().size();
-                int soldPets = billingController.getSoldPetsCount();
-                int availablePets = totalPets; // As per your code
-
-                writer.write("Pet Statistic,Count\n");
-                writer.write("Available Pets," + availablePets + "\n");
-                writer.write("Sold Pets," + soldPets + "\n");
-                writer.write("Total Processed," + (availablePets + soldPets) + "\n");
-                break;
-
-            case 3: // Inventory Report
-                int totalProducts = productController.getAllProducts().size();
-                int lowStockItems = 0;
-                int outOfStockItems = 0;
-
-                try {
-                    lowStockItems = dao.product.ProductDAO.getLowStockCount(5);
-                    outOfStockItems = dao.product.ProductDAO.getLowStockCount(0);
-                    lowStockItems = lowStockItems - outOfStockItems;
-                } catch (Exception e) {
-                    // ignore errors
+    // Asks for a first and last day (inclusive); returns {from, toExclusive} or null when cancelled
+    private LocalDate[] promptDateRange(String title) {
+        LocalDate today = LocalDate.now();
+        JTextField fromField = new JTextField(today.withDayOfMonth(1).toString(), 10);
+        JTextField toField = new JTextField(today.toString(), 10);
+        JPanel form = new JPanel(new GridLayout(2, 2, 5, 5));
+        form.add(new JLabel("From (yyyy-MM-dd):"));
+        form.add(fromField);
+        form.add(new JLabel("To (yyyy-MM-dd):"));
+        form.add(toField);
+
+        while (JOptionPane.showConfirmDialog(this, form, title, JOptionPane.OK_CANCEL_OPTION,
+                JOptionPane.PLAIN_MESSAGE) == JOptionPane.OK_OPTION) {
+            try {
+                LocalDate from = LocalDate.parse(fromField.getText().trim());
+                LocalDate to = LocalDate.parse(toField.getText().trim());
+                if (!to.isBefore(from)) {
+                    return new LocalDate[] { from, to.plusDays(1) };
                 }
+                JOptionPane.showMessageDialog(this, "The end date must not be before the start date.", title, JOptionPane.WARNING_MESSAGE);
+            } catch (DateTimeParseException ex) {
+                JOptionPane.showMessageDialog(this, "Please enter dates as yyyy-MM-dd.", title, JOptionPane.WARNING_MESSAGE);
+            }
+        }
+        return null;
+    }
 
-                writer.write("Inventory Metric,Count\n");
-                writer.write("Total Products," + totalProducts + "\n");
-                writer.write("Low Stock," + lowStockItems + "\n");
-                writer.write("Out of Stock," + outOfStockItems + "\n");
-                writer.write("Well Stocked," + (totalProducts - lowStockItems - outOfStockItems) + "\n");
-                break;
-
-            case 4: // Customer Report
-                int totalCustomers = CustomerController.getAllCustomers().size();
-                int activeCustomers = billingController.getActiveCustomersCount();
-                int newCustomers = billingController.getNewCustomersThisMonth();
-
-                writer.write("Customer Metric,Count\n");
-                writer.write("Total Customers," + totalCustomers + "\n");
-                writer.write("Active Customers," + activeCustomers + "\n");
-                writer.write("New This Month," + newCustomers + "\n");
-                break;
-
-            case 5: // Staff Report
-                int totalStaff = 0;
-                int totalOrders = billingController.getTotalOrders();
-                BigDecimal totalStaffRevenue = billingController.getTotalStaffRevenue();
+    private void exportInvoices(JButton trigger) {
+        LocalDate[] range = promptDateRange("Export Invoices");
+        if (range == null) return;
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("invoices_" + range[0] + "_" + range[1].minusDays(1) + ".pdf"));
+        chooser.setFileFilter(new FileNameExtensionFilter("PDF (all invoices in one file) or ZIP (one PDF per bill)", "pdf", "zip"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path target = chooser.getSelectedFile().toPath();
+
+        trigger.setEnabled(false);
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<InvoiceBatchExporter.Result, Void>() {
+            @Override
+            protected InvoiceBatchExporter.Result doInBackground() throws Exception {
+                return billingController.exportInvoices(range[0], range[1], target);
+            }
 
+            @Override
+            protected void done() {
+                trigger.setEnabled(true);
+                setCursor(Cursor.getDefaultCursor());
                 try {
-                    totalStaff = userDAO.getAllStaff().size();
-                } catch (Exception e) {
-                    totalStaff = 0;
+                    InvoiceBatchExporter.Result result = get();
+                    JOptionPane.showMessageDialog(ReportsPanel.this,
+                        "Exported " + result + " to " + target, "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(ReportsPanel.this,
+                        "Error exporting invoices: " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
                 }
+            }
+        }.execute();
+    }
 
-                writer.write("Staff Metric,Value\n");
-                writer.write("Total Staff," + totalStaff + "\n");
-                writer.write("Total Orders," + totalOrders + "\n");
-                writer.write("Total Revenue," + (totalStaffRevenue != null ? "$" + totalStaffRevenue : "$0.00") + "\n");
-                break;
+    private void exportCurrentData() {
+        int selectedTab = tabbedPane.getSelectedIndex();
+        String tabName = tabbedPane.getTitleAt(selectedTab);
+        ReportExporter.Section section = ReportExporter.Section.values()[selectedTab];
 
-            default:
-                writer.write("Data exported for " + tabName + "\n");
-        }
-        
-        writer.close();
-        JOptionPane.showMessageDialog(this, "Data exported to " + fileName, "Export Complete", JOptionPane.INFORMATION_MESSAGE);
-        
-    } catch (IOException e) {
-        JOptionPane.showMessageDialog(this, "Error exporting data: " + e.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+        Path target = chooseCsvFile("report_" + System.currentTimeMillis() + ".csv");
+        if (target == null) return;
+
+        runExport("Exporting " + tabName, target,
+            progress -> reportExporter.exportSection(section, tabName, target, progress));
+    }
+
+    private void exportBillLines() {
+        LocalDate[] range = promptDateRange("Export Bill Lines");
+        if (range == null) return;
+
+        Path target = chooseCsvFile("bill_lines_" + range[0] + "_" + range[1].minusDays(1) + ".csv");
+        if (target == null) return;
+
+        runExport("Exporting bill lines", target,
+            progress -> reportExporter.exportBillLines(range[0], range[1], target, progress));
     }
-}
 
+    private Path chooseCsvFile(String suggestedName) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(suggestedName));
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV (opens in Excel)", "csv"));
+        return chooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION ? chooser.getSelectedFile().toPath() : null;
+    }
+
+    private interface ExportJob {
+        long run(ReportExporter.Progress progress) throws Exception;
+    }
+
+    // Runs the export off the EDT and drives the header progress bar; one export at a time
+    private void runExport(String label, Path target, ExportJob job) {
+        exportBtn.setEnabled(false);
+        billLinesBtn.setEnabled(false);
+        exportProgress.setIndeterminate(true);
+        exportProgress.setString(label + "...");
+        exportProgress.setVisible(true);
+
+        new SwingWorker<Long, long[]>() {
+            @Override
+            protected Long doInBackground() throws Exception {
+                return job.run((rows, total) -> publish(new long[] { rows, total }));
+            }
+
+            @Override
+            protected void process(List<long[]> updates) {
+                long[] latest = updates.get(updates.size() - 1);
+                long rows = latest[0];
+                long total = latest[1];
+                if (total > 0) {
+                    exportProgress.setIndeterminate(false);
+                    exportProgress.setValue((int) Math.min(100, rows * 100 / total));
+                    exportProgress.setString(String.format("%s: %,d / %,d rows", label, rows, total));
+                } else {
+                    exportProgress.setString(String.format("%s: %,d rows", label, rows));
+                }
+            }
+
+            @Override
+            protected void done() {
+                exportProgress.setVisible(false);
+                exportBtn.setEnabled(true);
+                billLinesBtn.setEnabled(true);
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(ReportsPanel.this,
+                        String.format("Exported %,d rows to %s", rows, target), "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    cause.printStackTrace();
+                    JOptionPane.showMessageDialog(ReportsPanel.this,
+                        "Error exporting data: " + cause.getMessage(), "Export Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
 
     private void refreshAllReports() {
-        // Refresh all report data
-        SwingUtilities.invokeLater(() -> {
-            // Remove and re-add all tabs to refresh content
-            tabbedPane.removeAll();
-            tabbedPane.addTab("Sales Report", createSalesReportPanel());
-            tabbedPane.addTab("Financial Report", createFinancialReportPanel());
-            tabbedPane.addTab("Pet Statistics", createPetReportPanel());
-            tabbedPane.addTab("Inventory Report", createInventoryReportPanel());
-            tabbedPane.addTab("Customer Report", createCustomerReportPanel());
-            tabbedPane.addTab("Staff Report", createStaffReportPanel());
-            
-            JOptionPane.showMessageDialog(this, "All reports refreshed successfully!", "Refresh Complete", JOptionPane.INFORMATION_MESSAGE);
-        });
+        // Back to placeholders; the selected tab reloads now, the others when next selected
+        tabGeneration++;
+        for (int i = 0; i < tabbedPane.getTabCount(); i++) {
+            tabRequested[i] = false;
+            tabbedPane.setComponentAt(i, createTabHolder());
+        }
+        loadTab(tabbedPane.getSelectedIndex());
+        
+        JOptionPane.showMessageDialog(this, "All reports refreshed successfully!", "Refresh Complete", JOptionPane.INFORMATION_MESSAGE);
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package view.panel;
 
+import controller.bill.BillingController;
 import controller.user.UserController;
+import dao.bill.BillDAO;
 import model.user.Staff;
 import model.user.Manager;
 import controller.user.AuthController;
@@ -11,6 +13,10 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
 import view.dialog.StaffFormDialog;
 
 public class StaffPanel extends JPanel {
@@ -18,6 +24,9 @@ public class StaffPanel extends JPanel {
     private DefaultTableModel model;
     private JTextField searchField;
     private final UserController controller = new UserController();
+    private final BillingController billingController = new BillingController();
+    // This month's sales per staff id, reloaded with the table
+    private Map<Integer, BillDAO.StaffPerformance> monthPerformance = new HashMap<>();
 
     public StaffPanel() {
         setLayout(new BorderLayout());
@@ -78,11 +87,11 @@ public class StaffPanel extends JPanel {
         topPanel.add(filterPanel, BorderLayout.EAST);
 
         // === Modern Table Setup ===
-        String[] columns = {"ID", "Name", "Email", "Phone", "Username", "Salary", "Edit", "Delete"};
+        String[] columns = {"ID", "Name", "Email", "Phone", "Username", "Salary", "Orders (Month)", "Revenue (Month)", "Edit", "Delete"};
         model = new DefaultTableModel(columns, 0) {
             @Override
             public boolean isCellEditable(int row, int col) {
-                return col >= 6;
+                return col >= 8;
             }
         };
 
@@ -219,11 +228,27 @@ public class StaffPanel extends JPanel {
 
     private void loadStaff() {
         model.setRowCount(0);
+        loadMonthPerformance();
         controller.getAllStaff().forEach(this::addStaffToTable);
         staffTable.clearSelection();
     }
 
+    // One grouped query for everyone instead of two lookups per row
+    private void loadMonthPerformance() {
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        Map<Integer, BillDAO.StaffPerformance> byStaff = new HashMap<>();
+        try {
+            for (BillDAO.StaffPerformance performance : billingController.getStaffLeaderboard(monthStart, monthStart.plusMonths(1))) {
+                byStaff.put(performance.getStaffId(), performance);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        monthPerformance = byStaff;
+    }
+
     private void addStaffToTable(Staff s) {
+        BillDAO.StaffPerformance performance = monthPerformance.get(s.getId());
         model.addRow(new Object[]{
                 s.getId(),
                 s.getName(),
@@ -231,6 +256,8 @@ public class StaffPanel extends JPanel {
                 s.getPhone(),
                 s.getUsername(),
                 s.getSalary(),
+                performance != null ? performance.getOrders() : 0,
+                "$" + (performance != null ? performance.getRevenue() : BigDecimal.ZERO),
                 "✏️",
                 "🗑️"
         });
@@ -0,0 +1,53 @@
+package support;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Loads database/petshop.sql into an embedded H2 database in MySQL mode.
+ * Shared by the DAO tests (TestDatabase) and the perf profile (DaoLatencyCheck),
+ * so both run against the same translation of the schema.
+ */
+public final class H2Schema {
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE TABLE `(\\w+)`", Pattern.CASE_INSENSITIVE);
+    private static final Pattern KEY_NAME = Pattern.compile("KEY `(\\w+)`");
+
+    private H2Schema() {
+    }
+
+    // Runs the script against the current database, minus the statements that (re)create petshop_db
+    public static void load(Connection conn, Path script) throws IOException, SQLException {
+        // Comment lines go first: they may contain semicolons
+        StringBuilder sql = new StringBuilder();
+        for (String line : Files.readAllLines(script, StandardCharsets.UTF_8)) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        try (Statement st = conn.createStatement()) {
+            for (String statement : sql.toString().split(";")) {
+                String text = statement.trim();
+                String upper = text.toUpperCase();
+                if (text.isEmpty() || upper.startsWith("DROP DATABASE") || upper.startsWith("CREATE DATABASE")
+                        || upper.startsWith("USE ")) {
+                    continue;
+                }
+                st.execute(qualifyIndexNames(text));
+            }
+        }
+    }
+
+    // MySQL index names are per table but H2's are per schema, and petshop.sql reuses `email`
+    static String qualifyIndexNames(String statement) {
+        Matcher table = CREATE_TABLE.matcher(statement);
+        if (!table.find()) return statement;
+        return KEY_NAME.matcher(statement).replaceAll("KEY `" + table.group(1) + "_$1`");
+    }
+}
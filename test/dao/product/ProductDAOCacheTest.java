@@ -0,0 +1,75 @@
+package dao.product;
+
+import database.connection_provider;
+import model.product.Food;
+import model.product.Product;
+import support.TestDatabase;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Listings load only the list columns; the product cache must still hand out
+ * complete products afterwards, or editing one would save the missing fields as empty.
+ */
+public class ProductDAOCacheTest {
+    private static final String NUTRITION = "Protein 26%, Fat 14%";
+
+    private final ProductDAO dao = new ProductDAO();
+
+    @BeforeClass
+    public static void setUpDatabase() throws Exception {
+        TestDatabase.init();
+    }
+
+    @AfterClass
+    public static void shutDownPool() {
+        connection_provider.shutdown();
+    }
+
+    @Test
+    public void getByIdAfterGetAllKeepsDetailColumns() throws Exception {
+        int id = insertFood(9101);
+
+        List<Product> listed = ProductDAO.getAll();
+        assertTrue("listing should contain product " + id, listed.stream().anyMatch(p -> p.getId() == id));
+
+        Food food = (Food) dao.getById(id);
+        assertEquals(NUTRITION, food.getNutritionalInfo());
+    }
+
+    @Test
+    public void getByIdAfterFilteredListingKeepsDetailColumns() throws Exception {
+        int id = insertFood(9102);
+
+        dao.getByCondition("FOOD", "ASC");
+
+        Food food = (Food) dao.getById(id);
+        assertEquals(NUTRITION, food.getNutritionalInfo());
+    }
+
+    private static int insertFood(int id) throws SQLException {
+        try (Connection conn = TestDatabase.connect();
+             PreparedStatement ps = conn.prepareStatement(
+                 "INSERT INTO products (id, name, price, stock_quantity, type, expiration_date, nutritional_info, status) " +
+                 "VALUES (?, ?, 4.50, 20, 'FOOD', ?, ?, 1)")) {
+            ps.setInt(1, id);
+            ps.setString(2, "Test kibble " + id);
+            ps.setDate(3, java.sql.Date.valueOf(LocalDate.now().plusYears(1)));
+            ps.setString(4, NUTRITION);
+            ps.executeUpdate();
+        }
+        ProductDAO.invalidate(List.of(id));   // rows written behind the DAO's back
+        return id;
+    }
+}
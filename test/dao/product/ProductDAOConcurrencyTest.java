@@ -0,0 +1,150 @@
+package dao.product;
+
+import database.connection_provider;
+import support.TestDatabase;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Many tills selling the same product at once: the conditional update in
+ * ProductDAO.updateStock must never let stock go below zero or lose a sale.
+ */
+public class ProductDAOConcurrencyTest {
+    private static final int THREADS = 16;
+
+    private final ProductDAO dao = new ProductDAO();
+
+    @BeforeClass
+    public static void setUpDatabase() throws Exception {
+        TestDatabase.init();
+    }
+
+    @AfterClass
+    public static void shutDownPool() {
+        connection_provider.shutdown();
+    }
+
+    @Test
+    public void concurrentDecrementsNeverOversell() throws Exception {
+        int productId = insertProduct(9001, 100);
+        int attemptsPerThread = 20;   // 320 attempts for 100 items
+
+        List<Integer> sold = runConcurrently(() -> {
+            int ok = 0;
+            for (int i = 0; i < attemptsPerThread; i++) {
+                if (dao.updateStock(productId, -1)) ok++;
+            }
+            return ok;
+        });
+
+        assertEquals(100, sold.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(0, stockOf(productId));
+        assertEquals(0, statusOf(productId));
+    }
+
+    @Test
+    public void concurrentMixedQuantitiesAccountForEveryItem() throws Exception {
+        int productId = insertProduct(9002, 1000);
+
+        List<Integer> sold = runConcurrently(() -> {
+            int ok = 0;
+            for (int i = 0; i < 50; i++) {
+                int quantity = 1 + (int) (Thread.currentThread().getId() + i) % 5;
+                if (dao.decrementStock(productId, quantity)) ok += quantity;
+            }
+            return ok;
+        });
+
+        int totalSold = sold.stream().mapToInt(Integer::intValue).sum();
+        int left = stockOf(productId);
+        assertTrue("stock went negative: " + left, left >= 0);
+        assertEquals(1000, totalSold + left);
+    }
+
+    @Test
+    public void restockAfterSellingOutMakesProductAvailableAgain() throws Exception {
+        int productId = insertProduct(9003, 1);
+
+        assertTrue(dao.decrementStock(productId, 1));
+        assertEquals(0, statusOf(productId));
+        assertTrue(!dao.decrementStock(productId, 1));
+
+        assertTrue(dao.updateStock(productId, 5));
+        assertEquals(5, stockOf(productId));
+        assertEquals(1, statusOf(productId));
+    }
+
+    // Runs the task on THREADS threads released at the same moment and returns their results
+    private static List<Integer> runConcurrently(Callable<Integer> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int insertProduct(int id, int stock) throws SQLException {
+        try (Connection conn = TestDatabase.connect();
+             PreparedStatement ps = conn.prepareStatement(
+                 "INSERT INTO products (id, name, price, stock_quantity, type, material, status) " +
+                 "VALUES (?, ?, 9.99, ?, 'TOY', 'Rubber', 1)")) {
+            ps.setInt(1, id);
+            ps.setString(2, "Test toy " + id);
+            ps.setInt(3, stock);
+            ps.executeUpdate();
+        }
+        return id;
+    }
+
+    private static int stockOf(int id) throws SQLException {
+        return column(id, "stock_quantity");
+    }
+
+    private static int statusOf(int id) throws SQLException {
+        return column(id, "status");
+    }
+
+    private static int column(int id, String column) throws SQLException {
+        try (Connection conn = TestDatabase.connect();
+             PreparedStatement ps = conn.prepareStatement("SELECT " + column + " FROM products WHERE id = ?")) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue("no product " + id, rs.next());
+                return rs.getInt(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package model.billing;
+
+import model.pet.Cat;
+import model.pet.Dog;
+import model.pet.Pet;
+import model.product.Product;
+import model.product.Toy;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The cart keeps its total incrementally; after any sequence of changes it
+ * must equal the total recomputed from the items it holds.
+ */
+public class ShoppingCartTest {
+
+    @Test
+    public void totalMatchesItemsAfterScriptedChanges() {
+        ShoppingCart cart = new ShoppingCart();
+        Product ball = toy(1, "Ball", "19.99");
+        Product rope = toy(2, "Rope", "7.50");
+        Pet cat = cat(10, "Mimi", "350.00");
+
+        cart.addProduct(ball, 2);
+        assertTotal(cart, "39.98");
+
+        cart.addProduct(rope, 1);
+        cart.addProduct(ball, 3);
+        assertTotal(cart, "107.45");
+
+        cart.addPet(cat);
+        cart.addPet(cat);   // same pet twice is ignored
+        assertTotal(cart, "457.45");
+
+        cart.updateProductQuantity(ball.getId(), 1);
+        assertTotal(cart, "377.49");
+
+        cart.updateProductQuantity(rope.getId(), 4);
+        assertTotal(cart, "399.99");
+
+        cart.removeProduct(ball.getId());
+        assertTotal(cart, "380.00");
+
+        cart.removePet(cat.getId());
+        assertTotal(cart, "30.00");
+
+        cart.removeProduct(rope.getId());
+        assertTrue(cart.isEmpty());
+        assertTotal(cart, "0");
+    }
+
+    @Test
+    public void totalMatchesItemsAfterRandomChanges() {
+        Random random = new Random(42);
+        List<Product> products = new ArrayList<>();
+        List<Pet> pets = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            products.add(toy(i, "Toy " + i, random.nextInt(10_000) + "." + (10 + random.nextInt(90))));
+            pets.add(i % 2 == 0
+                ? dog(100 + i, "Dog " + i, random.nextInt(2_000) + ".99")
+                : cat(100 + i, "Cat " + i, random.nextInt(2_000) + ".49"));
+        }
+
+        ShoppingCart cart = new ShoppingCart();
+        for (int step = 0; step < 5_000; step++) {
+            Product product = products.get(random.nextInt(products.size()));
+            Pet pet = pets.get(random.nextInt(pets.size()));
+            switch (random.nextInt(6)) {
+                case 0:
+                case 1:
+                    cart.addProduct(product, 1 + random.nextInt(5));
+                    break;
+                case 2:
+                    if (cart.getProductItem(product.getId()) != null) {
+                        cart.updateProductQuantity(product.getId(), 1 + random.nextInt(20));
+                    }
+                    break;
+                case 3:
+                    cart.removeProduct(product.getId());
+                    break;
+                case 4:
+                    cart.addPet(pet);
+                    break;
+                default:
+                    cart.removePet(pet.getId());
+                    break;
+            }
+            assertEquals("step " + step, 0, recomputedTotal(cart).compareTo(cart.getTotal()));
+        }
+    }
+
+    @Test
+    public void rejectedQuantityLeavesTotalUnchanged() {
+        ShoppingCart cart = new ShoppingCart();
+        Product ball = toy(1, "Ball", "19.99");
+        cart.addProduct(ball, 2);
+
+        try {
+            cart.updateProductQuantity(ball.getId(), 0);
+            fail("quantity 0 should be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        assertEquals(2, cart.getProductQuantity(ball.getId()));
+        assertTotal(cart, "39.98");
+    }
+
+    @Test
+    public void clearResetsTotal() {
+        ShoppingCart cart = new ShoppingCart();
+        cart.addProduct(toy(1, "Ball", "19.99"), 2);
+        cart.addPet(dog(10, "Rex", "500.00"));
+
+        cart.clear();
+
+        assertTrue(cart.getAllItems().isEmpty());
+        assertTotal(cart, "0");
+        cart.addProduct(toy(2, "Rope", "7.50"), 1);
+        assertTotal(cart, "7.50");
+    }
+
+    private static void assertTotal(ShoppingCart cart, String expected) {
+        BigDecimal want = new BigDecimal(expected);
+        assertEquals("incremental total " + cart.getTotal(), 0, want.compareTo(cart.getTotal()));
+        assertEquals("recomputed total", 0, want.compareTo(recomputedTotal(cart)));
+    }
+
+    private static BigDecimal recomputedTotal(ShoppingCart cart) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (BillItem item : cart.getAllItems()) {
+            sum = sum.add(item.getUnitPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return sum;
+    }
+
+    private static Product toy(int id, String name, String price) {
+        Product toy = new Toy(name, new BigDecimal(price), 100, "Rubber");
+        toy.setId(id);
+        return toy;
+    }
+
+    private static Pet cat(int id, String name, String price) {
+        Pet cat = new Cat(name, "Persian", 2, new BigDecimal(price));
+        cat.setId(id);
+        return cat;
+    }
+
+    private static Pet dog(int id, String name, String price) {
+        Pet dog = new Dog(name, "Corgi", 3, new BigDecimal(price));
+        dog.setId(id);
+        return dog;
+    }
+}
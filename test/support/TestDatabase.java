@@ -0,0 +1,39 @@
+package support;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * In-memory H2 database (MySQL mode) created from database/petshop.sql and
+ * shared by the DAO tests. init() must run before anything reads
+ * DatabaseConfig, which picks the URL up from the petshop.db.* properties.
+ */
+public final class TestDatabase {
+    public static final String URL =
+        "jdbc:h2:mem:petshop_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH";
+
+    private static boolean loaded;
+
+    private TestDatabase() {
+    }
+
+    public static synchronized void init() throws IOException, SQLException {
+        if (loaded) return;
+        System.setProperty("petshop.db.url", URL);
+        System.setProperty("petshop.db.user", "sa");
+        System.setProperty("petshop.db.password", "");
+
+        try (Connection conn = connect()) {
+            H2Schema.load(conn, Paths.get("database", "petshop.sql"));
+        }
+        loaded = true;
+    }
+
+    // Direct connection, bypassing the pool and the DAO caches
+    public static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, "sa", "");
+    }
+}